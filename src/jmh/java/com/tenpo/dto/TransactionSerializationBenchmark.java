@@ -0,0 +1,78 @@
+package com.tenpo.dto;
+
+import java.io.ByteArrayOutputStream;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.tenpo.config.BinaryFormatConfig;
+
+// Serialización de listas de TransactionResponseDTO con fechas OffsetDateTime, usando la misma
+// configuración de Jackson que aplica Spring Boot. Compara JSON (con y sin gzip) contra CBOR y Smile
+// con fechas en microsegundos; el tamaño de cada formato se imprime al preparar el benchmark.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class TransactionSerializationBenchmark {
+
+    @Param({ "100", "1000" })
+    private int rows;
+
+    @Param({ "json", "json-gzip", "cbor", "smile" })
+    private String format;
+
+    private ObjectMapper objectMapper;
+    private boolean gzip;
+    private List<TransactionResponseDTO> transactions;
+
+    @Setup
+    public void setUp() throws Exception {
+        objectMapper = switch (format) {
+            case "json", "json-gzip" -> Jackson2ObjectMapperBuilder.json().build();
+            case "cbor" -> BinaryFormatConfig.binaryMapper(Jackson2ObjectMapperBuilder.json().factory(new CBORFactory()));
+            case "smile" -> BinaryFormatConfig.binaryMapper(Jackson2ObjectMapperBuilder.json().factory(new SmileFactory()));
+            default -> throw new IllegalArgumentException(format);
+        };
+        gzip = format.equals("json-gzip");
+        transactions = new ArrayList<>(rows);
+        OffsetDateTime date = OffsetDateTime.of(2025, 1, 1, 10, 0, 0, 0, ZoneOffset.ofHours(-3));
+        for (int i = 0; i < rows; i++) {
+            transactions.add(TransactionResponseDTO.builder()
+                    .id(i)
+                    .customer("customer-" + (i % 100))
+                    .amount(1000 + i)
+                    .merchant("merchant-" + (i % 20))
+                    .date(date.plusMinutes(i))
+                    .build());
+        }
+        System.out.printf("%n%s: %d bytes por %d filas%n", format, serializeList().length, rows);
+    }
+
+    @Benchmark
+    public byte[] serializeList() throws Exception {
+        if (!gzip) {
+            return objectMapper.writeValueAsBytes(transactions);
+        }
+        var bytes = new ByteArrayOutputStream();
+        try (var output = new GZIPOutputStream(bytes)) {
+            objectMapper.writeValue(output, transactions);
+        }
+        return bytes.toByteArray();
+    }
+}
@@ -0,0 +1,75 @@
+package com.tenpo.interceptor;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.tenpo.errors.RateLimitException;
+import com.tenpo.ratelimit.RateLimitAlgorithm;
+import com.tenpo.ratelimit.LocalRateLimitStore;
+import com.tenpo.ratelimit.RateLimitEngine;
+import com.tenpo.ratelimit.RateLimitProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+// preHandle con pocas claves compartidas entre hilos, para medir la contención sobre el mismo estado
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Threads(4)
+public class RateLimitInterceptorBenchmark {
+
+    @Param({ "SLIDING_WINDOW", "TOKEN_BUCKET" })
+    private RateLimitAlgorithm algorithm;
+
+    // Cantidad de clientes distintos: con pocas claves la contención es mayor
+    @Param({ "1", "16" })
+    private int keys;
+
+    private RateLimitInterceptor interceptor;
+    private MockHttpServletRequest[] requests;
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+
+    @Setup
+    public void setUp() {
+        var route = new RateLimitProperties.Route();
+        route.setMethod("POST");
+        route.setPattern("/api/transaction/create");
+        route.setAlgorithm(algorithm);
+        route.setLimit(60_000);
+        route.setWindow(Duration.ofSeconds(1));
+
+        var properties = new RateLimitProperties();
+        properties.setRoutes(List.of(route));
+        interceptor = new RateLimitInterceptor(new RateLimitEngine(properties, new LocalRateLimitStore(), new SimpleMeterRegistry()));
+
+        requests = new MockHttpServletRequest[keys];
+        for (int i = 0; i < keys; i++) {
+            requests[i] = new MockHttpServletRequest("POST", "/api/transaction/create");
+            requests[i].setRemoteAddr("10.0.0." + i);
+        }
+    }
+
+    @Benchmark
+    public void preHandle(Blackhole blackhole) throws Exception {
+        var request = requests[(int) (Thread.currentThread().getId() % keys)];
+        try {
+            blackhole.consume(interceptor.preHandle(request, response, null));
+        } catch (RateLimitException e) {
+            // Las solicitudes rechazadas también son parte del camino caliente
+            blackhole.consume(e);
+        }
+    }
+}
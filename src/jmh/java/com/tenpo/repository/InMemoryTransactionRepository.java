@@ -0,0 +1,65 @@
+package com.tenpo.repository;
+
+import java.lang.reflect.Proxy;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.tenpo.model.Transaction;
+
+// Repositorio en memoria para benchmarks: implementa solo los métodos que usa el servicio
+// en los caminos medidos, sin levantar Spring ni una base de datos.
+public final class InMemoryTransactionRepository {
+
+    private InMemoryTransactionRepository() {
+    }
+
+    public static TransactionRepository create(List<Transaction> initial) {
+        Map<Integer, Transaction> rows = new ConcurrentHashMap<>();
+        AtomicInteger sequence = new AtomicInteger();
+        initial.forEach(transaction -> {
+            transaction.setId(sequence.incrementAndGet());
+            rows.put(transaction.getId(), transaction);
+        });
+
+        return (TransactionRepository) Proxy.newProxyInstance(
+                TransactionRepository.class.getClassLoader(),
+                new Class<?>[] { TransactionRepository.class },
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "countByCustomer" -> rows.values().stream()
+                            .filter(t -> t.getCustomer().equals(args[0]))
+                            .count();
+                    case "countByCustomerIn" -> {
+                        Collection<?> customers = (Collection<?>) args[0];
+                        yield customers.stream()
+                                .map(customer -> (CustomerTransactionCount) new CustomerTransactionCount() {
+                                    public String getCustomer() {
+                                        return (String) customer;
+                                    }
+
+                                    public long getTotal() {
+                                        return rows.values().stream().filter(t -> t.getCustomer().equals(customer)).count();
+                                    }
+                                })
+                                .toList();
+                    }
+                    case "findById" -> Optional.ofNullable(rows.get(args[0]));
+                    case "save" -> {
+                        Transaction transaction = (Transaction) args[0];
+                        if (transaction.getId() == 0) {
+                            transaction.setId(sequence.incrementAndGet());
+                        }
+                        rows.put(transaction.getId(), transaction);
+                        yield transaction;
+                    }
+                    case "findAll" -> List.copyOf(rows.values());
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> "InMemoryTransactionRepository";
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
@@ -0,0 +1,56 @@
+package com.tenpo.service;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.tenpo.dto.TransactionResponseDTO;
+import com.tenpo.model.Transaction;
+import com.tenpo.repository.InMemoryTransactionRepository;
+
+// Conversión de entidades a TransactionResponseDTO, por lote de 1000 filas
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class TransactionMappingBenchmark {
+
+    private static final int ROWS = 1000;
+
+    private TransactionService service;
+    private List<Transaction> transactions;
+
+    @Setup
+    public void setUp() {
+        transactions = new ArrayList<>(ROWS);
+        OffsetDateTime date = OffsetDateTime.of(2025, 1, 1, 10, 0, 0, 0, ZoneOffset.UTC);
+        for (int i = 0; i < ROWS; i++) {
+            transactions.add(Transaction.builder()
+                    .customer("customer-" + (i % 100))
+                    .amount(1000 + i)
+                    .merchant("merchant-" + (i % 20))
+                    .date(date.plusMinutes(i))
+                    .build());
+        }
+        var repository = InMemoryTransactionRepository.create(transactions);
+        service = new TransactionService(repository, null, new CustomerTransactionCounter(repository, 100_000), null, null);
+    }
+
+    @Benchmark
+    public List<TransactionResponseDTO> mapThousandRows() {
+        var result = new ArrayList<TransactionResponseDTO>(ROWS);
+        for (Transaction transaction : transactions) {
+            result.add(service.getTransactionResponseDTO(transaction));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,53 @@
+package com.tenpo.service;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import com.tenpo.dto.TransactionRequestDTO;
+import com.tenpo.model.Transaction;
+import com.tenpo.repository.InMemoryTransactionRepository;
+
+// Validación de una solicitud, incluido el cupo por cliente, contra el repositorio en memoria
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Threads(4)
+public class ValidateTransactionBenchmark {
+
+    private TransactionService service;
+    private CustomerTransactionCounter counter;
+    private TransactionRequestDTO request;
+
+    @Setup
+    public void setUp() {
+        OffsetDateTime date = OffsetDateTime.of(2025, 1, 1, 10, 0, 0, 0, ZoneOffset.UTC);
+        var transactions = new ArrayList<Transaction>();
+        for (int i = 0; i < 50; i++) {
+            transactions.add(Transaction.builder().customer("Juan").amount(1000).merchant("StoreA").date(date).build());
+        }
+        var repository = InMemoryTransactionRepository.create(List.copyOf(transactions));
+        counter = new CustomerTransactionCounter(repository, 100_000);
+        service = new TransactionService(repository, null, counter, null, null);
+        request = TransactionRequestDTO.builder().customer("Juan").amount(1000L).merchant("StoreA").date(date).build();
+    }
+
+    @Benchmark
+    public void validateAndReserve() {
+        service.validateTransaction(request);
+        service.reserveCustomerSlot(request.getCustomer());
+        // Sin transacción activa la liberación es inmediata y el cupo se mantiene estable
+        counter.release(request.getCustomer());
+    }
+}
@@ -0,0 +1,196 @@
+package com.tenpo.load;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.jar.JarFile;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Tiempo de arranque del jar empaquetado, en procesos separados y contra PostgreSQL, hasta que la
+// aplicación queda lista ("Started TenpoApplication ... process running for X"). Compara el jar tal cual
+// con el arranque del Dockerfile: jar extraído, archivo CDS de una ejecución de entrenamiento y, si el
+// jar se empaquetó con el perfil aot, la inicialización generada en el build. Cada modo se mide también
+// con spring.main.lazy-initialization=true.
+//
+// Ejecutar con: mvn -Paot,load-test verify -Dskip.load-tests=true
+// Opciones (-D): startup.runs (3, se informa la mediana), startup.profiles (prod; deben coincidir con aot.profiles).
+// Los resultados quedan en target/load-test/startup.properties.
+class ApplicationStartupIT {
+
+    private static final Pattern STARTED =
+            Pattern.compile("Started TenpoApplication in [\\d.]+ seconds \\(process running for ([\\d.]+)\\)");
+    private static final String AOT_INITIALIZER = "BOOT-INF/classes/com/tenpo/TenpoApplication__ApplicationContextInitializer.class";
+
+    private static final Path TARGET = Path.of("target");
+    private static final Path WORK = TARGET.resolve("startup");
+    private static final Path RESULTS = TARGET.resolve("load-test").resolve("startup.properties");
+    private static final String JAVA = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+
+    private static final int RUNS = Integer.getInteger("startup.runs", 3);
+    private static final String PROFILES = System.getProperty("startup.profiles", "prod");
+    private static final long TIMEOUT_SECONDS = 180;
+
+    private static EmbeddedPostgres postgres;
+
+    @BeforeAll
+    static void start() throws IOException {
+        postgres = EmbeddedPostgres.builder().start();
+    }
+
+    @AfterAll
+    static void stop() throws IOException {
+        if (postgres != null) {
+            postgres.close();
+        }
+    }
+
+    @Test
+    void archivedStartupIsFasterThanPlainJar() throws Exception {
+        Path jar = packagedJar();
+        boolean aot = isAotProcessed(jar);
+        Path application = extract(jar);
+        List<String> aotFlags = aot ? List.of("-Dspring.aot.enabled=true") : List.of();
+        Path archive = train(application, aotFlags);
+
+        List<String> archived = new ArrayList<>(aotFlags);
+        archived.add("-XX:SharedArchiveFile=" + archive.toAbsolutePath());
+        archived.add("-jar");
+        archived.add(application.resolve("backend.jar").toString());
+        String mode = aot ? "aot.cds" : "cds";
+
+        Map<String, Double> results = new LinkedHashMap<>();
+        results.put("jar", median(List.of("-jar", jar.toString()), List.of()));
+        results.put("jar.lazy", median(List.of("-jar", jar.toString()), List.of("--spring.main.lazy-initialization=true")));
+        results.put(mode, median(archived, List.of()));
+        results.put(mode + ".lazy", median(archived, List.of("--spring.main.lazy-initialization=true")));
+
+        Properties properties = new Properties();
+        results.forEach((key, seconds) -> properties.setProperty("startup." + key + ".seconds", String.format("%.2f", seconds)));
+        Files.createDirectories(RESULTS.getParent());
+        try (Writer writer = Files.newBufferedWriter(RESULTS)) {
+            properties.store(writer, String.format("ApplicationStartupIT: perfiles %s, mediana de %d, %d núcleos",
+                    PROFILES, RUNS, Runtime.getRuntime().availableProcessors()));
+        }
+        results.forEach((key, seconds) -> System.out.printf("startup.%s.seconds=%.2f%n", key, seconds));
+
+        assertTrue(results.get(mode) < results.get("jar"),
+                "Startup with " + mode + " (" + results.get(mode) + "s) is not faster than the plain jar ("
+                        + results.get("jar") + "s)");
+    }
+
+    private static Path packagedJar() throws IOException {
+        try (Stream<Path> files = Files.list(TARGET)) {
+            return files.filter(path -> path.getFileName().toString().endsWith(".jar"))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalStateException("No packaged jar in target, run with mvn verify"));
+        }
+    }
+
+    private static boolean isAotProcessed(Path jar) throws IOException {
+        try (JarFile file = new JarFile(jar.toFile())) {
+            return file.getEntry(AOT_INITIALIZER) != null;
+        }
+    }
+
+    // Mismo formato que el Dockerfile: bibliotecas en lib/ y la aplicación en backend.jar
+    private static Path extract(Path jar) throws Exception {
+        Path destination = WORK.resolve("application");
+        exec(List.of(JAVA, "-Djarmode=tools", "-jar", jar.toString(), "extract", "--force",
+                "--destination", destination.toString(), "--application-filename", "backend.jar"));
+        return destination;
+    }
+
+    // Ejecución de entrenamiento sin base de datos, como en el build de la imagen
+    private static Path train(Path application, List<String> aotFlags) throws Exception {
+        Path archive = WORK.resolve("application.jsa");
+        Files.deleteIfExists(archive);
+        List<String> command = new ArrayList<>(List.of(JAVA, "-XX:ArchiveClassesAtExit=" + archive.toAbsolutePath(),
+                "-Dspring.context.exit=onRefresh"));
+        command.addAll(aotFlags);
+        command.addAll(List.of("-jar", application.resolve("backend.jar").toString(),
+                "--spring.profiles.active=" + PROFILES,
+                "--spring.datasource.url=jdbc:postgresql://localhost:1/training",
+                // Con {vendor} Flyway consultaría la base de datos para elegir la carpeta
+                "--spring.flyway.locations=classpath:db/migration/postgresql",
+                "--spring.jpa.hibernate.ddl-auto=none",
+                "--spring.jpa.properties.hibernate.boot.allow_jdbc_metadata_access=false"));
+        exec(command);
+        assertTrue(Files.exists(archive), "The training run did not create " + archive);
+        return archive;
+    }
+
+    private static double median(List<String> launch, List<String> extraArgs) throws Exception {
+        double[] seconds = new double[RUNS];
+        for (int i = 0; i < RUNS; i++) {
+            seconds[i] = measure(launch, extraArgs);
+        }
+        Arrays.sort(seconds);
+        return seconds[RUNS / 2];
+    }
+
+    // Inicia la aplicación, espera la línea de arranque y la detiene; devuelve los segundos desde el inicio de la JVM
+    private static double measure(List<String> launch, List<String> extraArgs) throws Exception {
+        List<String> command = new ArrayList<>(List.of(JAVA, "-Xmx512m"));
+        command.addAll(launch);
+        command.addAll(List.of("--server.port=0",
+                "--spring.profiles.active=" + PROFILES,
+                "--spring.datasource.url=" + postgres.getJdbcUrl("postgres", "postgres"),
+                "--spring.datasource.username=postgres",
+                "--spring.datasource.password=postgres"));
+        command.addAll(extraArgs);
+
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+        Deque<String> lastLines = new ArrayDeque<>();
+        try (BufferedReader output = new BufferedReader(
+                new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(TIMEOUT_SECONDS);
+            String line;
+            while (System.nanoTime() < deadline && (line = output.readLine()) != null) {
+                Matcher matcher = STARTED.matcher(line);
+                if (matcher.find()) {
+                    return Double.parseDouble(matcher.group(1));
+                }
+                if (lastLines.size() == 20) {
+                    lastLines.removeFirst();
+                }
+                lastLines.addLast(line);
+            }
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+        }
+        throw new IllegalStateException("The application did not start: " + command + "\n" + String.join("\n", lastLines));
+    }
+
+    private static void exec(List<String> command) throws Exception {
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+        String output = new String(process.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+        if (!process.waitFor(TIMEOUT_SECONDS, TimeUnit.SECONDS) || process.exitValue() != 0) {
+            throw new IllegalStateException("Command failed: " + command + "\n" + output);
+        }
+    }
+}
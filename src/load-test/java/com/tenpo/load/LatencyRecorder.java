@@ -0,0 +1,33 @@
+package com.tenpo.load;
+
+import java.util.Arrays;
+
+// Latencias de una operación, en nanosegundos. Se guardan todas las muestras para calcular
+// percentiles exactos; con la duración de las pruebas de carga son unos pocos MB como máximo.
+class LatencyRecorder {
+
+    private long[] samples = new long[4096];
+    private int count;
+
+    synchronized void record(long nanos) {
+        if (count == samples.length) {
+            samples = Arrays.copyOf(samples, count * 2);
+        }
+        samples[count++] = nanos;
+    }
+
+    synchronized int count() {
+        return count;
+    }
+
+    // Percentil (0 < percentile <= 100) en milisegundos, por el método del rango más cercano
+    synchronized double percentileMillis(double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        long[] sorted = Arrays.copyOf(samples, count);
+        Arrays.sort(sorted);
+        int rank = (int) Math.ceil(percentile / 100 * count);
+        return sorted[Math.max(rank, 1) - 1] / 1e6;
+    }
+}
@@ -0,0 +1,304 @@
+package com.tenpo.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tenpo.TenpoApplication;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Tráfico mixto (create/update/delete/page) de clientes concurrentes contra la aplicación completa
+// sobre PostgreSQL. Falla si el throughput o las latencias empeoran más allá de la tolerancia
+// respecto de load-baselines.properties.
+//
+// Ejecutar con: mvn -Pload-test test -Dtest=TransactionApiLoadTest
+// Opciones (-D): load.jdbc-url/load.jdbc-username/load.jdbc-password para una base externa
+// (por defecto PostgreSQL embebido), load.profiles (prod), load.clients, load.warmup, load.duration.
+// Los resultados quedan en target/load-test/results.properties; para actualizar las referencias
+// se copia ese archivo sobre src/load-test/resources/load-baselines.properties.
+class TransactionApiLoadTest {
+
+    enum Operation { CREATE, UPDATE, DELETE, PAGE }
+
+    private static final String BASELINES = "/load-baselines.properties";
+    private static final Path RESULTS = Path.of("target", "load-test", "results.properties");
+
+    // Mezcla de tráfico en porcentaje: la mayoría lecturas y altas, como en producción
+    private static final int PAGE_WEIGHT = 40;
+    private static final int CREATE_WEIGHT = 30;
+    private static final int UPDATE_WEIGHT = 20;
+
+    // Por debajo del máximo de 100 transacciones por cliente
+    private static final int TRANSACTIONS_PER_CUSTOMER = 50;
+
+    private static final int CLIENTS = Integer.getInteger("load.clients", 16);
+    private static final Duration WARMUP = Duration.parse(System.getProperty("load.warmup", "PT10S"));
+    private static final Duration DURATION = Duration.parse(System.getProperty("load.duration", "PT30S"));
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static EmbeddedPostgres postgres;
+    private static ConfigurableApplicationContext context;
+    private static String baseUrl;
+
+    @BeforeAll
+    static void start() throws IOException {
+        String jdbcUrl = System.getProperty("load.jdbc-url");
+        String username = System.getProperty("load.jdbc-username", "postgres");
+        String password = System.getProperty("load.jdbc-password", "postgres");
+        if (jdbcUrl == null) {
+            postgres = EmbeddedPostgres.builder().start();
+            jdbcUrl = postgres.getJdbcUrl("postgres", "postgres");
+        }
+
+        context = new SpringApplicationBuilder(TenpoApplication.class)
+                .run("--server.port=0",
+                        "--spring.profiles.active=" + System.getProperty("load.profiles", "prod"),
+                        "--spring.datasource.url=" + jdbcUrl,
+                        "--spring.datasource.username=" + username,
+                        "--spring.datasource.password=" + password,
+                        // Se mide la API, no el limitador de tasa
+                        "--tenpo.rate-limit.enabled=false",
+                        "--spring.jpa.show-sql=false",
+                        "--logging.level.com.tenpo=WARN",
+                        "--logging.level.org.hibernate=WARN",
+                        "--logging.level.org.springframework.jdbc.datasource=WARN");
+        int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+        baseUrl = "http://localhost:" + port + "/api/transaction";
+    }
+
+    @AfterAll
+    static void stop() throws IOException {
+        if (context != null) {
+            context.close();
+        }
+        if (postgres != null) {
+            postgres.close();
+        }
+    }
+
+    @Test
+    void mixedTrafficDoesNotRegress() throws Exception {
+        // Calentamiento: JIT, pool de conexiones y cache de sentencias de pgjdbc
+        run(WARMUP);
+        Map<Operation, LatencyRecorder> latencies = run(DURATION);
+
+        Properties results = summarize(latencies, DURATION.toNanos() / 1e9);
+        Files.createDirectories(RESULTS.getParent());
+        try (Writer writer = Files.newBufferedWriter(RESULTS)) {
+            results.store(writer, String.format("TransactionApiLoadTest: %d clientes, %s, %d núcleos",
+                    CLIENTS, DURATION, Runtime.getRuntime().availableProcessors()));
+        }
+        results.stringPropertyNames().stream().sorted()
+                .forEach(key -> System.out.printf("%s=%s%n", key, results.getProperty(key)));
+
+        List<String> regressions = compareWithBaselines(results);
+        assertTrue(regressions.isEmpty(), "Load test regressions: " + String.join("; ", regressions));
+    }
+
+    // Ejecuta el tráfico mixto durante el tiempo indicado y devuelve las latencias por operación
+    private Map<Operation, LatencyRecorder> run(Duration duration) throws Exception {
+        Map<Operation, LatencyRecorder> latencies = new EnumMap<>(Operation.class);
+        for (Operation operation : Operation.values()) {
+            latencies.put(operation, new LatencyRecorder());
+        }
+        HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger failures = new AtomicInteger();
+        List<String> failureSamples = new ArrayList<>();
+        long deadline = System.nanoTime() + duration.toNanos();
+        String runId = Long.toString(System.nanoTime(), 36);
+
+        for (int c = 0; c < CLIENTS; c++) {
+            VirtualClient virtualClient = new VirtualClient(client, "load-" + runId + "-" + c);
+            clients.execute(() -> {
+                try {
+                    start.await();
+                    while (System.nanoTime() < deadline) {
+                        Operation operation = virtualClient.next();
+                        long begin = System.nanoTime();
+                        String failure = virtualClient.execute(operation);
+                        latencies.get(operation).record(System.nanoTime() - begin);
+                        if (failure != null) {
+                            failures.incrementAndGet();
+                            synchronized (failureSamples) {
+                                if (failureSamples.size() < 5) {
+                                    failureSamples.add(failure);
+                                }
+                            }
+                        }
+                    }
+                } catch (Exception e) {
+                    failures.incrementAndGet();
+                    synchronized (failureSamples) {
+                        failureSamples.add(e.toString());
+                    }
+                }
+            });
+        }
+
+        start.countDown();
+        clients.shutdown();
+        assertTrue(clients.awaitTermination(duration.toSeconds() + 60, TimeUnit.SECONDS));
+        assertEquals(0, failures.get(), () -> "Failed requests, e.g. " + failureSamples);
+        return latencies;
+    }
+
+    private static Properties summarize(Map<Operation, LatencyRecorder> latencies, double seconds) {
+        Properties results = new Properties();
+        int total = 0;
+        for (var entry : latencies.entrySet()) {
+            String prefix = entry.getKey().name().toLowerCase(Locale.ROOT);
+            LatencyRecorder recorder = entry.getValue();
+            total += recorder.count();
+            results.setProperty(prefix + ".throughput", format(recorder.count() / seconds));
+            results.setProperty(prefix + ".p50", format(recorder.percentileMillis(50)));
+            results.setProperty(prefix + ".p95", format(recorder.percentileMillis(95)));
+            results.setProperty(prefix + ".p99", format(recorder.percentileMillis(99)));
+        }
+        results.setProperty("total.throughput", format(total / seconds));
+        return results;
+    }
+
+    // Compara contra las referencias: el throughput no puede bajar y los percentiles no pueden
+    // subir más que la tolerancia. Las métricas sin referencia (p. ej. p50) solo se informan.
+    private static List<String> compareWithBaselines(Properties results) throws IOException {
+        Properties baselines = new Properties();
+        try (InputStream in = TransactionApiLoadTest.class.getResourceAsStream(BASELINES)) {
+            assertNotNull(in, "Missing " + BASELINES);
+            baselines.load(in);
+        }
+        String defaultTolerance = baselines.getProperty("tolerance", "0.25");
+        List<String> regressions = new ArrayList<>();
+        for (String key : results.stringPropertyNames()) {
+            String baseline = baselines.getProperty(key);
+            if (baseline == null) {
+                continue;
+            }
+            // tolerance.<métrica> (p. ej. tolerance.p99) permite más variación en las colas
+            String metric = key.substring(key.indexOf('.') + 1);
+            double tolerance = Double.parseDouble(baselines.getProperty("tolerance." + metric, defaultTolerance));
+            double expected = Double.parseDouble(baseline);
+            double actual = Double.parseDouble(results.getProperty(key));
+            boolean regressed = key.endsWith(".throughput")
+                    ? actual < expected * (1 - tolerance)
+                    : actual > expected * (1 + tolerance);
+            if (regressed) {
+                regressions.add(String.format(Locale.ROOT, "%s=%s (baseline %s)", key, results.getProperty(key), baseline));
+            }
+        }
+        regressions.sort(null);
+        return regressions;
+    }
+
+    private static String format(double value) {
+        return String.format(Locale.ROOT, "%.2f", value);
+    }
+
+    // Un cliente de la API: recuerda las transacciones que creó para actualizarlas o eliminarlas
+    private static class VirtualClient {
+
+        private final HttpClient client;
+        private final String customerPrefix;
+        private final List<Integer> ids = new ArrayList<>();
+        private int created;
+
+        VirtualClient(HttpClient client, String customerPrefix) {
+            this.client = client;
+            this.customerPrefix = customerPrefix;
+        }
+
+        Operation next() {
+            int roll = ThreadLocalRandom.current().nextInt(100);
+            if (roll < PAGE_WEIGHT) {
+                return Operation.PAGE;
+            }
+            if (roll < PAGE_WEIGHT + CREATE_WEIGHT || ids.isEmpty()) {
+                return Operation.CREATE;
+            }
+            return roll < PAGE_WEIGHT + CREATE_WEIGHT + UPDATE_WEIGHT ? Operation.UPDATE : Operation.DELETE;
+        }
+
+        // Devuelve null si la respuesta fue la esperada, o una descripción del error
+        String execute(Operation operation) throws IOException, InterruptedException {
+            return switch (operation) {
+                case CREATE -> {
+                    var response = send(HttpRequest.newBuilder(URI.create(baseUrl + "/create"))
+                            .POST(body(customer(), 1000)));
+                    if (response.statusCode() == 201) {
+                        ids.add(MAPPER.readTree(response.body()).get("id").asInt());
+                        created++;
+                    }
+                    yield describe(operation, response, 201);
+                }
+                case UPDATE -> {
+                    int id = ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+                    var response = send(HttpRequest.newBuilder(URI.create(baseUrl + "/update/" + id))
+                            .PUT(body(customer(), 2000)));
+                    yield describe(operation, response, 200);
+                }
+                case DELETE -> {
+                    int id = ids.remove(ids.size() - 1);
+                    var response = send(HttpRequest.newBuilder(URI.create(baseUrl + "/delete/" + id)).DELETE());
+                    yield describe(operation, response, 204);
+                }
+                case PAGE -> {
+                    var response = send(HttpRequest.newBuilder(URI.create(baseUrl + "/page?size=20")).GET());
+                    yield describe(operation, response, 200);
+                }
+            };
+        }
+
+        // Cambia de cliente cada TRANSACTIONS_PER_CUSTOMER altas para no llegar al máximo por cliente
+        private String customer() {
+            return customerPrefix + "-" + (created / TRANSACTIONS_PER_CUSTOMER);
+        }
+
+        private HttpResponse<String> send(HttpRequest.Builder request) throws IOException, InterruptedException {
+            return client.send(request.header("Content-Type", "application/json").build(), HttpResponse.BodyHandlers.ofString());
+        }
+
+        private HttpRequest.BodyPublisher body(String customer, int amount) throws IOException {
+            return HttpRequest.BodyPublishers.ofString(MAPPER.writeValueAsString(Map.of(
+                    "customer", customer,
+                    "amount", amount + ThreadLocalRandom.current().nextInt(1000),
+                    "merchant", "load-merchant-" + ThreadLocalRandom.current().nextInt(20),
+                    "date", OffsetDateTime.now(ZoneOffset.UTC).minusMinutes(1).toString())));
+        }
+
+        private static String describe(Operation operation, HttpResponse<String> response, int expectedStatus) {
+            return response.statusCode() == expectedStatus ? null
+                    : operation + " -> " + response.statusCode() + " " + response.body();
+        }
+    }
+}
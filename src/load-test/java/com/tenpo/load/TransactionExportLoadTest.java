@@ -0,0 +1,137 @@
+package com.tenpo.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tenpo.TenpoApplication;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Writer;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Properties;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Exportación completa (/export) contra PostgreSQL: la tabla se llena con generate_series y se descarga
+// en CSV, en NDJSON comprimido y con filtro de fechas, contando las filas recibidas. Informa filas por segundo.
+//
+// Ejecutar con: mvn -Pload-test test -Dtest=TransactionExportLoadTest
+// Opciones (-D): export.rows (1000000).
+// Los resultados quedan en target/load-test/export.properties.
+class TransactionExportLoadTest {
+
+    private static final int ROWS = Integer.getInteger("export.rows", 1_000_000);
+    private static final Path RESULTS = Path.of("target", "load-test", "export.properties");
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static EmbeddedPostgres postgres;
+    private static ConfigurableApplicationContext context;
+    private static String baseUrl;
+
+    @BeforeAll
+    static void start() throws IOException {
+        postgres = EmbeddedPostgres.builder().start();
+        context = new SpringApplicationBuilder(TenpoApplication.class)
+                .run("--server.port=0",
+                        "--spring.datasource.url=" + postgres.getJdbcUrl("postgres", "postgres"),
+                        "--spring.datasource.username=postgres",
+                        "--spring.datasource.password=postgres",
+                        "--tenpo.rate-limit.enabled=false",
+                        "--spring.jpa.show-sql=false",
+                        "--logging.level.org.hibernate=WARN");
+        int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+        baseUrl = "http://localhost:" + port + "/api/transaction";
+
+        // Una fila por minuto desde 2024-01-01 UTC; una coma y comillas en el comercio para probar el escape CSV
+        context.getBean(JdbcTemplate.class).update("""
+                INSERT INTO transactions (id, customer, amount, merchant, date, version)
+                SELECT i, 'Cliente ' || (i % 10000), 1000 + i, 'Comercio "' || (i % 50) || '", Santiago',
+                       timestamptz '2024-01-01 00:00:00+00' + i * interval '1 minute', 0
+                FROM generate_series(1, ?) AS i""", ROWS);
+    }
+
+    @AfterAll
+    static void stop() throws IOException {
+        if (context != null) {
+            context.close();
+        }
+        if (postgres != null) {
+            postgres.close();
+        }
+    }
+
+    @Test
+    void exportStreamsEveryRow() throws Exception {
+        HttpClient client = HttpClient.newHttpClient();
+        Properties results = new Properties();
+
+        long started = System.nanoTime();
+        long csvLines = countLines(get(client, "/export?format=csv"), false, null);
+        double csvSeconds = (System.nanoTime() - started) / 1e9;
+        assertEquals(ROWS + 1, csvLines, "CSV lines (header included)");
+
+        JsonNode[] first = new JsonNode[1];
+        started = System.nanoTime();
+        long ndjsonLines = countLines(get(client, "/export?format=ndjson&gzip=true"), true, first);
+        double ndjsonSeconds = (System.nanoTime() - started) / 1e9;
+        assertEquals(ROWS, ndjsonLines);
+        assertEquals(1, first[0].get("id").asInt());
+        assertEquals(1001, first[0].get("amount").asLong());
+        assertEquals("Comercio \"1\", Santiago", first[0].get("merchant").asText());
+        assertEquals("2024-01-01T00:01:00.000000Z", first[0].get("date").asText());
+
+        // Segundo día: ids 1440 a 2879
+        long dayLines = countLines(get(client, "/export?format=ndjson&from=2024-01-02T00:00:00Z&to=2024-01-03T00:00:00Z"), false, null);
+        assertEquals(Math.max(0, Math.min(ROWS, 2879) - 1439), dayLines);
+
+        results.setProperty("export.csv.rows-per-second", String.format("%.0f", ROWS / csvSeconds));
+        results.setProperty("export.ndjson-gzip.rows-per-second", String.format("%.0f", ROWS / ndjsonSeconds));
+        Files.createDirectories(RESULTS.getParent());
+        try (Writer writer = Files.newBufferedWriter(RESULTS)) {
+            results.store(writer, String.format("TransactionExportLoadTest: %d filas, %d núcleos",
+                    ROWS, Runtime.getRuntime().availableProcessors()));
+        }
+        results.stringPropertyNames().stream().sorted()
+                .forEach(key -> System.out.printf("%s=%s%n", key, results.getProperty(key)));
+    }
+
+    private static HttpResponse<InputStream> get(HttpClient client, String path) throws Exception {
+        HttpResponse<InputStream> response = client.send(HttpRequest.newBuilder(URI.create(baseUrl + path)).build(),
+                HttpResponse.BodyHandlers.ofInputStream());
+        assertEquals(200, response.statusCode(), path);
+        return response;
+    }
+
+    // Cuenta las líneas del cuerpo sin acumularlo; en NDJSON conserva el primer objeto
+    private static long countLines(HttpResponse<InputStream> response, boolean gzip, JsonNode[] first) throws IOException {
+        InputStream body = gzip ? new GZIPInputStream(response.body(), 64 * 1024) : response.body();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8), 64 * 1024)) {
+            long lines = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (lines == 0 && first != null) {
+                    first[0] = MAPPER.readTree(line);
+                }
+                lines++;
+            }
+            return lines;
+        }
+    }
+}
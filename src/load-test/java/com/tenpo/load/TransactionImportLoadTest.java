@@ -0,0 +1,165 @@
+package com.tenpo.load;
+
+import com.tenpo.TenpoApplication;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Importación masiva (/import) contra PostgreSQL: genera un CSV con filas inválidas intercaladas y un cliente
+// que supera el máximo, lo envía en una sola solicitud y verifica las filas promovidas, el archivo de
+// rechazos, el registro de cambios y que los ids no choquen con los que asigna la aplicación.
+// Informa filas por minuto.
+//
+// Ejecutar con: mvn -Pload-test test -Dtest=TransactionImportLoadTest
+// Opciones (-D): import.rows (1000000).
+// Los resultados quedan en target/load-test/import.properties.
+class TransactionImportLoadTest {
+
+    private static final int ROWS = Integer.getInteger("import.rows", 1_000_000);
+    // Cada INVALID_EVERY filas una inválida, rotando entre los motivos
+    private static final int INVALID_EVERY = 1000;
+    // Filas del cliente que supera el máximo de 100
+    private static final int OVER_LIMIT_ROWS = 120;
+    private static final Path CSV = Path.of("target", "load-test", "import.csv");
+    private static final Path RESULTS = Path.of("target", "load-test", "import.properties");
+
+    private static EmbeddedPostgres postgres;
+    private static ConfigurableApplicationContext context;
+    private static String baseUrl;
+
+    @BeforeAll
+    static void start() throws IOException {
+        postgres = EmbeddedPostgres.builder().start();
+        context = new SpringApplicationBuilder(TenpoApplication.class)
+                .run("--server.port=0",
+                        "--spring.datasource.url=" + postgres.getJdbcUrl("postgres", "postgres"),
+                        "--spring.datasource.username=postgres",
+                        "--spring.datasource.password=postgres",
+                        "--tenpo.rate-limit.enabled=false",
+                        "--spring.jpa.show-sql=false",
+                        "--logging.level.org.hibernate=WARN");
+        int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+        baseUrl = "http://localhost:" + port + "/api/transaction";
+    }
+
+    @AfterAll
+    static void stop() throws IOException {
+        if (context != null) {
+            context.close();
+        }
+        if (postgres != null) {
+            postgres.close();
+        }
+    }
+
+    @Test
+    void importPromotesValidRowsAndRejectsTheRest() throws Exception {
+        HttpClient client = HttpClient.newHttpClient();
+        // Una transacción creada por la API antes de importar: sus ids no deben repetirse
+        assertEquals(201, post(client, "/create", "application/json", HttpRequest.BodyPublishers.ofString(
+                "{\"customer\":\"api\",\"amount\":1000,\"merchant\":\"Tienda\",\"date\":\"2025-01-01T10:00:00Z\"}")).statusCode());
+        long invalid = writeCsv();
+
+        long started = System.nanoTime();
+        HttpResponse<String> response = post(client, "/import", "text/csv", HttpRequest.BodyPublishers.ofFile(CSV));
+        double seconds = (System.nanoTime() - started) / 1e9;
+
+        assertEquals(200, response.statusCode(), response.body());
+        long rejected = invalid + OVER_LIMIT_ROWS - 100;
+        long imported = ROWS + OVER_LIMIT_ROWS - rejected;
+        assertEquals(Long.toString(imported), response.headers().firstValue("X-Imported-Count").orElseThrow());
+        assertEquals(Long.toString(rejected), response.headers().firstValue("X-Rejected-Count").orElseThrow());
+        List<String> rejects = response.body().lines().toList();
+        assertEquals(rejected + 1, rejects.size(), "Reject file lines (header included)");
+        assertEquals("line,reason,customer,amount,merchant,date", rejects.get(0));
+        assertTrue(rejects.get(1).startsWith(INVALID_EVERY + 1 + ",The date cannot be later than the current date,"), rejects.get(1));
+        assertTrue(rejects.stream().anyMatch(line -> line.contains("No more than 100 transactions can be recorded")));
+
+        var jdbc = context.getBean(JdbcTemplate.class);
+        assertEquals(imported + 1, jdbc.queryForObject("SELECT count(*) FROM transactions", Long.class));
+        assertEquals(imported + 1, jdbc.queryForObject("SELECT count(*) FROM transaction_changes", Long.class));
+        // Confirmada la importación, sus cambios quedan visibles para los consumidores y sin secuencias repetidas
+        assertEquals(imported + 1, jdbc.queryForObject("SELECT count(DISTINCT seq) FROM transaction_changes_visible", Long.class));
+        // Y publica la invalidación de los caches por cliente para las demás réplicas
+        assertEquals(1L, jdbc.queryForObject("SELECT generation FROM cache_invalidations WHERE name = 'customers'", Long.class));
+
+        // La aplicación sigue asignando ids libres y ve los contadores por cliente actualizados
+        for (int i = 0; i < 60; i++) {
+            assertEquals(201, post(client, "/create", "application/json", HttpRequest.BodyPublishers.ofString(
+                    "{\"customer\":\"api " + i + "\",\"amount\":1000,\"merchant\":\"Tienda\",\"date\":\"2025-01-01T10:00:00Z\"}")).statusCode());
+        }
+        assertEquals(400, post(client, "/create", "application/json", HttpRequest.BodyPublishers.ofString(
+                "{\"customer\":\"limite\",\"amount\":1000,\"merchant\":\"Tienda\",\"date\":\"2025-01-01T10:00:00Z\"}")).statusCode());
+
+        Properties results = new Properties();
+        results.setProperty("import.rows-per-minute", String.format("%.0f", (ROWS + OVER_LIMIT_ROWS) / seconds * 60));
+        Files.createDirectories(RESULTS.getParent());
+        try (Writer writer = Files.newBufferedWriter(RESULTS)) {
+            results.store(writer, String.format("TransactionImportLoadTest: %d filas, %d núcleos",
+                    ROWS, Runtime.getRuntime().availableProcessors()));
+        }
+        results.stringPropertyNames().stream().sorted()
+                .forEach(key -> System.out.printf("%s=%s%n", key, results.getProperty(key)));
+    }
+
+    // Escribe el CSV en formato de /export (con id y version, que se ignoran); devuelve las filas inválidas
+    private static long writeCsv() throws IOException {
+        var base = OffsetDateTime.of(2024, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC);
+        String future = OffsetDateTime.now(ZoneOffset.UTC).plusDays(1).toString();
+        String[] invalidRows = {
+                "0,fut,1000,Tienda," + future + ",0",
+                "0,cero,0,Tienda,2024-01-01T00:00:00Z,0",
+                "0,texto,mil,Tienda,2024-01-01T00:00:00Z,0",
+                "0,fecha,1000,Tienda,2025-02-30T00:00:00Z,0",
+                "0,sinzona,1000,Tienda,2024-01-01T00:00:00,0",
+                "0,,1000,Tienda,2024-01-01T00:00:00Z,0"
+        };
+        long invalid = 0;
+        Files.createDirectories(CSV.getParent());
+        try (BufferedWriter writer = Files.newBufferedWriter(CSV)) {
+            writer.write("id,customer,amount,merchant,date,version\n");
+            for (int i = 1; i <= ROWS; i++) {
+                if (i % INVALID_EVERY == 0) {
+                    writer.write(invalidRows[(int) (invalid++ % invalidRows.length)]);
+                } else {
+                    // 50 filas por cliente, por debajo del máximo; el comercio con coma y comillas
+                    writer.write(i + ",Cliente " + i / 50 + "," + (1000 + i) + ",\"Comercio \"\"" + i % 50 + "\"\", Santiago\","
+                            + base.plusSeconds(i) + ",0");
+                }
+                writer.write('\n');
+            }
+            for (int i = 0; i < OVER_LIMIT_ROWS; i++) {
+                writer.write("0,limite,1000,Tienda," + base.plusSeconds(i) + ",0\n");
+            }
+        }
+        return invalid;
+    }
+
+    private static HttpResponse<String> post(HttpClient client, String path, String contentType,
+            HttpRequest.BodyPublisher body) throws Exception {
+        return client.send(HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Content-Type", contentType)
+                .POST(body)
+                .build(), HttpResponse.BodyHandlers.ofString());
+    }
+}
@@ -2,8 +2,13 @@ package com.tenpo;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
-@SpringBootApplication
+// Con el perfil Maven reactive, R2DBC queda en el classpath: se excluye para que no reemplace al DataSource JDBC
+@SpringBootApplication(excludeName = "org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration")
+@ConfigurationPropertiesScan
+@EnableScheduling
 public class TenpoApplication {
 
 	public static void main(String[] args) {
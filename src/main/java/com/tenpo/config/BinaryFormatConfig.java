@@ -0,0 +1,35 @@
+package com.tenpo.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+// Negociación de contenido para respuestas binarias: con Accept: application/cbor o
+// application/x-jackson-smile los endpoints devuelven el mismo DTO en formato compacto.
+// JSON sigue siendo el formato por defecto. Los mappers parten de la configuración de Jackson de Spring Boot.
+@Configuration
+public class BinaryFormatConfig {
+
+    @Bean
+    MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(binaryMapper(builder.factory(new CBORFactory())));
+    }
+
+    @Bean
+    MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(binaryMapper(builder.factory(new SmileFactory())));
+    }
+
+    // El módulo se registra al final para que prevalezca sobre el de java.time
+    public static ObjectMapper binaryMapper(Jackson2ObjectMapperBuilder builder) {
+        ObjectMapper mapper = builder.build();
+        mapper.registerModule(new EpochMicrosModule());
+        return mapper;
+    }
+}
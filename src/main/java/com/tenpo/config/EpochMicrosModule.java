@@ -0,0 +1,54 @@
+package com.tenpo.config;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+
+// Fechas OffsetDateTime como microsegundos desde epoch (UTC) para los formatos binarios:
+// un entero en lugar de una cadena ISO-8601 de ~25 bytes que además hay que formatear y parsear.
+// Al leer también se aceptan cadenas ISO-8601.
+public class EpochMicrosModule extends SimpleModule {
+
+    public EpochMicrosModule() {
+        super("EpochMicrosModule");
+        addSerializer(OffsetDateTime.class, new Serializer());
+        addDeserializer(OffsetDateTime.class, new Deserializer());
+    }
+
+    static long toEpochMicros(OffsetDateTime date) {
+        Instant instant = date.toInstant();
+        return Math.addExact(Math.multiplyExact(instant.getEpochSecond(), 1_000_000L), instant.getNano() / 1_000);
+    }
+
+    static OffsetDateTime fromEpochMicros(long micros) {
+        return Instant.EPOCH.plus(micros, ChronoUnit.MICROS).atOffset(ZoneOffset.UTC);
+    }
+
+    private static final class Serializer extends JsonSerializer<OffsetDateTime> {
+        @Override
+        public void serialize(OffsetDateTime value, JsonGenerator generator, SerializerProvider provider) throws IOException {
+            generator.writeNumber(toEpochMicros(value));
+        }
+    }
+
+    private static final class Deserializer extends JsonDeserializer<OffsetDateTime> {
+        @Override
+        public OffsetDateTime deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+            if (parser.currentToken() == JsonToken.VALUE_NUMBER_INT) {
+                return fromEpochMicros(parser.getLongValue());
+            }
+            return OffsetDateTime.parse(parser.getValueAsString());
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.tenpo.config;
+
+import java.sql.SQLException;
+
+import javax.sql.DataSource;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.HibernateMetrics;
+import org.springframework.boot.actuate.autoconfigure.metrics.MeterRegistryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import jakarta.persistence.EntityManagerFactory;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+// Métricas propias de la aplicación. Los tiempos por endpoint (http.server.requests), por llamada
+// al repositorio (spring.data.repository.invocations) y las métricas de HikariCP las registra
+// Spring Boot; los histogramas de percentiles se habilitan en application.properties.
+@Configuration
+public class MetricsConfig {
+
+    // Etiqueta común para distinguir esta aplicación en Prometheus
+    @Bean
+    MeterRegistryCustomizer<MeterRegistry> commonTags() {
+        return registry -> registry.config().commonTags("application", "backend-transactions");
+    }
+
+    // Saturación del pool de conexiones: (conexiones activas + hilos esperando) / tamaño máximo
+    @Bean
+    MeterBinder dataSourcePoolSaturation(DataSource dataSource) {
+        return registry -> {
+            HikariDataSource hikari = unwrapHikari(dataSource);
+            if (hikari == null) {
+                return;
+            }
+            Gauge.builder("tenpo.datasource.pool.saturation", hikari, MetricsConfig::saturation)
+                    .description("Active connections plus waiting threads over the maximum pool size")
+                    .register(registry);
+        };
+    }
+
+    // Estadísticas de Hibernate, incluidos aciertos y fallos de la cache de segundo nivel (perfil cache).
+    // Se registran solo si generate_statistics está activo; se comprueba al iniciar porque AOT fijaría una condición.
+    @Bean
+    MeterBinder hibernateMetrics(EntityManagerFactory entityManagerFactory) {
+        var sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        return registry -> {
+            if (sessionFactory.getStatistics().isStatisticsEnabled()) {
+                new HibernateMetrics(sessionFactory, "transactions", Tags.empty()).bindTo(registry);
+            }
+        };
+    }
+
+    private static double saturation(HikariDataSource dataSource) {
+        var pool = dataSource.getHikariPoolMXBean();
+        if (pool == null) {
+            return 0;
+        }
+        return (pool.getActiveConnections() + pool.getThreadsAwaitingConnection()) / (double) dataSource.getMaximumPoolSize();
+    }
+
+    private static HikariDataSource unwrapHikari(DataSource dataSource) {
+        try {
+            return dataSource.isWrapperFor(HikariDataSource.class) ? dataSource.unwrap(HikariDataSource.class) : null;
+        } catch (SQLException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.tenpo.config;
+
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+import net.ttddyy.dsproxy.proxy.ProxyJdbcObject;
+
+// Recursos y proxies que el procesamiento AOT no descubre por sí solo; solo se usan al compilar
+// una imagen nativa (mvn -Pjava21,native native:compile). En la JVM esta clase no tiene efecto.
+@Configuration
+@ImportRuntimeHints(NativeImageHints.Registrar.class)
+public class NativeImageHints {
+
+    static class Registrar implements RuntimeHintsRegistrar {
+
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            // Flyway lista las migraciones del classpath y JCache lee la configuración de Caffeine (perfil cache)
+            hints.resources()
+                    .registerPattern("db/migration/postgresql/*.sql")
+                    .registerPattern("caffeine-hibernate.conf");
+            // datasource-proxy (registro de consultas lentas) envuelve la conexión y las sentencias con proxies JDK
+            for (Class<?> jdbcType : new Class<?>[] {
+                    Connection.class, Statement.class, PreparedStatement.class, CallableStatement.class }) {
+                hints.proxies().registerJdkProxy(ProxyJdbcObject.class, jdbcType);
+            }
+        }
+    }
+}
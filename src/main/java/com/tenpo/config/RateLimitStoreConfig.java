@@ -0,0 +1,25 @@
+package com.tenpo.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.tenpo.ratelimit.LocalRateLimitStore;
+import com.tenpo.ratelimit.PostgresRateLimitStore;
+import com.tenpo.ratelimit.RateLimitProperties;
+import com.tenpo.ratelimit.RateLimitStore;
+
+// Elige el almacén de rate limiting al iniciar según tenpo.rate-limit.store. Es un único bean y no una
+// condición por clase: con el procesamiento AOT las condiciones quedan fijadas en el build, el método no.
+@Configuration
+public class RateLimitStoreConfig {
+
+    @Bean
+    RateLimitStore rateLimitStore(RateLimitProperties properties, ObjectProvider<JdbcTemplate> jdbcTemplate) {
+        return switch (properties.getStore()) {
+            case LOCAL -> new LocalRateLimitStore();
+            case POSTGRES -> new PostgresRateLimitStore(jdbcTemplate.getObject());
+        };
+    }
+}
@@ -0,0 +1,79 @@
+package com.tenpo.config;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Locale;
+import java.util.TreeSet;
+
+import javax.sql.DataSource;
+
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationInitializer;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import lombok.extern.slf4j.Slf4j;
+
+// Migra el esquema al iniciar y verifica que existan los índices de los que dependen las consultas.
+// Flyway valida las migraciones ya aplicadas (validate-on-migrate) e Hibernate las columnas (ddl-auto=validate);
+// esta verificación cubre los índices, que ninguno de los dos revisa.
+@Slf4j
+@Configuration
+public class SchemaMigrationConfig {
+
+    static final String TRANSACTIONS_TABLE = "transactions";
+    static final List<String> REQUIRED_INDEXES = List.of(
+            "idx_transactions_customer_date",
+            "idx_transactions_merchant_date",
+            "idx_transactions_date",
+            "uq_transactions_idempotency_key");
+
+    @Bean
+    FlywayMigrationStrategy verifyingMigrationStrategy(Environment environment) {
+        return flyway -> {
+            // La ejecución de entrenamiento del archivo CDS (ver Dockerfile) solo levanta el contexto y sale,
+            // sin una base de datos disponible
+            if ("onRefresh".equals(environment.getProperty("spring.context.exit"))) {
+                log.info("Ejecución de entrenamiento: se omite la migración del esquema");
+                return;
+            }
+            flyway.migrate();
+            verifyIndexes(flyway.getConfiguration().getDataSource());
+        };
+    }
+
+    // Con spring.main.lazy-initialization=true la migración y la verificación siguen ocurriendo al iniciar,
+    // antes de aceptar tráfico, y no en la primera consulta
+    @Bean
+    static LazyInitializationExcludeFilter eagerSchemaMigration() {
+        return LazyInitializationExcludeFilter.forBeanTypes(FlywayMigrationInitializer.class);
+    }
+
+    static void verifyIndexes(DataSource dataSource) {
+        try (Connection connection = dataSource.getConnection()) {
+            var missing = new TreeSet<>(REQUIRED_INDEXES);
+            var metaData = connection.getMetaData();
+            // El nombre de la tabla se busca tal como lo guarda cada motor (minúsculas en PostgreSQL, mayúsculas en H2)
+            for (String table : List.of(TRANSACTIONS_TABLE, TRANSACTIONS_TABLE.toUpperCase(Locale.ROOT))) {
+                try (var indexes = metaData.getIndexInfo(connection.getCatalog(), null, table, false, true)) {
+                    while (indexes.next()) {
+                        String name = indexes.getString("INDEX_NAME");
+                        if (name != null) {
+                            missing.remove(name.toLowerCase(Locale.ROOT));
+                        }
+                    }
+                }
+            }
+            if (!missing.isEmpty()) {
+                throw new IllegalStateException("Database schema drift detected, missing indexes on "
+                        + TRANSACTIONS_TABLE + ": " + missing);
+            }
+            log.info("Esquema verificado: índices de {} presentes", TRANSACTIONS_TABLE);
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not verify the database schema", e);
+        }
+    }
+}
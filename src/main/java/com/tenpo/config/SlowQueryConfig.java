@@ -0,0 +1,70 @@
+package com.tenpo.config;
+
+import java.time.Duration;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import lombok.extern.slf4j.Slf4j;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.listener.logging.DefaultQueryLogEntryCreator;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+
+// Registro de consultas lentas (tenpo.slow-query.enabled=true). Envuelve el DataSource y escribe en el log,
+// con sus parámetros, solo las sentencias que superan tenpo.slow-query.threshold; el resto no genera salida.
+// El DataSource envuelto sigue exponiendo el de HikariCP con unwrap, por lo que sus métricas no cambian.
+// La propiedad se lee al iniciar y no en una condición, que el procesamiento AOT fijaría en el build.
+@Slf4j
+@Configuration
+public class SlowQueryConfig {
+
+    @Bean
+    static BeanPostProcessor slowQueryDataSourcePostProcessor(@Value("${tenpo.slow-query.enabled:false}") boolean enabled,
+            @Value("${tenpo.slow-query.threshold:500ms}") Duration threshold) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (enabled && bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)) {
+                    log.info("Registrando consultas de más de {} ms del DataSource {}", threshold.toMillis(), beanName);
+                    return wrap(dataSource, beanName, threshold);
+                }
+                return bean;
+            }
+        };
+    }
+
+    static ProxyDataSource wrap(DataSource dataSource, String name, Duration threshold) {
+        return ProxyDataSourceBuilder.create(name, dataSource)
+                .listener(new SlowQueryListener(threshold.toMillis()))
+                .build();
+    }
+
+    static final class SlowQueryListener implements QueryExecutionListener {
+
+        private final long thresholdMillis;
+        private final DefaultQueryLogEntryCreator entryCreator = new DefaultQueryLogEntryCreator();
+
+        SlowQueryListener(long thresholdMillis) {
+            this.thresholdMillis = thresholdMillis;
+        }
+
+        @Override
+        public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        }
+
+        @Override
+        public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+            if (execInfo.getElapsedTime() >= thresholdMillis && log.isWarnEnabled()) {
+                log.warn("Consulta lenta: {}", entryCreator.getLogEntry(execInfo, queryInfoList, true, false, false));
+            }
+        }
+    }
+}
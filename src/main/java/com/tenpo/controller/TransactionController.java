@@ -1,19 +1,50 @@
 package com.tenpo.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.tenpo.dto.CustomerSummaryDTO;
+import com.tenpo.dto.TransactionAggregateDTO;
+import com.tenpo.dto.TransactionBatchResponseDTO;
+import com.tenpo.dto.TransactionChangesDTO;
+import com.tenpo.dto.TransactionPageDTO;
 import com.tenpo.dto.TransactionRequestDTO;
 import com.tenpo.dto.TransactionResponseDTO;
+import com.tenpo.errors.BadRequestException;
+import com.tenpo.service.TransactionChangeFeed;
+import com.tenpo.service.TransactionExportFormat;
+import com.tenpo.service.TransactionExporter;
+import com.tenpo.service.TransactionIdempotencyService;
+import com.tenpo.service.TransactionImporter;
+import com.tenpo.service.TransactionSearchCriteria;
 import com.tenpo.service.TransactionService;
+import com.tenpo.service.TransactionSort;
 import io.swagger.v3.oas.annotations.Operation;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
 import java.util.List;
+import java.util.zip.GZIPInputStream;
 
 
 @Slf4j
@@ -22,32 +53,228 @@ import java.util.List;
 @RequiredArgsConstructor
 public class TransactionController {
 
+    private static final int STREAM_FLUSH_ROWS = 500;
+
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    public static final String IMPORTED_COUNT_HEADER = "X-Imported-Count";
+    public static final String REJECTED_COUNT_HEADER = "X-Rejected-Count";
+
     private final TransactionService service;
+    private final TransactionIdempotencyService idempotencyService;
+    private final TransactionChangeFeed changeFeed;
+    private final TransactionExporter exporter;
+    private final TransactionImporter importer;
+    private final ObjectMapper objectMapper;
 
     // Retorna todas las transacciones
     @GetMapping("/allTransactions")
-    @Operation(summary = "Get All Transactions", description = "Retrieve a list of all transactions")
+    @Operation(summary = "Get All Transactions", description = "Retrieve a list of all transactions. For large tables use /page or /stream instead")
     public ResponseEntity<List<TransactionResponseDTO>> getAllTransactions() {
         log.info("Obteniendo todas las transacciones");
         var transactions = service.getAllTransactions();
         return ResponseEntity.ok(transactions);
     }
 
+    // Retorna una página de transacciones usando un cursor opaco
+    @GetMapping("/page")
+    @Operation(summary = "Get Transactions Page", description = "Retrieve transactions ordered by date and id using keyset pagination")
+    public ResponseEntity<TransactionPageDTO> getTransactionsPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + TransactionService.DEFAULT_PAGE_SIZE) int size) {
+        log.info("Obteniendo página de transacciones");
+        var page = service.getTransactionsPage(cursor, size);
+        return ResponseEntity.ok(page);
+    }
+
+    // Busca transacciones con filtros opcionales, ordenadas por fecha o monto, usando un cursor opaco
+    @GetMapping("/search")
+    @Operation(summary = "Search Transactions", description = "Filter transactions by customer, merchant, amount range (inclusive) and date range [from, to). "
+            + "Sort by date or amount (e.g. amount,desc); pass nextCursor with the same filters and sort to get the next page")
+    public ResponseEntity<TransactionPageDTO> searchTransactions(
+            @RequestParam(required = false) String customer,
+            @RequestParam(required = false) String merchant,
+            @RequestParam(required = false) Long minAmount,
+            @RequestParam(required = false) Long maxAmount,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime to,
+            @RequestParam(defaultValue = "date") String sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + TransactionService.DEFAULT_PAGE_SIZE) int size) {
+        log.info("Buscando transacciones");
+        var criteria = new TransactionSearchCriteria(customer, merchant, minAmount, maxAmount, from, to);
+        var page = service.searchTransactions(criteria, TransactionSort.parse(sort), cursor, size);
+        return ResponseEntity.ok(page);
+    }
+
+    // Transmite todas las transacciones en formato NDJSON a medida que avanza el cursor JDBC
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Stream All Transactions", description = "Stream every transaction as newline-delimited JSON")
+    public ResponseEntity<StreamingResponseBody> streamTransactions() {
+        log.info("Transmitiendo todas las transacciones");
+        StreamingResponseBody body = outputStream -> {
+            var writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                // Sin separador entre valores raíz: cada fila termina con su propio salto de línea
+                generator.setRootValueSeparator(null);
+                int[] rows = {0};
+                service.forEachTransaction(transaction -> {
+                    try {
+                        writer.writeValue(generator, transaction);
+                        generator.writeRaw('\n');
+                        if (++rows[0] % STREAM_FLUSH_ROWS == 0) {
+                            generator.flush();
+                        }
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    // Exporta las transacciones como archivo CSV o NDJSON, copiado desde PostgreSQL directamente a la respuesta.
+    // Se escribe en el hilo de la solicitud (sin el timeout de las respuestas asíncronas) porque puede durar minutos.
+    @GetMapping("/export")
+    @Operation(summary = "Export Transactions", description = "Download every transaction with date in [from, to) as CSV (with header) or NDJSON, "
+            + "ordered by date and id, with dates in UTC. With gzip=true the file is gzip-compressed")
+    public void exportTransactions(
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime to,
+            @RequestParam(defaultValue = "false") boolean gzip,
+            HttpServletResponse response) throws IOException {
+        log.info("Exportando transacciones");
+        var exportFormat = TransactionExportFormat.parse(format);
+        String filename = "transactions." + exportFormat.extension() + (gzip ? ".gz" : "");
+        response.setContentType(gzip ? "application/gzip" : exportFormat.contentType() + ";charset=UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(filename).build().toString());
+        exporter.export(exportFormat, from, to, gzip, response.getOutputStream());
+    }
+
+    // Importa un archivo CSV con COPY de PostgreSQL; responde con el archivo de filas rechazadas y los totales en encabezados
+    @PostMapping(value = "/import", consumes = "text/csv")
+    @Operation(summary = "Import Transactions", description = "Import a CSV file with a header including customer, amount, merchant and date "
+            + "(an /export file works as is). Rows are validated like /create; the response is a CSV with the line and reason of each "
+            + "rejected row, and the X-Imported-Count and X-Rejected-Count headers. Send Content-Encoding: gzip for a compressed file")
+    public void importTransactions(
+            @RequestHeader(name = HttpHeaders.CONTENT_ENCODING, required = false) String contentEncoding,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+        log.info("Importando transacciones");
+        InputStream csv = "gzip".equalsIgnoreCase(contentEncoding)
+                ? new GZIPInputStream(request.getInputStream(), 64 * 1024)
+                : request.getInputStream();
+        importer.importCsv(csv, result -> {
+            response.setContentType("text/csv;charset=UTF-8");
+            response.setHeader(IMPORTED_COUNT_HEADER, Long.toString(result.imported()));
+            response.setHeader(REJECTED_COUNT_HEADER, Long.toString(result.rejected()));
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                    ContentDisposition.attachment().filename("rejected.csv").build().toString());
+            return response.getOutputStream();
+        });
+    }
+
+    // Retorna cantidad, suma y promedio de montos por cliente, de a size clientes posteriores a after
+    @GetMapping("/aggregates/customers")
+    @Operation(summary = "Get Totals By Customer", description = "Retrieve count, total and average amount per customer, ordered by customer. "
+            + "Pass the last key as after to get the next page")
+    public ResponseEntity<List<TransactionAggregateDTO>> getAggregatesByCustomer(
+            @RequestParam(defaultValue = "") String after,
+            @RequestParam(defaultValue = "" + TransactionService.DEFAULT_PAGE_SIZE) int size) {
+        log.info("Obteniendo totales por cliente");
+        return ResponseEntity.ok(service.getAggregatesByCustomer(after, size));
+    }
+
+    // Retorna cantidad, total y últimas transacciones de un cliente desde memoria
+    @GetMapping("/customer/{customer}/summary")
+    @Operation(summary = "Get Customer Summary", description = "Retrieve the transaction count, total amount and most recent transactions of a customer, served from memory")
+    public ResponseEntity<CustomerSummaryDTO> getCustomerSummary(@PathVariable String customer) {
+        log.info("Obteniendo resumen del cliente {}", customer);
+        return ResponseEntity.ok(service.getCustomerSummary(customer));
+    }
+
+    // Retorna cantidad, suma y promedio de montos por comercio, de a size comercios posteriores a after
+    @GetMapping("/aggregates/merchants")
+    @Operation(summary = "Get Totals By Merchant", description = "Retrieve count, total and average amount per merchant, ordered by merchant. "
+            + "Pass the last key as after to get the next page")
+    public ResponseEntity<List<TransactionAggregateDTO>> getAggregatesByMerchant(
+            @RequestParam(defaultValue = "") String after,
+            @RequestParam(defaultValue = "" + TransactionService.DEFAULT_PAGE_SIZE) int size) {
+        log.info("Obteniendo totales por comercio");
+        return ResponseEntity.ok(service.getAggregatesByMerchant(after, size));
+    }
+
+    // Retorna cantidad, suma y promedio de montos por día; por defecto los últimos 30 días
+    @GetMapping("/aggregates/daily")
+    @Operation(summary = "Get Daily Totals", description = "Retrieve count, total and average amount per UTC day between from and to (inclusive)")
+    public ResponseEntity<List<TransactionAggregateDTO>> getDailyAggregates(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        log.info("Obteniendo totales diarios");
+        var end = to != null ? to : LocalDate.now(ZoneOffset.UTC);
+        var start = from != null ? from : end.minusDays(29);
+        return ResponseEntity.ok(service.getDailyAggregates(start, end));
+    }
+
+    // Retorna los cambios posteriores a la secuencia since (creaciones, actualizaciones y eliminaciones)
+    @GetMapping("/changes")
+    @Operation(summary = "Get Transaction Changes", description = "Retrieve the changes committed after the since sequence. Use lastSeq as the next since")
+    public ResponseEntity<TransactionChangesDTO> getChanges(
+            @RequestParam(defaultValue = "0") long since,
+            @RequestParam(defaultValue = "" + TransactionChangeFeed.DEFAULT_CHANGES) int limit) {
+        log.info("Obteniendo cambios posteriores a la secuencia {}", since);
+        return ResponseEntity.ok(changeFeed.getChanges(since, limit));
+    }
+
+    // Transmite los cambios por SSE a medida que se confirman; Last-Event-ID permite reanudar
+    @GetMapping(value = "/changes/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream Transaction Changes", description = "Tail the changes committed after the since sequence as server-sent events")
+    public SseEmitter streamChanges(
+            @RequestParam(required = false) Long since,
+            @RequestHeader(name = "Last-Event-ID", required = false) Long lastEventId) {
+        log.info("Suscribiendo a los cambios de transacciones");
+        return changeFeed.subscribe(lastEventId != null ? lastEventId : since != null ? since : 0);
+    }
+
     // Crea una nueva transacción
     @PostMapping("/create")
-    @Operation(summary = "Create Transaction", description = "Used to create a transaction")
-    public ResponseEntity<TransactionResponseDTO> createTransaction(@Valid @RequestBody TransactionRequestDTO request) {
+    @Operation(summary = "Create Transaction", description = "Used to create a transaction. Retries with the same Idempotency-Key header return the original transaction")
+    public ResponseEntity<TransactionResponseDTO> createTransaction(
+            @RequestHeader(name = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+            @Valid @RequestBody TransactionRequestDTO request) {
         log.info("Creando una nueva transacción para el cliente {}", request.getCustomer());
-        var createdTransaction = service.createTransaction(request);
+        var createdTransaction = idempotencyKey == null
+                ? service.createTransaction(request)
+                : idempotencyService.createTransaction(idempotencyKey, request);
         return ResponseEntity.status(HttpStatus.CREATED).body(createdTransaction);
     }
 
-    // Actualiza una transacción
+    // Crea un lote de transacciones y reporta el resultado de cada una
+    @PostMapping("/batch")
+    @Operation(summary = "Create Transactions Batch", description = "Used to create up to 5000 transactions in a single request. Retries with the same Idempotency-Key header return the original result")
+    public ResponseEntity<TransactionBatchResponseDTO> createTransactions(
+            @RequestHeader(name = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+            @RequestBody List<TransactionRequestDTO> requests) {
+        log.info("Creando un lote de {} transacciones", requests.size());
+        var result = idempotencyKey == null
+                ? service.createTransactions(requests)
+                : idempotencyService.createTransactions(idempotencyKey, requests);
+        return ResponseEntity.ok(result);
+    }
+
+    // Actualiza una transacción; con If-Match solo si la versión coincide (409 si cambió)
     @PutMapping("/update/{id}")
-    @Operation(summary = "Update Transaction", description = "Used to update a transaction")
-    public ResponseEntity<TransactionResponseDTO> updateTransaction(@PathVariable int id, @Valid @RequestBody TransactionRequestDTO request) {
+    @Operation(summary = "Update Transaction", description = "Used to update a transaction. With an If-Match header holding the current version, concurrent edits are rejected with 409")
+    public ResponseEntity<TransactionResponseDTO> updateTransaction(@PathVariable int id,
+            @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @Valid @RequestBody TransactionRequestDTO request) {
         log.info("Actualizando transacción con ID {}", id);
-        var updatedTransaction = service.updateTransaction(id, request);
+        var updatedTransaction = ifMatch == null
+                ? service.updateTransaction(id, request)
+                : service.updateTransaction(id, request, parseVersion(ifMatch));
         return ResponseEntity.ok(updatedTransaction);
     }
 
@@ -59,5 +286,20 @@ public class TransactionController {
         service.deleteTransaction(id);
         return ResponseEntity.noContent().build();
     }
-}
 
+    // Versión enviada en If-Match, como número o como ETag ("3", W/"3"); también la usa el modo reactivo
+    public static long parseVersion(String ifMatch) {
+        String value = ifMatch.trim();
+        if (value.startsWith("W/")) {
+            value = value.substring(2);
+        }
+        if (value.length() >= 2 && value.startsWith("\"") && value.endsWith("\"")) {
+            value = value.substring(1, value.length() - 1);
+        }
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new BadRequestException("The If-Match header must contain the transaction version");
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.tenpo.controller;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.tenpo.dto.TransactionRequestDTO;
+import com.tenpo.dto.TransactionResponseDTO;
+import com.tenpo.service.WriteBehindTransactionService;
+
+import io.swagger.v3.oas.annotations.Operation;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+// Ingesta asíncrona; solo se registra con tenpo.write-behind.enabled=true
+@Slf4j
+@RestController
+@RequestMapping("/api/transaction")
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "tenpo.write-behind", name = "enabled", havingValue = "true")
+public class TransactionIngestController {
+
+    private final WriteBehindTransactionService writeBehindService;
+
+    // Acepta una transacción para guardarla en segundo plano
+    @PostMapping("/ingest")
+    @Operation(summary = "Ingest Transaction", description = "Validate a transaction and store it asynchronously. Returns 202 with the assigned id, or 503 when the ingestion queue is full")
+    public ResponseEntity<TransactionResponseDTO> ingestTransaction(@Valid @RequestBody TransactionRequestDTO request) {
+        log.info("Aceptando transacción asíncrona para el cliente {}", request.getCustomer());
+        var acceptedTransaction = writeBehindService.submit(request);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(acceptedTransaction);
+    }
+}
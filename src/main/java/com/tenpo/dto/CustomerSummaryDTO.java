@@ -0,0 +1,43 @@
+package com.tenpo.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class CustomerSummaryDTO {
+
+    @Schema(
+        name = "customer",
+        description = "Identificador único del cliente.",
+        example = "Juan",
+        required = true
+    )
+    private String customer;
+
+    @Schema(
+        name = "count",
+        description = "Cantidad de transacciones del cliente.",
+        example = "12",
+        required = true
+    )
+    private long count;
+
+    @Schema(
+        name = "total",
+        description = "Suma de los montos de todas las transacciones del cliente.",
+        example = "60000",
+        required = true
+    )
+    private long total;
+
+    @Schema(
+        name = "recent",
+        description = "Transacciones más recientes del cliente por fecha, de la más nueva a la más antigua.",
+        required = true
+    )
+    private List<TransactionResponseDTO> recent;
+}
@@ -0,0 +1,42 @@
+package com.tenpo.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class TransactionAggregateDTO {
+
+    @Schema(
+        name = "key",
+        description = "Valor agrupado: cliente, comercio o día (yyyy-MM-dd).",
+        example = "Juan",
+        required = true
+    )
+    private String key;
+
+    @Schema(
+        name = "count",
+        description = "Cantidad de transacciones del grupo.",
+        example = "12",
+        required = true
+    )
+    private long count;
+
+    @Schema(
+        name = "total",
+        description = "Suma de los montos del grupo.",
+        example = "60000",
+        required = true
+    )
+    private long total;
+
+    @Schema(
+        name = "average",
+        description = "Monto promedio del grupo.",
+        example = "5000.0",
+        required = true
+    )
+    private double average;
+}
@@ -0,0 +1,41 @@
+package com.tenpo.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class TransactionBatchItemDTO {
+
+    public enum Status { CREATED, REJECTED }
+
+    @Schema(
+        name = "index",
+        description = "Posición de la transacción dentro del lote recibido.",
+        example = "0",
+        required = true
+    )
+    private int index;
+
+    @Schema(
+        name = "status",
+        description = "Resultado del procesamiento de la transacción.",
+        example = "CREATED",
+        required = true
+    )
+    private Status status;
+
+    @Schema(
+        name = "transaction",
+        description = "Transacción creada. Es nula cuando fue rechazada."
+    )
+    private TransactionResponseDTO transaction;
+
+    @Schema(
+        name = "error",
+        description = "Motivo del rechazo. Es nulo cuando la transacción fue creada.",
+        example = "The amount must be greater than zero"
+    )
+    private String error;
+}
@@ -0,0 +1,35 @@
+package com.tenpo.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class TransactionBatchResponseDTO {
+
+    @Schema(
+        name = "created",
+        description = "Cantidad de transacciones creadas.",
+        example = "998",
+        required = true
+    )
+    private int created;
+
+    @Schema(
+        name = "rejected",
+        description = "Cantidad de transacciones rechazadas.",
+        example = "2",
+        required = true
+    )
+    private int rejected;
+
+    @Schema(
+        name = "items",
+        description = "Resultado de cada transacción, en el mismo orden del lote recibido.",
+        required = true
+    )
+    private List<TransactionBatchItemDTO> items;
+}
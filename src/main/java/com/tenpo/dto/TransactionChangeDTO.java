@@ -0,0 +1,45 @@
+package com.tenpo.dto;
+
+import java.time.OffsetDateTime;
+
+import com.tenpo.model.TransactionChange;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class TransactionChangeDTO {
+
+    @Schema(
+        name = "seq",
+        description = "Número de secuencia del cambio; crece en el orden en que los cambios se confirmaron.",
+        example = "1042",
+        required = true
+    )
+    private long seq;
+
+    @Schema(
+        name = "operation",
+        description = "Tipo de cambio: CREATED, UPDATED o DELETED.",
+        example = "CREATED",
+        required = true
+    )
+    private TransactionChange.Operation operation;
+
+    @Schema(
+        name = "transaction",
+        description = "Estado de la transacción después del cambio (último estado si fue eliminada).",
+        required = true
+    )
+    private TransactionResponseDTO transaction;
+
+    @Schema(
+        name = "changedAt",
+        description = "Fecha y hora en que se registró el cambio.",
+        example = "2025-01-01T10:00:00Z",
+        required = true
+    )
+    private OffsetDateTime changedAt;
+}
@@ -0,0 +1,27 @@
+package com.tenpo.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class TransactionChangesDTO {
+
+    @Schema(
+        name = "changes",
+        description = "Cambios posteriores a la secuencia solicitada, en orden.",
+        required = true
+    )
+    private List<TransactionChangeDTO> changes;
+
+    @Schema(
+        name = "lastSeq",
+        description = "Secuencia a usar como parámetro since en la siguiente consulta.",
+        example = "1042",
+        required = true
+    )
+    private long lastSeq;
+}
@@ -0,0 +1,26 @@
+package com.tenpo.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class TransactionPageDTO {
+
+    @Schema(
+        name = "transactions",
+        description = "Transacciones de la página, ordenadas por fecha e identificador.",
+        required = true
+    )
+    private List<TransactionResponseDTO> transactions;
+
+    @Schema(
+        name = "nextCursor",
+        description = "Token opaco para solicitar la página siguiente. Es nulo cuando no hay más resultados.",
+        example = "AAAAAGeE_8AAAAAAAAAAAQ"
+    )
+    private String nextCursor;
+}
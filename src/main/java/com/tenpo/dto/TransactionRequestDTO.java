@@ -26,7 +26,7 @@ public class TransactionRequestDTO {
         example = "1000",
         required = true
     )
-    private Integer amount;
+    private Long amount;
 
     @Schema(
         name = "merchant",
@@ -1,6 +1,8 @@
 package com.tenpo.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 
@@ -8,6 +10,7 @@ import java.time.OffsetDateTime;
 
 @Data
 @Builder
+@AllArgsConstructor // Usado por la proyección de TransactionSearchRepository (mismo orden que los campos)
 public class TransactionResponseDTO {
 
     @Schema(
@@ -24,7 +27,7 @@ public class TransactionResponseDTO {
         example = "1000",
         required = true
     )
-    private Integer amount;
+    private long amount;
 
     @Schema(
         name = "customer",
@@ -49,4 +52,12 @@ public class TransactionResponseDTO {
         required = true
     )
     private OffsetDateTime date;
+
+    @Schema(
+        name = "version",
+        description = "Versión de la transacción; se envía en el header If-Match de PUT /update/{id} para detectar ediciones concurrentes.",
+        example = "0"
+    )
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long version;
 }
@@ -0,0 +1,52 @@
+package com.tenpo.model;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+
+// Transacción en memoria para lecturas masivas y caches: campos primitivos más dos referencias. La fecha
+// se guarda como microsegundos desde epoch (la precisión de timestamptz) y el desfase en segundos, en lugar
+// de un OffsetDateTime con su LocalDateTime, LocalDate, LocalTime y ZoneOffset. customer y merchant se
+// internan: con pocos valores distintos todas las filas comparten la misma instancia de cada cadena.
+public record CompactTransaction(int id, String customer, String merchant, long amount, long epochMicros,
+        int offsetSeconds, long version) {
+
+    public CompactTransaction {
+        customer = intern(customer);
+        merchant = intern(merchant);
+    }
+
+    // Constructor de las consultas JPQL con "new", sin cargar la entidad
+    public CompactTransaction(int id, String customer, String merchant, long amount, OffsetDateTime date, long version) {
+        this(id, customer, merchant, amount, toEpochMicros(date), date.getOffset().getTotalSeconds(), version);
+    }
+
+    public static CompactTransaction of(Transaction transaction) {
+        return new CompactTransaction(transaction.getId(), transaction.getCustomer(), transaction.getMerchant(),
+                transaction.getAmount(), transaction.getDate(), transaction.getVersion());
+    }
+
+    public OffsetDateTime date() {
+        return Instant.EPOCH.plus(epochMicros, ChronoUnit.MICROS).atOffset(ZoneOffset.ofTotalSeconds(offsetSeconds));
+    }
+
+    public Transaction toTransaction() {
+        return Transaction.builder()
+                .id(id)
+                .customer(customer)
+                .amount(amount)
+                .merchant(merchant)
+                .date(date())
+                .version(version)
+                .build();
+    }
+
+    public static long toEpochMicros(OffsetDateTime date) {
+        return ChronoUnit.MICROS.between(Instant.EPOCH, date.toInstant());
+    }
+
+    private static String intern(String value) {
+        return value != null ? value.intern() : null;
+    }
+}
@@ -4,6 +4,8 @@ import java.io.Serializable;
 import java.time.OffsetDateTime;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -14,24 +16,37 @@ import lombok.NoArgsConstructor;
 @Builder
 @AllArgsConstructor
 @NoArgsConstructor
-@Table(name = "transactions")
+@Cacheable // Solo tiene efecto con el perfil de Spring cache (cache de segundo nivel habilitada)
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "transactions")
+@Table(name = "transactions") // Esquema e índices en db/migration
 public class Transaction implements Serializable {
 
     private static final long serialVersionUID = 1L;
 
+    // Secuencia con asignación por bloques (pooled) para permitir inserts JDBC en lote
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "transactions_seq")
+    @SequenceGenerator(name = "transactions_seq", sequenceName = "transactions_seq", allocationSize = 50)
     private int id;
 
     @NotEmpty
     private String customer;
 
+    // En la unidad mínima de la moneda
     @NotNull
-    private int amount;
+    private long amount;
 
     @NotEmpty
     private String merchant;
 
     @NotNull
     private OffsetDateTime date; //OffsetDateTime zona horaria
+
+    // Idempotency-Key de la solicitud que creó la transacción (índice único en la base de datos)
+    @Column(name = "idempotency_key", length = 80)
+    private String idempotencyKey;
+
+    // Control de concurrencia optimista: se incrementa en cada actualización
+    @Version
+    private long version;
 }
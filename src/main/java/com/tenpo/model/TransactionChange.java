@@ -0,0 +1,54 @@
+package com.tenpo.model;
+
+import java.time.OffsetDateTime;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Cambio registrado sobre una transacción. Los consumidores lo leen en orden (changedXid, seq), ver
+// TransactionChangeFeed
+@Data
+@Entity
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(name = "transaction_changes")
+public class TransactionChange {
+
+    public enum Operation {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+
+    // Secuencia con asignación por bloques (pooled), igual que Transaction.id
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "transaction_changes_seq")
+    @SequenceGenerator(name = "transaction_changes_seq", sequenceName = "transaction_changes_seq", allocationSize = 50)
+    private long seq;
+
+    @Column(name = "transaction_id", nullable = false)
+    private int transactionId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 10, nullable = false)
+    private Operation operation;
+
+    private String customer;
+
+    private long amount;
+
+    private String merchant;
+
+    private OffsetDateTime date;
+
+    @Column(name = "changed_at", nullable = false)
+    private OffsetDateTime changedAt;
+
+    // Id de la transacción de base de datos que escribió el cambio; lo asigna la base de datos (ver V8)
+    @Column(name = "changed_xid", insertable = false, updatable = false)
+    private long changedXid;
+}
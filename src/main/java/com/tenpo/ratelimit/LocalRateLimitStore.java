@@ -0,0 +1,12 @@
+package com.tenpo.ratelimit;
+
+import java.time.Duration;
+
+// Estado en memoria del proceso (por defecto): cada réplica aplica el límite por separado
+public class LocalRateLimitStore implements RateLimitStore {
+
+    @Override
+    public RateLimiter create(String route, RateLimitAlgorithm algorithm, int limit, Duration window) {
+        return algorithm.create(limit, window);
+    }
+}
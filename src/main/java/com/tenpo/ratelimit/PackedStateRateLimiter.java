@@ -0,0 +1,67 @@
+package com.tenpo.ratelimit;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Base de los limitadores cuyo estado por clave cabe en un único long.
+// La decisión y la actualización se hacen con un solo CAS, sin locks ni objetos nuevos
+// por solicitud: solo se reserva memoria la primera vez que aparece una clave.
+public abstract class PackedStateRateLimiter implements RateLimiter {
+
+    // Valor que indica que la solicitud debe rechazarse
+    protected static final long DENIED = -1L;
+
+    // Marca de una entrada desalojada; quien la observe vuelve a buscar la clave en el mapa
+    private static final long EVICTED = Long.MIN_VALUE;
+
+    private final ConcurrentHashMap<String, AtomicLong> states = new ConcurrentHashMap<>();
+
+    // Calcula el nuevo estado tras admitir una solicitud, o DENIED si se supera el límite
+    protected abstract long acquire(long state, long nowMillis);
+
+    // Indica si el estado ya no influye en decisiones futuras y puede descartarse
+    protected abstract boolean isIdle(long state, long nowMillis);
+
+    @Override
+    public boolean tryAcquire(String key, long nowMillis) {
+        while (true) {
+            AtomicLong state = states.get(key);
+            if (state == null) {
+                state = states.computeIfAbsent(key, k -> new AtomicLong());
+            }
+
+            long current = state.get();
+            while (current != EVICTED) {
+                long next = acquire(current, nowMillis);
+                if (next == DENIED) {
+                    return false;
+                }
+                if (state.compareAndSet(current, next)) {
+                    return true;
+                }
+                current = state.get();
+            }
+            // La entrada fue desalojada mientras se usaba: se reintenta con una nueva
+        }
+    }
+
+    @Override
+    public int evictIdle(long nowMillis) {
+        int evicted = 0;
+        for (var entry : states.entrySet()) {
+            AtomicLong state = entry.getValue();
+            long current = state.get();
+            // El CAS a EVICTED garantiza que no se pierda una solicitud concurrente
+            if (current != EVICTED && isIdle(current, nowMillis) && state.compareAndSet(current, EVICTED)) {
+                states.remove(entry.getKey(), state);
+                evicted++;
+            }
+        }
+        return evicted;
+    }
+
+    @Override
+    public int size() {
+        return states.size();
+    }
+}
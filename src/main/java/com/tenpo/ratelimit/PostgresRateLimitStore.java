@@ -0,0 +1,73 @@
+package com.tenpo.ratelimit;
+
+import java.sql.Array;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import lombok.RequiredArgsConstructor;
+
+// Contadores compartidos en la tabla UNLOGGED rate_limit_counters de PostgreSQL (tenpo.rate-limit.store=postgres).
+// Cada sincronización es un único upsert con los contadores como arreglos (unnest), que devuelve los totales.
+@RequiredArgsConstructor
+public class PostgresRateLimitStore extends SharedRateLimitStore {
+
+    private static final String UPSERT_SQL = """
+            INSERT INTO rate_limit_counters (route, client_key, window_start, hits, expires_at)
+            SELECT * FROM unnest(?::varchar[], ?::varchar[], ?::bigint[], ?::bigint[], ?::bigint[])
+            ON CONFLICT (route, client_key, window_start) DO UPDATE SET hits = rate_limit_counters.hits + EXCLUDED.hits
+            RETURNING route, client_key, window_start, hits""";
+
+    private static final String DELETE_EXPIRED_SQL = "DELETE FROM rate_limit_counters WHERE expires_at < ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    protected Map<WindowCounter, Long> addAndGet(Map<WindowCounter, Long> increments) {
+        int size = increments.size();
+        var routes = new String[size];
+        var clientKeys = new String[size];
+        var windowStarts = new Long[size];
+        var hits = new Long[size];
+        var expiresAt = new Long[size];
+        var windowMillis = new HashMap<String, Long>();
+        int i = 0;
+        for (var increment : increments.entrySet()) {
+            WindowCounter counter = increment.getKey();
+            routes[i] = counter.route();
+            clientKeys[i] = counter.clientKey();
+            windowStarts[i] = counter.windowStart();
+            hits[i] = increment.getValue();
+            expiresAt[i] = counter.expiresAt();
+            windowMillis.put(counter.route(), counter.windowMillis());
+            i++;
+        }
+
+        var totals = new HashMap<WindowCounter, Long>(size * 2);
+        jdbcTemplate.query(connection -> {
+            var statement = connection.prepareStatement(UPSERT_SQL);
+            Array[] arrays = {
+                    connection.createArrayOf("varchar", routes),
+                    connection.createArrayOf("varchar", clientKeys),
+                    connection.createArrayOf("bigint", windowStarts),
+                    connection.createArrayOf("bigint", hits),
+                    connection.createArrayOf("bigint", expiresAt)
+            };
+            for (int parameter = 0; parameter < arrays.length; parameter++) {
+                statement.setArray(parameter + 1, arrays[parameter]);
+            }
+            return statement;
+        }, resultSet -> {
+            String route = resultSet.getString("route");
+            totals.put(new WindowCounter(route, resultSet.getString("client_key"),
+                    resultSet.getLong("window_start"), windowMillis.get(route)), resultSet.getLong("hits"));
+        });
+        return totals;
+    }
+
+    @Override
+    protected int deleteExpired(long nowMillis) {
+        return jdbcTemplate.update(DELETE_EXPIRED_SQL, nowMillis);
+    }
+}
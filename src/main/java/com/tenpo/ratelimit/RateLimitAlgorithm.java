@@ -0,0 +1,23 @@
+package com.tenpo.ratelimit;
+
+import java.time.Duration;
+
+// Algoritmos de rate limiting disponibles para configurar en cada ruta
+public enum RateLimitAlgorithm {
+
+    TOKEN_BUCKET {
+        @Override
+        public RateLimiter create(int limit, Duration window) {
+            return new TokenBucketRateLimiter(limit, window);
+        }
+    },
+
+    SLIDING_WINDOW {
+        @Override
+        public RateLimiter create(int limit, Duration window) {
+            return new SlidingWindowRateLimiter(limit, window);
+        }
+    };
+
+    public abstract RateLimiter create(int limit, Duration window);
+}
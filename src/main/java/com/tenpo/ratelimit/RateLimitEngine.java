@@ -0,0 +1,110 @@
+package com.tenpo.ratelimit;
+
+import java.util.List;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+// Resuelve el limitador de cada ruta según la configuración y desaloja periódicamente
+// las claves inactivas para que la memoria no crezca con la cantidad de clientes distintos.
+// Los limitadores los crea el RateLimitStore configurado (local o compartido entre réplicas).
+// Publica por ruta el contador de rechazos y la cantidad de claves en memoria.
+@Slf4j
+@Component
+public class RateLimitEngine {
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final RateLimitStore store;
+    private final boolean enabled;
+    private final List<RouteLimiter> routes;
+    private final RouteLimiter defaultRoute;
+
+    public RateLimitEngine(RateLimitProperties properties, RateLimitStore store, MeterRegistry meterRegistry) {
+        this.store = store;
+        this.enabled = properties.isEnabled();
+        this.routes = properties.getRoutes().stream()
+                .map(route -> route.isEnabled()
+                        ? RouteLimiter.of(route.getMethod(), route.getPattern(), store.create(routeName(route.getMethod(), route.getPattern()),
+                                route.getAlgorithm(), route.getLimit(), route.getWindow()), meterRegistry)
+                        : new RouteLimiter(route.getMethod(), route.getPattern(), null, null))
+                .toList();
+        var rule = properties.getDefaultRule();
+        this.defaultRoute = RouteLimiter.of(null, "default",
+                store.create("default", rule.getAlgorithm(), rule.getLimit(), rule.getWindow()), meterRegistry);
+    }
+
+    // Consume un permiso del cliente en la ruta de la solicitud; false si supera el límite.
+    // Las rutas excluidas siempre retornan true.
+    public boolean tryAcquire(String method, String path, String clientKey) {
+        if (!enabled) {
+            return true;
+        }
+        RouteLimiter route = routeFor(method, path);
+        if (route.limiter() == null || route.limiter().tryAcquire(clientKey, System.currentTimeMillis())) {
+            return true;
+        }
+        route.rejected().increment();
+        return false;
+    }
+
+    // Desaloja las claves cuyo estado ya no afecta las decisiones
+    @Scheduled(fixedDelayString = "${tenpo.rate-limit.eviction-interval:1m}")
+    public void evictIdleKeys() {
+        long now = System.currentTimeMillis();
+        int evicted = defaultRoute.limiter().evictIdle(now);
+        for (RouteLimiter route : routes) {
+            if (route.limiter() != null) {
+                evicted += route.limiter().evictIdle(now);
+            }
+        }
+        if (evicted > 0) {
+            log.debug("Claves de rate limiting desalojadas: {}", evicted);
+        }
+        store.evictExpired(now);
+    }
+
+    // Sincroniza los contadores con el almacén compartido (sin efecto con el almacén local)
+    @Scheduled(fixedDelayString = "${tenpo.rate-limit.sync-interval:500ms}")
+    public void syncStore() {
+        if (enabled) {
+            store.sync(System.currentTimeMillis());
+        }
+    }
+
+    private static String routeName(String method, String pattern) {
+        return method == null ? pattern : method + " " + pattern;
+    }
+
+    private RouteLimiter routeFor(String method, String path) {
+        for (RouteLimiter route : routes) {
+            if ((route.method() == null || route.method().equalsIgnoreCase(method))
+                    && pathMatcher.match(route.pattern(), path)) {
+                return route;
+            }
+        }
+        return defaultRoute;
+    }
+
+    private record RouteLimiter(String method, String pattern, RateLimiter limiter, Counter rejected) {
+
+        // Crea el limitador de la ruta y registra sus métricas
+        static RouteLimiter of(String method, String pattern, RateLimiter limiter, MeterRegistry meterRegistry) {
+            String name = routeName(method, pattern);
+            Gauge.builder("tenpo.ratelimit.keys", limiter, RateLimiter::size)
+                    .description("Client keys currently tracked by the rate limiter")
+                    .tag("route", name)
+                    .register(meterRegistry);
+            Counter rejected = Counter.builder("tenpo.ratelimit.rejected")
+                    .description("Requests rejected by the rate limiter")
+                    .tag("route", name)
+                    .register(meterRegistry);
+            return new RouteLimiter(method, pattern, limiter, rejected);
+        }
+    }
+}
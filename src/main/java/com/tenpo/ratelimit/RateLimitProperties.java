@@ -0,0 +1,58 @@
+package com.tenpo.ratelimit;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Data;
+
+// Configuración del rate limiting (prefijo tenpo.rate-limit)
+@Data
+@ConfigurationProperties(prefix = "tenpo.rate-limit")
+public class RateLimitProperties {
+
+    // Habilita o deshabilita el rate limiting por completo
+    private boolean enabled = true;
+
+    // Frecuencia con la que se desalojan las claves inactivas
+    private Duration evictionInterval = Duration.ofMinutes(1);
+
+    // Dónde se guardan los contadores: local (por réplica) o postgres (compartidos entre réplicas)
+    private Store store = Store.LOCAL;
+
+    // Frecuencia con la que se sincronizan los contadores con el almacén compartido
+    private Duration syncInterval = Duration.ofMillis(500);
+
+    // Regla aplicada a las rutas que no tienen una regla propia
+    private Rule defaultRule = new Rule();
+
+    // Reglas por ruta, evaluadas en orden; gana la primera que coincide
+    private List<Route> routes = new ArrayList<>();
+
+    public enum Store {
+        LOCAL,
+        POSTGRES
+    }
+
+    @Data
+    public static class Rule {
+        private RateLimitAlgorithm algorithm = RateLimitAlgorithm.SLIDING_WINDOW;
+        private int limit = 3;
+        private Duration window = Duration.ofMinutes(1);
+    }
+
+    @Data
+    public static class Route {
+        // Método HTTP; si es nulo aplica a cualquiera
+        private String method;
+        // Patrón Ant de la ruta, por ejemplo /api/transaction/update/**
+        private String pattern;
+        // false excluye la ruta del rate limiting
+        private boolean enabled = true;
+        private RateLimitAlgorithm algorithm = RateLimitAlgorithm.SLIDING_WINDOW;
+        private int limit = 3;
+        private Duration window = Duration.ofMinutes(1);
+    }
+}
@@ -0,0 +1,19 @@
+package com.tenpo.ratelimit;
+
+import java.time.Duration;
+
+// Dónde vive el estado del rate limiting. La implementación local lo mantiene en memoria del proceso;
+// las compartidas (SharedRateLimitStore) lo sincronizan entre réplicas para que el límite sea global.
+public interface RateLimitStore {
+
+    // Crea el limitador de una ruta
+    RateLimiter create(String route, RateLimitAlgorithm algorithm, int limit, Duration window);
+
+    // Envía los contadores acumulados localmente al almacén compartido y trae los totales globales
+    default void sync(long nowMillis) {
+    }
+
+    // Elimina del almacén compartido los contadores que ya no influyen en las decisiones
+    default void evictExpired(long nowMillis) {
+    }
+}
@@ -0,0 +1,14 @@
+package com.tenpo.ratelimit;
+
+// Motor de rate limiting para una ruta: decide si una solicitud de un cliente puede pasar
+public interface RateLimiter {
+
+    // Intenta consumir un permiso para la clave indicada en el instante nowMillis
+    boolean tryAcquire(String key, long nowMillis);
+
+    // Elimina las claves que ya no retienen estado útil y retorna cuántas se eliminaron
+    int evictIdle(long nowMillis);
+
+    // Cantidad de claves con estado en memoria
+    int size();
+}
@@ -0,0 +1,71 @@
+package com.tenpo.ratelimit;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import lombok.extern.slf4j.Slf4j;
+
+// Base de los almacenes compartidos entre réplicas. Las solicitudes se deciden en memoria y los contadores
+// se sincronizan por lotes (una operación contra el almacén por intervalo), no en cada solicitud.
+// Todas las rutas usan ventana deslizante: es el algoritmo que se puede repartir como contadores sumables.
+@Slf4j
+public abstract class SharedRateLimitStore implements RateLimitStore {
+
+    private final List<SharedWindowRateLimiter> limiters = new CopyOnWriteArrayList<>();
+
+    // Suma cada incremento a su contador compartido (creándolo si no existe) y devuelve los totales resultantes
+    protected abstract Map<WindowCounter, Long> addAndGet(Map<WindowCounter, Long> increments);
+
+    // Elimina los contadores expirados del almacén compartido
+    protected abstract int deleteExpired(long nowMillis);
+
+    @Override
+    public RateLimiter create(String route, RateLimitAlgorithm algorithm, int limit, Duration window) {
+        if (algorithm != RateLimitAlgorithm.SLIDING_WINDOW) {
+            log.warn("La ruta {} usa {}; con el almacén compartido se aplica ventana deslizante", route, algorithm);
+        }
+        var limiter = new SharedWindowRateLimiter(route, limit, window);
+        limiters.add(limiter);
+        return limiter;
+    }
+
+    @Override
+    public void sync(long nowMillis) {
+        var increments = new HashMap<WindowCounter, Long>();
+        var snapshots = new ArrayList<List<SharedWindowRateLimiter.Snapshot>>(limiters.size());
+        for (SharedWindowRateLimiter limiter : limiters) {
+            snapshots.add(limiter.snapshot(nowMillis, increments));
+        }
+        if (increments.isEmpty()) {
+            return;
+        }
+
+        Map<WindowCounter, Long> totals;
+        try {
+            totals = addAndGet(increments);
+        } catch (RuntimeException e) {
+            // Lo pendiente se conserva y se envía en el próximo intento; mientras tanto el límite es por réplica
+            log.warn("No se pudieron sincronizar {} contadores de rate limiting: {}", increments.size(), e.getMessage());
+            return;
+        }
+        for (int i = 0; i < limiters.size(); i++) {
+            limiters.get(i).apply(snapshots.get(i), totals);
+        }
+    }
+
+    @Override
+    public void evictExpired(long nowMillis) {
+        try {
+            int deleted = deleteExpired(nowMillis);
+            if (deleted > 0) {
+                log.debug("Contadores de rate limiting compartidos eliminados: {}", deleted);
+            }
+        } catch (RuntimeException e) {
+            log.warn("No se pudieron eliminar los contadores de rate limiting expirados: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.tenpo.ratelimit;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Ventana deslizante cuyos contadores se comparten entre réplicas.
+// Cada solicitud se decide en memoria con los totales globales de la última sincronización más lo admitido
+// localmente desde entonces; la sincronización periódica envía lo local y trae los totales actualizados.
+// Entre sincronizaciones cada réplica puede admitir a lo sumo lo que aún quedaba disponible según esos totales.
+class SharedWindowRateLimiter implements RateLimiter {
+
+    private final String route;
+    private final long limit;
+    private final long windowMillis;
+    private final ConcurrentHashMap<String, KeyState> states = new ConcurrentHashMap<>();
+
+    SharedWindowRateLimiter(String route, int limit, Duration window) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("The rate limit must be at least 1");
+        }
+        if (window.toMillis() < 1) {
+            throw new IllegalArgumentException("The rate limit window must be at least one millisecond");
+        }
+        this.route = route;
+        this.limit = limit;
+        this.windowMillis = window.toMillis();
+    }
+
+    @Override
+    public boolean tryAcquire(String key, long nowMillis) {
+        while (true) {
+            KeyState state = states.computeIfAbsent(key, k -> new KeyState());
+            state.lock.lock();
+            try {
+                if (state.evicted) {
+                    continue;
+                }
+                state.roll(nowMillis / windowMillis);
+                long elapsed = nowMillis % windowMillis;
+                long previous = state.sharedPrevious + state.carry;
+                long current = state.sharedCurrent + state.pending;
+                // previous * (1 - transcurrido / ventana) + current >= limit, sin divisiones
+                if (previous * (windowMillis - elapsed) + current * windowMillis >= limit * windowMillis) {
+                    return false;
+                }
+                state.pending++;
+                return true;
+            } finally {
+                state.lock.unlock();
+            }
+        }
+    }
+
+    // Toma una foto de lo pendiente por cliente y agrega a increments los contadores a enviar
+    List<Snapshot> snapshot(long nowMillis, Map<WindowCounter, Long> increments) {
+        var snapshots = new ArrayList<Snapshot>();
+        long currentWindow = nowMillis / windowMillis;
+        states.forEach((key, state) -> {
+            state.lock.lock();
+            try {
+                // Los clientes sin actividad reciente no necesitan refrescar sus totales
+                if (state.window < currentWindow - 1 && state.pending == 0 && state.carry == 0) {
+                    return;
+                }
+                snapshots.add(new Snapshot(key, state, state.window, state.pending, state.carry));
+                increments.put(counter(key, state.window), state.pending);
+                increments.put(counter(key, state.window - 1), state.carry);
+            } finally {
+                state.lock.unlock();
+            }
+        });
+        return snapshots;
+    }
+
+    // Descuenta lo ya enviado y actualiza los totales globales con la respuesta del almacén
+    void apply(List<Snapshot> snapshots, Map<WindowCounter, Long> totals) {
+        for (Snapshot snapshot : snapshots) {
+            KeyState state = snapshot.state();
+            state.lock.lock();
+            try {
+                long current = totals.getOrDefault(counter(snapshot.key(), snapshot.window()), 0L);
+                if (state.window == snapshot.window()) {
+                    state.pending -= snapshot.pending();
+                    state.carry -= snapshot.carry();
+                    state.sharedCurrent = current;
+                    state.sharedPrevious = totals.getOrDefault(counter(snapshot.key(), snapshot.window() - 1), 0L);
+                } else if (state.window == snapshot.window() + 1) {
+                    // La ventana avanzó durante la sincronización: lo enviado pasó a ser la ventana anterior
+                    state.carry -= snapshot.pending();
+                    state.sharedPrevious = current;
+                }
+            } finally {
+                state.lock.unlock();
+            }
+        }
+    }
+
+    @Override
+    public int evictIdle(long nowMillis) {
+        long currentWindow = nowMillis / windowMillis;
+        int evicted = 0;
+        for (var entry : states.entrySet()) {
+            KeyState state = entry.getValue();
+            state.lock.lock();
+            try {
+                // Se conserva mientras tenga solicitudes sin enviar al almacén compartido
+                if (state.window < currentWindow - 1 && state.pending == 0 && state.carry == 0) {
+                    state.evicted = true;
+                    states.remove(entry.getKey(), state);
+                    evicted++;
+                }
+            } finally {
+                state.lock.unlock();
+            }
+        }
+        return evicted;
+    }
+
+    @Override
+    public int size() {
+        return states.size();
+    }
+
+    private WindowCounter counter(String key, long window) {
+        return new WindowCounter(route, key, window * windowMillis, windowMillis);
+    }
+
+    record Snapshot(String key, KeyState state, long window, long pending, long carry) {
+    }
+
+    // Estado de un cliente; se modifica siempre con su lock tomado
+    static final class KeyState {
+        private final ReentrantLock lock = new ReentrantLock();
+        private boolean evicted;
+        // Índice de la ventana actual
+        private long window = Long.MIN_VALUE;
+        // Totales globales de la ventana actual y la anterior según la última sincronización
+        private long sharedCurrent;
+        private long sharedPrevious;
+        // Admitidas localmente y aún no enviadas, en la ventana actual y la anterior
+        private long pending;
+        private long carry;
+
+        private void roll(long newWindow) {
+            if (newWindow == window) {
+                return;
+            }
+            if (newWindow == window + 1) {
+                sharedPrevious = sharedCurrent;
+                carry = pending;
+            } else {
+                sharedPrevious = 0;
+                carry = 0;
+            }
+            sharedCurrent = 0;
+            pending = 0;
+            window = newWindow;
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.tenpo.ratelimit;
+
+import java.time.Duration;
+
+// Contador de ventana deslizante: estima las solicitudes del último intervalo ponderando
+// la ventana anterior según el tiempo transcurrido de la actual.
+// Estado empaquetado en un long: [índice de ventana (31 bits) | anterior (16) | actual (16)].
+public class SlidingWindowRateLimiter extends PackedStateRateLimiter {
+
+    private static final int MAX_LIMIT = 0xFFFF;
+    private static final long COUNT_MASK = 0xFFFFL;
+    private static final long INDEX_MASK = 0x7FFF_FFFFL;
+
+    private final long limit;
+    private final long windowMillis;
+
+    public SlidingWindowRateLimiter(int limit, Duration window) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("The rate limit must be between 1 and " + MAX_LIMIT);
+        }
+        if (window.toMillis() < 1) {
+            throw new IllegalArgumentException("The rate limit window must be at least one millisecond");
+        }
+        this.limit = limit;
+        this.windowMillis = window.toMillis();
+    }
+
+    @Override
+    protected long acquire(long state, long nowMillis) {
+        long currentIndex = (nowMillis / windowMillis) & INDEX_MASK;
+        long storedIndex = state >>> 32;
+        long previous = (state >>> 16) & COUNT_MASK;
+        long current = state & COUNT_MASK;
+
+        if (storedIndex != currentIndex) {
+            previous = storedIndex == ((currentIndex - 1) & INDEX_MASK) ? current : 0;
+            current = 0;
+        }
+
+        // previous * (1 - transcurrido / ventana) + current >= limit, sin divisiones
+        long elapsed = nowMillis % windowMillis;
+        if (previous * (windowMillis - elapsed) + current * windowMillis >= limit * windowMillis) {
+            return DENIED;
+        }
+        return (currentIndex << 32) | (previous << 16) | (current + 1);
+    }
+
+    @Override
+    protected boolean isIdle(long state, long nowMillis) {
+        long currentIndex = (nowMillis / windowMillis) & INDEX_MASK;
+        long storedIndex = state >>> 32;
+        return storedIndex != currentIndex && storedIndex != ((currentIndex - 1) & INDEX_MASK);
+    }
+}
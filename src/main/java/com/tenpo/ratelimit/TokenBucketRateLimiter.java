@@ -0,0 +1,37 @@
+package com.tenpo.ratelimit;
+
+import java.time.Duration;
+
+// Token bucket implementado como GCRA: el estado es el instante teórico (en microsegundos)
+// en que el bucket vuelve a estar lleno. Permite ráfagas de hasta "limit" solicitudes y
+// recarga un token cada window / limit.
+public class TokenBucketRateLimiter extends PackedStateRateLimiter {
+
+    private final long intervalMicros;
+    private final long burstToleranceMicros;
+
+    public TokenBucketRateLimiter(int limit, Duration window) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("The rate limit must be greater than zero");
+        }
+        long windowMicros = window.toNanos() / 1_000;
+        this.intervalMicros = Math.max(1, windowMicros / limit);
+        this.burstToleranceMicros = intervalMicros * (limit - 1);
+    }
+
+    @Override
+    protected long acquire(long state, long nowMillis) {
+        long nowMicros = nowMillis * 1_000;
+        long theoreticalArrival = Math.max(state, nowMicros);
+        if (theoreticalArrival - nowMicros > burstToleranceMicros) {
+            return DENIED;
+        }
+        return theoreticalArrival + intervalMicros;
+    }
+
+    @Override
+    protected boolean isIdle(long state, long nowMillis) {
+        // Con el bucket lleno el estado equivale a una clave nueva
+        return state <= nowMillis * 1_000;
+    }
+}
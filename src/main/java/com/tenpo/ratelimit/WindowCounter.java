@@ -0,0 +1,10 @@
+package com.tenpo.ratelimit;
+
+// Contador compartido de solicitudes de un cliente en una ventana de una ruta
+public record WindowCounter(String route, String clientKey, long windowStart, long windowMillis) {
+
+    // Instante a partir del cual el contador ya no participa en ninguna decisión
+    public long expiresAt() {
+        return windowStart + 2 * windowMillis;
+    }
+}
@@ -0,0 +1,9 @@
+package com.tenpo.repository;
+
+// Proyección de la cantidad de transacciones agrupada por cliente
+public interface CustomerTransactionCount {
+
+    String getCustomer();
+
+    long getTotal();
+}
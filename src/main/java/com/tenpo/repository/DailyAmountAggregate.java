@@ -0,0 +1,15 @@
+package com.tenpo.repository;
+
+import java.time.LocalDate;
+
+// Proyección de cantidad, suma y promedio de montos agrupados por día
+public interface DailyAmountAggregate {
+
+    LocalDate getDay();
+
+    long getTransactions();
+
+    long getTotalAmount();
+
+    double getAverageAmount();
+}
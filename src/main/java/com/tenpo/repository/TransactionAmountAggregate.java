@@ -0,0 +1,13 @@
+package com.tenpo.repository;
+
+// Proyección de cantidad, suma y promedio de montos agrupados por cliente o comercio
+public interface TransactionAmountAggregate {
+
+    String getGroupKey();
+
+    long getTransactions();
+
+    long getTotalAmount();
+
+    double getAverageAmount();
+}
@@ -0,0 +1,27 @@
+package com.tenpo.repository;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.tenpo.model.TransactionChange;
+
+@Repository
+public interface TransactionChangeRepository extends JpaRepository<TransactionChange, Long> {
+
+	 // Cambios visibles posteriores a la posición (xid, seq), en orden (changed_xid, seq). La vista
+	 // transaction_changes_visible excluye los de transacciones que todavía podrían estar en curso.
+	 @Query(value = "SELECT * FROM transaction_changes_visible WHERE (changed_xid, seq) > (:xid, :seq) "
+			 + "ORDER BY changed_xid, seq LIMIT :limit", nativeQuery = true)
+	 List<TransactionChange> findVisibleAfter(@Param("xid") long xid, @Param("seq") long seq, @Param("limit") int limit);
+
+	 // Elimina los cambios más antiguos que el período de retención
+	 @Modifying
+	 @Query("DELETE FROM TransactionChange c WHERE c.changedAt < :cutoff")
+	 int deleteChangedBefore(@Param("cutoff") OffsetDateTime cutoff);
+}
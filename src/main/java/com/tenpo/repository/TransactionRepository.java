@@ -1,10 +1,76 @@
 package com.tenpo.repository;
 
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import com.tenpo.model.CompactTransaction;
 import com.tenpo.model.Transaction;
 
+import jakarta.persistence.QueryHint;
+
 @Repository
-public interface TransactionRepository extends JpaRepository<Transaction, Integer> {
+public interface TransactionRepository extends JpaRepository<Transaction, Integer>, TransactionWriteRepository,
+		 TransactionSearchRepository {
 	 long countByCustomer(String customer);
-}
\ No newline at end of file
+
+	 Optional<Transaction> findByIdempotencyKey(String idempotencyKey);
+
+	 List<Transaction> findByIdempotencyKeyIn(Collection<String> idempotencyKeys);
+
+	 // Cantidad de transacciones de varios clientes en una sola consulta
+	 @Query("SELECT t.customer AS customer, COUNT(t) AS total FROM Transaction t WHERE t.customer IN :customers GROUP BY t.customer")
+	 List<CustomerTransactionCount> countByCustomerIn(@Param("customers") Collection<String> customers);
+
+	 // Totales por cliente calculados en la base de datos, paginados por cliente (posteriores a after)
+	 @Query("SELECT t.customer AS groupKey, COUNT(t) AS transactions, SUM(t.amount) AS totalAmount, AVG(t.amount) AS averageAmount "
+			 + "FROM Transaction t WHERE t.customer > :after GROUP BY t.customer ORDER BY t.customer")
+	 List<TransactionAmountAggregate> aggregateByCustomer(@Param("after") String after, Limit limit);
+
+	 // Totales por comercio calculados en la base de datos, paginados por comercio (posteriores a after)
+	 @Query("SELECT t.merchant AS groupKey, COUNT(t) AS transactions, SUM(t.amount) AS totalAmount, AVG(t.amount) AS averageAmount "
+			 + "FROM Transaction t WHERE t.merchant > :after GROUP BY t.merchant ORDER BY t.merchant")
+	 List<TransactionAmountAggregate> aggregateByMerchant(@Param("after") String after, Limit limit);
+
+	 // Totales por día calendario UTC en el rango [from, to), sin depender de la zona horaria de la sesión
+	 @Query(value = "SELECT CAST(date AT TIME ZONE 'UTC' AS date) AS \"day\", COUNT(*) AS \"transactions\", "
+			 + "SUM(amount) AS \"totalAmount\", AVG(amount) AS \"averageAmount\" "
+			 + "FROM transactions WHERE date >= :from AND date < :to "
+			 + "GROUP BY CAST(date AT TIME ZONE 'UTC' AS date) ORDER BY 1", nativeQuery = true)
+	 List<DailyAmountAggregate> aggregateByDay(@Param("from") OffsetDateTime from, @Param("to") OffsetDateTime to);
+
+	 // Primera página ordenada por (fecha, id) para la paginación por cursor
+	 @Query("SELECT t FROM Transaction t ORDER BY t.date, t.id")
+	 List<Transaction> findFirstPage(Limit limit);
+
+	 // Página siguiente a la posición (fecha, id) indicada por el cursor
+	 @Query("SELECT t FROM Transaction t WHERE t.date > :date OR (t.date = :date AND t.id > :id) ORDER BY t.date, t.id")
+	 List<Transaction> findPageAfter(@Param("date") OffsetDateTime date, @Param("id") int id, Limit limit);
+
+	 // Recorre toda la tabla con un cursor JDBC; debe consumirse dentro de una transacción
+	 @QueryHints({
+			 @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+			 @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+	 })
+	 @Query("SELECT t FROM Transaction t ORDER BY t.date, t.id")
+	 Stream<Transaction> streamAll();
+
+	 // Recorre toda la tabla sin entidades ni orden (resumen por cliente); debe consumirse dentro de una transacción
+	 @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+	 @Query("SELECT new com.tenpo.model.CompactTransaction(t.id, t.customer, t.merchant, t.amount, t.date, t.version) FROM Transaction t")
+	 Stream<CompactTransaction> streamCompact();
+
+	 // Transacciones de un cliente para el resumen en memoria (a lo sumo el máximo por cliente)
+	 @Query("SELECT new com.tenpo.model.CompactTransaction(t.id, t.customer, t.merchant, t.amount, t.date, t.version) "
+			 + "FROM Transaction t WHERE t.customer = :customer")
+	 List<CompactTransaction> findCompactByCustomer(@Param("customer") String customer);
+}
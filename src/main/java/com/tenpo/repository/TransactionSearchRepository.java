@@ -0,0 +1,17 @@
+package com.tenpo.repository;
+
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import com.tenpo.dto.TransactionResponseDTO;
+import com.tenpo.model.Transaction;
+
+public interface TransactionSearchRepository {
+
+	 // Transacciones que cumplen la especificación, proyectadas directamente al DTO de respuesta
+	 // (sin entidades administradas en el contexto de persistencia)
+	 List<TransactionResponseDTO> search(Specification<Transaction> specification, Sort sort, Limit limit);
+}
@@ -0,0 +1,44 @@
+package com.tenpo.repository;
+
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import com.tenpo.dto.TransactionResponseDTO;
+import com.tenpo.model.Transaction;
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+
+// Consulta Criteria con SELECT new TransactionResponseDTO(...): Hibernate arma los DTO desde las filas,
+// sin hidratar entidades ni registrarlas para el dirty checking
+@RequiredArgsConstructor
+public class TransactionSearchRepositoryImpl implements TransactionSearchRepository {
+
+    private final EntityManager entityManager;
+
+    @Override
+    public List<TransactionResponseDTO> search(Specification<Transaction> specification, Sort sort, Limit limit) {
+        var cb = entityManager.getCriteriaBuilder();
+        var query = cb.createQuery(TransactionResponseDTO.class);
+        var root = query.from(Transaction.class);
+        query.select(cb.construct(TransactionResponseDTO.class,
+                root.get("id"), root.get("amount"), root.get("customer"), root.get("merchant"), root.get("date"),
+                root.get("version")));
+
+        var predicate = specification == null ? null : specification.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(QueryUtils.toOrders(sort, root, cb));
+
+        var typedQuery = entityManager.createQuery(query);
+        if (limit.isLimited()) {
+            typedQuery.setMaxResults(limit.max());
+        }
+        return typedQuery.getResultList();
+    }
+}
@@ -0,0 +1,52 @@
+package com.tenpo.repository;
+
+import java.time.OffsetDateTime;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import com.tenpo.model.Transaction;
+
+// Filtros de la búsqueda de transacciones. Cada uno devuelve null si no se indicó el valor,
+// y Specification.and ignora los nulos, por lo que se pueden combinar sin condiciones.
+public final class TransactionSpecifications {
+
+    private TransactionSpecifications() {
+    }
+
+    public static Specification<Transaction> customerEquals(String customer) {
+        return customer == null ? null : (root, query, cb) -> cb.equal(root.get("customer"), customer);
+    }
+
+    public static Specification<Transaction> merchantEquals(String merchant) {
+        return merchant == null ? null : (root, query, cb) -> cb.equal(root.get("merchant"), merchant);
+    }
+
+    public static Specification<Transaction> amountAtLeast(Long minAmount) {
+        return minAmount == null ? null : (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("amount"), minAmount);
+    }
+
+    public static Specification<Transaction> amountAtMost(Long maxAmount) {
+        return maxAmount == null ? null : (root, query, cb) -> cb.lessThanOrEqualTo(root.get("amount"), maxAmount);
+    }
+
+    // Rango [from, to) de fechas
+    public static Specification<Transaction> dateFrom(OffsetDateTime from) {
+        return from == null ? null : (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("date"), from);
+    }
+
+    public static Specification<Transaction> dateBefore(OffsetDateTime to) {
+        return to == null ? null : (root, query, cb) -> cb.lessThan(root.get("date"), to);
+    }
+
+    // Posiciones posteriores a (value, id) en el orden (attribute, id), ascendente o descendente
+    public static <T extends Comparable<? super T>> Specification<Transaction> after(String attribute, T value, int id,
+            boolean descending) {
+        return (root, query, cb) -> {
+            var path = root.<T>get(attribute);
+            var idPath = root.<Integer>get("id");
+            return descending
+                    ? cb.or(cb.lessThan(path, value), cb.and(cb.equal(path, value), cb.lessThan(idPath, id)))
+                    : cb.or(cb.greaterThan(path, value), cb.and(cb.equal(path, value), cb.greaterThan(idPath, id)));
+        };
+    }
+}
@@ -0,0 +1,21 @@
+package com.tenpo.repository;
+
+import java.util.Optional;
+
+import com.tenpo.model.Transaction;
+
+// Escrituras de una sola sentencia que devuelven el estado anterior de la fila,
+// sin cargar la entidad en el contexto de persistencia
+public interface TransactionWriteRepository {
+
+	 // Elimina la transacción y devuelve la fila eliminada, o vacío si no existía
+	 Optional<Transaction> deleteReturning(int id);
+
+	 // Reemplaza customer, amount, merchant y date e incrementa la versión. Con expectedVersion solo actualiza
+	 // si la versión coincide. Devuelve la fila anterior, o vacío si no se actualizó ninguna.
+	 Optional<Transaction> updateReturningPrevious(Transaction transaction, Long expectedVersion);
+
+	 // Advisory lock de PostgreSQL por cliente hasta el fin de la transacción actual, el mismo que toma el modo
+	 // reactivo. Ordena las validaciones del máximo por cliente entre réplicas. H2 (pruebas) no lo tiene.
+	 void lockCustomer(String customer);
+}
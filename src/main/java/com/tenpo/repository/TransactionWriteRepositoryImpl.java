@@ -0,0 +1,114 @@
+package com.tenpo.repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.tenpo.model.Transaction;
+
+import jakarta.persistence.EntityManagerFactory;
+
+// PostgreSQL devuelve la fila con RETURNING; H2 (pruebas) la lee de la tabla delta OLD TABLE del mismo cambio.
+// Las sentencias van por JDBC dentro de la transacción actual, por lo que no ven cambios del contexto de
+// persistencia pendientes de flush, y la cache de segundo nivel de la entidad se invalida a mano.
+public class TransactionWriteRepositoryImpl implements TransactionWriteRepository {
+
+    private static final String COLUMNS = "id, customer, amount, merchant, date, idempotency_key, version";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+    private volatile Boolean h2;
+
+    public TransactionWriteRepositoryImpl(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    @Override
+    public Optional<Transaction> deleteReturning(int id) {
+        String sql = isH2()
+                ? "SELECT " + COLUMNS + " FROM OLD TABLE (DELETE FROM transactions WHERE id = ?)"
+                : "DELETE FROM transactions WHERE id = ? RETURNING " + COLUMNS;
+        var deleted = jdbcTemplate.query(sql, TransactionWriteRepositoryImpl::toTransaction, id);
+        evict(id);
+        return deleted.stream().findFirst();
+    }
+
+    @Override
+    public Optional<Transaction> updateReturningPrevious(Transaction transaction, Long expectedVersion) {
+        boolean versioned = expectedVersion != null;
+        // En PostgreSQL RETURNING solo ve los valores nuevos: la fila anterior se lee con un
+        // autojoin bloqueado (FOR UPDATE), así refleja la última versión confirmada
+        String sql = isH2()
+                ? "SELECT " + COLUMNS + " FROM OLD TABLE (UPDATE transactions "
+                        + "SET customer = ?, amount = ?, merchant = ?, date = ?, version = version + 1 "
+                        + "WHERE id = ?" + (versioned ? " AND version = ?" : "") + ")"
+                : "UPDATE transactions t SET customer = ?, amount = ?, merchant = ?, date = ?, version = t.version + 1 "
+                        + "FROM (SELECT " + COLUMNS + " FROM transactions WHERE id = ? FOR UPDATE) previous "
+                        + "WHERE t.id = previous.id" + (versioned ? " AND previous.version = ?" : "")
+                        + " RETURNING previous.*";
+        var args = new ArrayList<>(List.of(transaction.getCustomer(), transaction.getAmount(),
+                transaction.getMerchant(), transaction.getDate(), transaction.getId()));
+        if (versioned) {
+            args.add(expectedVersion);
+        }
+        var previous = jdbcTemplate.query(sql, TransactionWriteRepositoryImpl::toTransaction, args.toArray());
+        evict(transaction.getId());
+        return previous.stream().findFirst();
+    }
+
+    @Override
+    public void lockCustomer(String customer) {
+        if (!isH2()) {
+            jdbcTemplate.query("SELECT pg_advisory_xact_lock(hashtext(?))", (RowCallbackHandler) row -> { }, customer);
+        }
+    }
+
+    // El motor se consulta en la primera escritura y no al crear el bean: el arranque (y la ejecución
+    // de entrenamiento del archivo CDS) no necesita abrir conexiones
+    private boolean isH2() {
+        Boolean result = h2;
+        if (result == null) {
+            result = Boolean.TRUE.equals(jdbcTemplate.execute((ConnectionCallback<Boolean>) connection ->
+                    connection.getMetaData().getDatabaseProductName().startsWith("H2")));
+            h2 = result;
+        }
+        return result;
+    }
+
+    // La copia en la cache de segundo nivel (perfil cache) quedaría desactualizada. Se invalida ahora y otra
+    // vez al confirmar: mientras la transacción sigue abierta otra lectura puede volver a cargar la fila anterior.
+    private void evict(int id) {
+        var cache = entityManagerFactory.getCache();
+        cache.evict(Transaction.class, id);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.evict(Transaction.class, id);
+                }
+            });
+        }
+    }
+
+    private static Transaction toTransaction(ResultSet rs, int rowNum) throws SQLException {
+        return Transaction.builder()
+                .id(rs.getInt("id"))
+                .customer(rs.getString("customer"))
+                .amount(rs.getLong("amount"))
+                .merchant(rs.getString("merchant"))
+                .date(rs.getObject("date", OffsetDateTime.class))
+                .idempotencyKey(rs.getString("idempotency_key"))
+                .version(rs.getLong("version"))
+                .build();
+    }
+}
@@ -0,0 +1,58 @@
+package com.tenpo.service;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+// Señal compartida para descartar los contadores y resúmenes por cliente de todas las réplicas cuando
+// se escribe por fuera de TransactionService (importación masiva). Quien escribe incrementa la generación
+// en su misma transacción de base de datos; cada réplica la consulta periódicamente y, si cambió,
+// reconcilia sus caches. La primera consulta solo toma la generación vigente como referencia.
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CustomerCacheInvalidation {
+
+    static final String PUBLISH_SQL = "UPDATE cache_invalidations SET generation = generation + 1 WHERE name = 'customers'";
+    static final String GENERATION_SQL = "SELECT generation FROM cache_invalidations WHERE name = 'customers'";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final CustomerTransactionCounter customerTransactionCounter;
+    private final CustomerLedger customerLedger;
+    // Última generación vista; -1 hasta la primera consulta
+    private volatile long seen = -1;
+
+    // Publica la invalidación dentro de la transacción de base de datos del statement
+    public void publish(Statement statement) throws SQLException {
+        statement.executeUpdate(PUBLISH_SQL);
+    }
+
+    // Reconcilia los caches de esta réplica sin esperar a la siguiente consulta
+    public void reconcileLocal() {
+        customerTransactionCounter.reconcile();
+        customerLedger.reconcile();
+    }
+
+    @Scheduled(fixedDelayString = "${tenpo.customer-cache.invalidation-poll-interval:5s}")
+    public void poll() {
+        long generation;
+        try {
+            generation = jdbcTemplate.queryForObject(GENERATION_SQL, Long.class);
+        } catch (DataAccessException e) {
+            log.warn("No se pudo consultar la invalidación de caches por cliente: {}", e.getMessage());
+            return;
+        }
+        if (seen >= 0 && generation != seen) {
+            log.info("Invalidación de caches por cliente (generación {}), reconciliando", generation);
+            reconcileLocal();
+        }
+        seen = generation;
+    }
+}
@@ -0,0 +1,417 @@
+package com.tenpo.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.tenpo.dto.CustomerSummaryDTO;
+import com.tenpo.dto.TransactionResponseDTO;
+import com.tenpo.model.CompactTransaction;
+import com.tenpo.model.Transaction;
+import com.tenpo.repository.TransactionRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+// Resumen en memoria por cliente: cantidad, suma de montos y sus últimas transacciones por fecha.
+// Se construye al iniciar, antes que el servidor web, recorriendo la tabla con un cursor, y se mantiene
+// con las escrituras de TransactionService una vez confirmadas. Los clientes que no están en memoria
+// (por el máximo de clientes o descartados tras una eliminación) se cargan bajo demanda con una consulta;
+// mientras esa consulta corre, las escrituras confirmadas del cliente se guardan y se aplican al terminar.
+// Una escritura puede confirmarse antes de la consulta y aplicarse después: mientras el cliente tenga
+// escrituras en curso, el resumen recién cargado recuerda la versión de cada transacción y omite los cambios
+// que la consulta ya incluía.
+@Slf4j
+@Component
+public class CustomerLedger implements SmartLifecycle {
+
+    private final TransactionRepository transactionRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int recentSize;
+    private final int maxCustomers;
+    private final ConcurrentHashMap<String, Ledger> ledgers = new ConcurrentHashMap<>();
+    // Escrituras registradas y todavía no terminadas, por cliente
+    private final ConcurrentHashMap<String, Integer> inFlight = new ConcurrentHashMap<>();
+    private volatile boolean running;
+
+    public CustomerLedger(TransactionRepository transactionRepository, TransactionTemplate transactionTemplate,
+            @Value("${tenpo.ledger.recent-transactions:10}") int recentSize,
+            @Value("${tenpo.ledger.max-customers:100000}") int maxCustomers) {
+        this.transactionRepository = transactionRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.recentSize = recentSize;
+        this.maxCustomers = maxCustomers;
+    }
+
+    // Resumen del cliente; solo consulta la base de datos si el cliente no está en memoria
+    public CustomerSummaryDTO summary(String customer) {
+        return ledgerFor(customer).toSummary(customer);
+    }
+
+    // Registra una transacción creada, al confirmarse la transacción de base de datos actual
+    public void created(Transaction transaction) {
+        createdAll(List.of(transaction));
+    }
+
+    public void createdAll(List<Transaction> transactions) {
+        var rows = transactions.stream().map(CompactTransaction::of).toList();
+        afterCommit(rows.stream().map(CompactTransaction::customer).toList(), () -> rows.forEach(this::add));
+    }
+
+    // Reemplaza la versión anterior de una transacción actualizada, al confirmarse
+    public void updated(Transaction previous, Transaction current) {
+        var removed = CompactTransaction.of(previous);
+        var added = CompactTransaction.of(current);
+        afterCommit(List.of(removed.customer(), added.customer()), () -> {
+            remove(removed);
+            add(added);
+        });
+    }
+
+    // Descuenta una transacción eliminada, al confirmarse
+    public void deleted(Transaction transaction) {
+        var compact = CompactTransaction.of(transaction);
+        afterCommit(List.of(compact.customer()), () -> remove(compact));
+    }
+
+    // Descarta los resúmenes para que se vuelvan a leer desde la base de datos: incorpora las escrituras de
+    // otras réplicas o del modo reactivo sobre la misma base (tenpo.ledger.reconcile-cron, cada 10 minutos)
+    @Scheduled(cron = "${tenpo.ledger.reconcile-cron:0 */10 * * * *}")
+    public void reconcile() {
+        log.debug("Reconciliando {} resúmenes de clientes", ledgers.size());
+        ledgers.clear();
+    }
+
+    // Construye los resúmenes recorriendo la tabla una vez, sin cargar entidades ni listas completas
+    @Override
+    public void start() {
+        long started = System.nanoTime();
+        long[] rows = new long[1];
+        ledgers.clear();
+        transactionTemplate.executeWithoutResult(status -> {
+            try (var stream = transactionRepository.streamCompact()) {
+                stream.forEach(row -> {
+                    rows[0]++;
+                    var ledger = ledgers.get(row.customer());
+                    if (ledger == null) {
+                        // Los clientes que no caben se cargan bajo demanda
+                        if (ledgers.size() >= maxCustomers) {
+                            return;
+                        }
+                        ledger = new Ledger(recentSize);
+                        ledgers.put(row.customer(), ledger);
+                    }
+                    ledger.add(row);
+                });
+            }
+        });
+        running = true;
+        log.info("Resumen por cliente construido: {} clientes, {} transacciones en {} ms", ledgers.size(), rows[0],
+                (System.nanoTime() - started) / 1_000_000);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // Antes que el servidor web: no se atienden solicitudes mientras se construye
+    @Override
+    public int getPhase() {
+        return 0;
+    }
+
+    private Ledger ledgerFor(String customer) {
+        var ledger = ledgers.get(customer);
+        if (ledger == null) {
+            // Limita la memoria: al llegar al máximo se descartan los leídos hace más tiempo
+            if (ledgers.size() >= maxCustomers) {
+                LeastRecentlyUsed.oldest(ledgers, Ledger::lastRead, LeastRecentlyUsed.evictionBatch(maxCustomers))
+                        .forEach(ledgers::remove);
+            }
+            // Se instala marcado como en carga antes de consultar, para no perder las escrituras que se
+            // confirmen mientras tanto
+            var loading = Ledger.loading(recentSize);
+            ledger = ledgers.putIfAbsent(customer, loading);
+            if (ledger == null) {
+                return load(customer, loading);
+            }
+        }
+        if (ledger.isLoading()) {
+            // Otro hilo lo está cargando: esta lectura consulta por su cuenta, sin guardar el resultado
+            var snapshot = new Ledger(recentSize);
+            transactionRepository.findCompactByCustomer(customer).forEach(snapshot::add);
+            return snapshot;
+        }
+        ledger.lastRead = System.nanoTime();
+        return ledger;
+    }
+
+    private Ledger load(String customer, Ledger loading) {
+        boolean complete = false;
+        try {
+            complete = loading.finishLoading(transactionRepository.findCompactByCustomer(customer));
+            // Sin escrituras en curso ya no llega ningún cambio que la consulta pudiera haber visto
+            if (!inFlight.containsKey(customer)) {
+                loading.settle();
+            }
+            return loading;
+        } finally {
+            if (!complete) {
+                ledgers.remove(customer, loading);
+            }
+        }
+    }
+
+    // Solo se actualizan los clientes en memoria; el resto se carga completo en su próxima lectura
+    private void add(CompactTransaction transaction) {
+        var ledger = ledgers.get(transaction.customer());
+        if (ledger != null) {
+            ledger.apply(transaction, true);
+        }
+    }
+
+    private void remove(CompactTransaction transaction) {
+        var ledger = ledgers.get(transaction.customer());
+        if (ledger != null && !ledger.apply(transaction, false)) {
+            // Quedan transacciones más antiguas que no se retuvieron: se recarga en la próxima lectura
+            ledgers.remove(transaction.customer(), ledger);
+        }
+    }
+
+    // Ejecuta la acción al confirmarse la transacción actual, o de inmediato si no hay una. Hasta que la
+    // transacción termina, sus clientes cuentan con una escritura en curso.
+    private void afterCommit(Collection<String> customers, Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        var affected = new HashSet<>(customers);
+        affected.forEach(customer -> inFlight.merge(customer, 1, Integer::sum));
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                affected.forEach(CustomerLedger.this::writeFinished);
+            }
+        });
+    }
+
+    private void writeFinished(String customer) {
+        if (inFlight.computeIfPresent(customer, (key, count) -> count == 1 ? null : count - 1) == null) {
+            var ledger = ledgers.get(customer);
+            if (ledger != null) {
+                ledger.settle();
+            }
+        }
+    }
+
+    // Resumen de un cliente. Las últimas transacciones se guardan en un anillo de arreglos primitivos
+    // ordenado por (fecha, id): start apunta a la más antigua retenida. Los comercios vienen internados.
+    static final class Ledger {
+
+        private long total;
+        private int count;
+        private final int[] ids;
+        private final long[] amounts;
+        private final long[] dates;
+        private final int[] offsets;
+        private final String[] merchants;
+        private int start;
+        private int size;
+        // Escrituras confirmadas mientras se carga desde la base de datos; null una vez cargado
+        private List<Change> pending;
+        // Versión de cada transacción incluida, desde la carga hasta que el cliente no tiene escrituras en
+        // curso; null el resto del tiempo
+        private Map<Integer, Long> versions;
+        // System.nanoTime() de la última lectura, para descartar primero los leídos hace más tiempo
+        private volatile long lastRead = System.nanoTime();
+
+        Ledger(int capacity) {
+            ids = new int[capacity];
+            amounts = new long[capacity];
+            dates = new long[capacity];
+            offsets = new int[capacity];
+            merchants = new String[capacity];
+        }
+
+        static Ledger loading(int capacity) {
+            var ledger = new Ledger(capacity);
+            ledger.pending = new ArrayList<>();
+            return ledger;
+        }
+
+        synchronized boolean isLoading() {
+            return pending != null;
+        }
+
+        long lastRead() {
+            return lastRead;
+        }
+
+        // Aplica una escritura confirmada, o la guarda si el resumen se está cargando.
+        // false si hay que descartar el resumen (ver remove)
+        synchronized boolean apply(CompactTransaction transaction, boolean added) {
+            if (pending != null) {
+                pending.add(new Change(transaction, added));
+                return true;
+            }
+            return applyVersioned(transaction, added);
+        }
+
+        // Carga las filas leídas y aplica las escrituras guardadas que la consulta no vio.
+        // false si hay que descartar el resumen.
+        synchronized boolean finishLoading(List<CompactTransaction> rows) {
+            versions = new HashMap<>(rows.size() * 2);
+            for (var row : rows) {
+                add(row);
+                versions.put(row.id(), row.version());
+            }
+            boolean complete = true;
+            for (var change : pending) {
+                complete &= applyVersioned(change.transaction(), change.added());
+            }
+            pending = null;
+            return complete;
+        }
+
+        // Deja de recordar las versiones: los cambios siguientes son todos posteriores a la carga
+        synchronized void settle() {
+            if (pending == null) {
+                versions = null;
+            }
+        }
+
+        // Con las versiones de la carga, un alta se aplica si la fila no estaba en esa versión o una posterior,
+        // y una baja solo si la carga incluye justo la versión eliminada
+        private boolean applyVersioned(CompactTransaction transaction, boolean added) {
+            if (versions != null) {
+                Long loaded = versions.get(transaction.id());
+                if (added) {
+                    if (loaded != null && loaded >= transaction.version()) {
+                        return true;
+                    }
+                    versions.put(transaction.id(), transaction.version());
+                } else {
+                    if (loaded == null || loaded != transaction.version()) {
+                        return true;
+                    }
+                    versions.remove(transaction.id());
+                }
+            }
+            if (added) {
+                add(transaction);
+                return true;
+            }
+            return remove(transaction.id(), transaction.amount());
+        }
+
+        synchronized void add(CompactTransaction transaction) {
+            int id = transaction.id();
+            long date = transaction.epochMicros();
+            total += transaction.amount();
+            count++;
+            int capacity = ids.length;
+            if (size == capacity) {
+                // Más antigua que todas las retenidas: solo cuenta en el total
+                if (compare(date, id, start) < 0) {
+                    return;
+                }
+                start = (start + 1) % capacity;
+                size--;
+            }
+            // Lo habitual es que sea la más reciente; si no, se desplazan las más nuevas un lugar
+            int position = size;
+            while (position > 0 && compare(date, id, slot(position - 1)) < 0) {
+                copy(slot(position - 1), slot(position));
+                position--;
+            }
+            int target = slot(position);
+            ids[target] = id;
+            amounts[target] = transaction.amount();
+            dates[target] = date;
+            offsets[target] = transaction.offsetSeconds();
+            merchants[target] = transaction.merchant();
+            size++;
+        }
+
+        // false si la transacción estaba retenida y hay otras más antiguas que no lo están
+        synchronized boolean remove(int id, long amount) {
+            total -= amount;
+            count--;
+            for (int i = 0; i < size; i++) {
+                if (ids[slot(i)] == id) {
+                    for (int j = i; j < size - 1; j++) {
+                        copy(slot(j + 1), slot(j));
+                    }
+                    size--;
+                    merchants[slot(size)] = null;
+                    return count == size;
+                }
+            }
+            return true;
+        }
+
+        synchronized CustomerSummaryDTO toSummary(String customer) {
+            var recent = new ArrayList<TransactionResponseDTO>(size);
+            for (int i = size - 1; i >= 0; i--) {
+                int index = slot(i);
+                var transaction = new CompactTransaction(ids[index], customer, merchants[index], amounts[index],
+                        dates[index], offsets[index], 0);
+                recent.add(TransactionResponseDTO.builder()
+                        .id(transaction.id())
+                        .customer(customer)
+                        .amount(transaction.amount())
+                        .merchant(transaction.merchant())
+                        .date(transaction.date())
+                        .build());
+            }
+            return CustomerSummaryDTO.builder()
+                    .customer(customer)
+                    .count(count)
+                    .total(total)
+                    .recent(recent)
+                    .build();
+        }
+
+        private int slot(int position) {
+            return (start + position) % ids.length;
+        }
+
+        private int compare(long date, int id, int index) {
+            int byDate = Long.compare(date, dates[index]);
+            return byDate != 0 ? byDate : Integer.compare(id, ids[index]);
+        }
+
+        private void copy(int from, int to) {
+            ids[to] = ids[from];
+            amounts[to] = amounts[from];
+            dates[to] = dates[from];
+            offsets[to] = offsets[from];
+            merchants[to] = merchants[from];
+        }
+
+        private record Change(CompactTransaction transaction, boolean added) {
+        }
+    }
+}
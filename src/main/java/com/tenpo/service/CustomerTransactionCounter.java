@@ -0,0 +1,245 @@
+package com.tenpo.service;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.tenpo.repository.TransactionRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+// Cache en memoria de la cantidad de transacciones por cliente.
+// Cada contador se carga desde la base de datos la primera vez que se usa y luego se
+// mantiene con las escrituras, por lo que validar el máximo por cliente no requiere consultas.
+// Un contador solo se vuelve a leer cuando no tiene reservas en curso: la consulta no ve las filas
+// todavía sin confirmar. Cuando el contador en memoria llega cerca del máximo, cada reserva toma el advisory
+// lock del cliente (el mismo del modo reactivo) y cuenta en la base de datos, así las reservas cercanas al
+// máximo de todas las réplicas se ordenan entre sí. Un contador de esta réplica que quedó por debajo de la
+// cantidad real (escrituras de otras réplicas desde la última lectura) no detecta que está cerca: en ese caso
+// el máximo puede superarse hasta la siguiente reconciliación.
+@Slf4j
+@Component
+public class CustomerTransactionCounter {
+
+    public static final int MAX_TRANSACTIONS_PER_CUSTOMER = 100;
+
+    // A partir de MAX - NEAR_LIMIT transacciones se consulta la base de datos en cada reserva
+    static final int NEAR_LIMIT = 10;
+
+    private final TransactionRepository transactionRepository;
+    private final int maxCustomers;
+    private final ConcurrentHashMap<String, Counter> counters = new ConcurrentHashMap<>();
+    // Se incrementa en cada reconciliación; los contadores de una generación anterior se vuelven a leer
+    private final AtomicLong generation = new AtomicLong();
+
+    public CustomerTransactionCounter(TransactionRepository transactionRepository,
+            @Value("${tenpo.customer-counter.max-customers:100000}") int maxCustomers) {
+        this.transactionRepository = transactionRepository;
+        this.maxCustomers = maxCustomers;
+    }
+
+    // Reserva un cupo para una nueva transacción del cliente; false si ya alcanzó el máximo.
+    // Si la transacción de base de datos se revierte, el cupo se devuelve.
+    public boolean tryReserve(String customer) {
+        Counter counter;
+        do {
+            counter = counterFor(customer);
+        } while (!counter.begin());
+
+        boolean reserved = reserve(customer, counter);
+        if (!reserved) {
+            counter.end();
+            return false;
+        }
+        Counter reservedCounter = counter;
+        onCompletion(reservedCounter::end, () -> {
+            reservedCounter.count.decrementAndGet();
+            reservedCounter.end();
+        });
+        return true;
+    }
+
+    // Libera un cupo del cliente una vez confirmada la transacción (eliminación o cambio de cliente).
+    // El contador se toma ahora: si se vuelve a leer antes del commit, la lectura ya incluye la fila y el
+    // nuevo contador queda uno por encima hasta la siguiente reconciliación, nunca por debajo.
+    public void release(String customer) {
+        Counter counter = counters.get(customer);
+        if (counter != null) {
+            onCompletion(counter.count::decrementAndGet, null);
+        }
+    }
+
+    // Carga en una sola consulta los contadores de un lote que aún no están en memoria. Los clientes que el lote
+    // puede acercar al máximo se bloquean ahora, en orden, para que dos lotes no se bloqueen entre sí.
+    public void warm(Collection<String> customers) {
+        Map<String, Integer> occurrences = new TreeMap<>();
+        customers.forEach(customer -> occurrences.merge(customer, 1, Integer::sum));
+        List<String> missing = occurrences.keySet().stream()
+                .filter(customer -> !counters.containsKey(customer))
+                .toList();
+        if (!missing.isEmpty()) {
+            if (counters.size() + missing.size() > maxCustomers) {
+                evictIdle(Math.max(LeastRecentlyUsed.evictionBatch(maxCustomers),
+                        counters.size() + missing.size() - maxCustomers));
+            }
+            long loadedGeneration = generation.get();
+            Map<String, Long> totals = new HashMap<>();
+            missing.forEach(customer -> totals.put(customer, 0L));
+            transactionRepository.countByCustomerIn(missing)
+                    .forEach(count -> totals.put(count.getCustomer(), count.getTotal()));
+            totals.forEach((customer, total) -> counters.putIfAbsent(customer, new Counter(total, loadedGeneration)));
+        }
+        occurrences.forEach((customer, count) -> {
+            var counter = counters.get(customer);
+            if (counter != null && counter.count.get() + count >= MAX_TRANSACTIONS_PER_CUSTOMER - NEAR_LIMIT) {
+                transactionRepository.lockCustomer(customer);
+            }
+        });
+    }
+
+    // Marca los contadores para que se vuelvan a leer desde la base de datos en su próximo uso
+    @Scheduled(fixedDelayString = "${tenpo.customer-counter.reconcile-interval:10m}")
+    public void reconcile() {
+        log.debug("Reconciliando {} contadores de transacciones por cliente", counters.size());
+        generation.incrementAndGet();
+    }
+
+    // Incrementa el contador si no alcanzó el máximo. Cerca del máximo el valor en memoria se corrige con
+    // la cantidad confirmada en la base de datos más las reservas en curso de esta réplica, leída con el
+    // advisory lock del cliente tomado hasta el fin de la transacción.
+    private boolean reserve(String customer, Counter counter) {
+        if (counter.count.get() >= MAX_TRANSACTIONS_PER_CUSTOMER - NEAR_LIMIT) {
+            transactionRepository.lockCustomer(customer);
+            // Las reservas en curso (sin contar esta) todavía no son visibles en la base de datos
+            long committed = transactionRepository.countByCustomer(customer) + counter.pending.get() - 1;
+            counter.count.accumulateAndGet(committed, Math::max);
+        }
+        long current;
+        do {
+            current = counter.count.get();
+            if (current >= MAX_TRANSACTIONS_PER_CUSTOMER) {
+                return false;
+            }
+        } while (!counter.count.compareAndSet(current, current + 1));
+        return true;
+    }
+
+    // Contador vigente del cliente. Si no está en memoria, o es de una generación anterior y no tiene
+    // reservas en curso, se lee de la base de datos; el contador anterior queda retirado y quien lo
+    // tenga tomado vuelve a pedir el vigente.
+    private Counter counterFor(String customer) {
+        Counter counter = counters.get(customer);
+        if (counter != null && counter.generation != generation.get()) {
+            counter.retireIfIdle();
+        }
+        if (counter != null && !counter.isRetired()) {
+            counter.lastUsed = System.nanoTime();
+            return counter;
+        }
+        // Limita la memoria: al llegar al máximo se descartan los contadores usados hace más tiempo
+        if (counter == null && counters.size() >= maxCustomers) {
+            evictIdle(LeastRecentlyUsed.evictionBatch(maxCustomers));
+        }
+        long loadedGeneration = generation.get();
+        Counter loaded = new Counter(transactionRepository.countByCustomer(customer), loadedGeneration);
+        boolean installed = counter == null
+                ? counters.putIfAbsent(customer, loaded) == null
+                : counters.replace(customer, counter, loaded);
+        // Otro hilo instaló primero su lectura: se usa la que quedó en el mapa
+        return installed ? loaded : counterFor(customer);
+    }
+
+    // Descarta hasta count contadores, los usados hace más tiempo, salvo los que tienen reservas en curso
+    private void evictIdle(int count) {
+        for (String customer : LeastRecentlyUsed.oldest(counters, counter -> counter.lastUsed, count)) {
+            var counter = counters.get(customer);
+            if (counter != null && counter.retireIfIdle()) {
+                counters.remove(customer, counter);
+            }
+        }
+    }
+
+    // Ejecuta la acción según el resultado de la transacción actual, o de inmediato si no hay una
+    private void onCompletion(Runnable onCommit, Runnable onRollback) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            if (onCommit != null) {
+                onCommit.run();
+            }
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                Runnable action = status == STATUS_COMMITTED ? onCommit : onRollback;
+                if (action != null) {
+                    action.run();
+                }
+            }
+        });
+    }
+
+    // Contador de un cliente: transacciones confirmadas más reservas en curso
+    private static final class Counter {
+
+        private final AtomicLong count;
+        private final long generation;
+        // Reservas cuya transacción de base de datos todavía no terminó
+        private final AtomicInteger pending = new AtomicInteger();
+        // ACTIVE, RETIRING mientras se decide el retiro, o RETIRED: reemplazado por una lectura nueva
+        private final AtomicInteger state = new AtomicInteger(ACTIVE);
+        // System.nanoTime() del último uso, para descartar primero los usados hace más tiempo
+        private volatile long lastUsed = System.nanoTime();
+
+        private static final int ACTIVE = 0;
+        private static final int RETIRING = 1;
+        private static final int RETIRED = 2;
+
+        private Counter(long count, long generation) {
+            this.count = new AtomicLong(count);
+            this.generation = generation;
+        }
+
+        // Registra una reserva en curso; false si el contador se está retirando y hay que pedir el vigente
+        private boolean begin() {
+            pending.incrementAndGet();
+            if (state.get() != ACTIVE) {
+                pending.decrementAndGet();
+                return false;
+            }
+            return true;
+        }
+
+        private void end() {
+            pending.decrementAndGet();
+        }
+
+        private boolean isRetired() {
+            return state.get() == RETIRED;
+        }
+
+        // Retira el contador si no tiene reservas en curso. Una reserva que empieza a la vez ve el retiro
+        // (y pide el contador vigente) o es vista aquí (y el contador sigue activo).
+        private boolean retireIfIdle() {
+            if (!state.compareAndSet(ACTIVE, RETIRING)) {
+                return isRetired();
+            }
+            if (pending.get() > 0) {
+                state.set(ACTIVE);
+                return false;
+            }
+            state.set(RETIRED);
+            return true;
+        }
+    }
+}
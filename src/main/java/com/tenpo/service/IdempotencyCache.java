@@ -0,0 +1,105 @@
+package com.tenpo.service;
+
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+import com.tenpo.errors.ConflictException;
+
+// Índice en memoria de respuestas por Idempotency-Key, acotado en tamaño y con expiración.
+// Se divide en segmentos LRU independientes, cada uno con su propio lock, para repartir la contención.
+// Junto a cada respuesta se guarda la huella de la solicitud (SHA-256) para detectar claves reutilizadas con otro contenido.
+class IdempotencyCache<V> {
+
+    private static final int SEGMENTS = 16;
+
+    private final Segment<V>[] segments;
+    private final long ttlNanos;
+    private final LongSupplier nanoClock;
+
+    IdempotencyCache(int maxEntries, Duration ttl) {
+        this(maxEntries, ttl, System::nanoTime);
+    }
+
+    @SuppressWarnings("unchecked")
+    IdempotencyCache(int maxEntries, Duration ttl, LongSupplier nanoClock) {
+        int segmentCapacity = Math.max(1, (maxEntries + SEGMENTS - 1) / SEGMENTS);
+        this.segments = new Segment[SEGMENTS];
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment<>(segmentCapacity);
+        }
+        this.ttlNanos = ttl.toNanos();
+        this.nanoClock = nanoClock;
+    }
+
+    // Devuelve la respuesta guardada para la clave, o null si no existe o expiró
+    V get(String key, byte[] fingerprint) {
+        var segment = segmentFor(key);
+        segment.lock.lock();
+        try {
+            var entry = segment.entries.get(key);
+            if (entry == null) {
+                return null;
+            }
+            if (nanoClock.getAsLong() - entry.expiresAt() >= 0) {
+                segment.entries.remove(key);
+                return null;
+            }
+            if (!MessageDigest.isEqual(entry.fingerprint(), fingerprint)) {
+                throw new ConflictException("The Idempotency-Key was already used with a different request");
+            }
+            return entry.value();
+        } finally {
+            segment.lock.unlock();
+        }
+    }
+
+    void put(String key, byte[] fingerprint, V value) {
+        var segment = segmentFor(key);
+        segment.lock.lock();
+        try {
+            segment.entries.put(key, new Entry<>(fingerprint, value, nanoClock.getAsLong() + ttlNanos));
+        } finally {
+            segment.lock.unlock();
+        }
+    }
+
+    int size() {
+        int size = 0;
+        for (var segment : segments) {
+            segment.lock.lock();
+            try {
+                size += segment.entries.size();
+            } finally {
+                segment.lock.unlock();
+            }
+        }
+        return size;
+    }
+
+    private Segment<V> segmentFor(String key) {
+        int hash = key.hashCode();
+        return segments[(hash ^ (hash >>> 16)) & (SEGMENTS - 1)];
+    }
+
+    private record Entry<V>(byte[] fingerprint, V value, long expiresAt) {
+    }
+
+    // LinkedHashMap en orden de acceso: al superar la capacidad se descarta la entrada usada hace más tiempo
+    private static final class Segment<V> {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final LinkedHashMap<String, Entry<V>> entries;
+
+        Segment(int capacity) {
+            this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Entry<V>> eldest) {
+                    return size() > capacity;
+                }
+            };
+        }
+    }
+}
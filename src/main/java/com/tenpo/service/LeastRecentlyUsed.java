@@ -0,0 +1,38 @@
+package com.tenpo.service;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.function.ToLongFunction;
+
+// Selección de las entradas usadas hace más tiempo de una cache en memoria por cliente. Al alcanzar su
+// máximo, la cache descarta un bloque acotado (1% del máximo) en lugar de vaciarse completa, así las
+// lecturas siguientes no van todas a la base de datos a la vez.
+final class LeastRecentlyUsed {
+
+    private LeastRecentlyUsed() {
+    }
+
+    // Entradas a descartar cada vez que se alcanza el máximo
+    static int evictionBatch(int maxEntries) {
+        return Math.max(1, maxEntries / 100);
+    }
+
+    // Hasta count claves con el último uso más antiguo; el último uso se lee una vez por entrada
+    static <K, V> List<K> oldest(Map<K, V> entries, ToLongFunction<V> lastUsed, int count) {
+        // Montículo de máximos: en la raíz queda la más reciente de las seleccionadas
+        var selected = new PriorityQueue<Candidate<K>>(count + 1,
+                Comparator.comparingLong(Candidate<K>::lastUsed).reversed());
+        for (var entry : entries.entrySet()) {
+            selected.add(new Candidate<>(entry.getKey(), lastUsed.applyAsLong(entry.getValue())));
+            if (selected.size() > count) {
+                selected.poll();
+            }
+        }
+        return selected.stream().map(Candidate::key).toList();
+    }
+
+    private record Candidate<K>(K key, long lastUsed) {
+    }
+}
@@ -0,0 +1,210 @@
+package com.tenpo.service;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.tenpo.dto.TransactionChangeDTO;
+import com.tenpo.dto.TransactionChangesDTO;
+import com.tenpo.dto.TransactionResponseDTO;
+import com.tenpo.errors.BadRequestException;
+import com.tenpo.model.TransactionChange;
+import com.tenpo.repository.TransactionChangeRepository;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.transaction.Transactional;
+import lombok.extern.slf4j.Slf4j;
+
+// Lectura incremental del registro de cambios. Los consumidores piden los cambios posteriores a la
+// última secuencia que procesaron, o se suscriben por SSE: un único hilo consulta la tabla y reparte
+// los cambios nuevos a todas las suscripciones, sin una consulta por cliente conectado.
+// Los números de secuencia se toman sin bloqueo y pueden confirmarse fuera de orden, así que los cambios
+// se entregan en orden (changedXid, seq) y solo cuando ya terminaron todas las transacciones de base de
+// datos anteriores (vista transaction_changes_visible): un cambio confirmado después siempre queda detrás
+// de la posición de cualquier consumidor. La secuencia since se traduce a esa posición.
+@Slf4j
+@Service
+public class TransactionChangeFeed {
+
+    public static final int DEFAULT_CHANGES = 500;
+    public static final int MAX_CHANGES = 1000;
+
+    private final TransactionChangeRepository changeRepository;
+    private final Duration pollInterval;
+    private final Duration subscriptionTimeout;
+    private final Duration retention;
+    private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+    private final ScheduledExecutorService publisher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        var thread = new Thread(runnable, "transaction-change-feed");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public TransactionChangeFeed(TransactionChangeRepository changeRepository,
+            @Value("${tenpo.changes.poll-interval:1s}") Duration pollInterval,
+            @Value("${tenpo.changes.subscription-timeout:30m}") Duration subscriptionTimeout,
+            @Value("${tenpo.changes.retention:7d}") Duration retention) {
+        this.changeRepository = changeRepository;
+        this.pollInterval = pollInterval;
+        this.subscriptionTimeout = subscriptionTimeout;
+        this.retention = retention;
+    }
+
+    @PostConstruct
+    void start() {
+        publisher.scheduleWithFixedDelay(this::publish, pollInterval.toMillis(), pollInterval.toMillis(),
+                TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        publisher.shutdownNow();
+        subscriptions.forEach(subscription -> subscription.emitter.complete());
+    }
+
+    // Cambios posteriores a la secuencia since, en orden de confirmación
+    public TransactionChangesDTO getChanges(long since, int limit) {
+        if (since < 0) {
+            throw new BadRequestException("The since sequence cannot be negative");
+        }
+        if (limit < 1 || limit > MAX_CHANGES) {
+            throw new BadRequestException("The limit must be between 1 and " + MAX_CHANGES);
+        }
+        log.info("Listando hasta {} cambios posteriores a la secuencia {}", limit, since);
+        var position = positionOf(since);
+        var changes = changeRepository.findVisibleAfter(position.xid(), position.seq(), limit);
+        return TransactionChangesDTO.builder()
+                .changes(changes.stream().map(TransactionChangeFeed::toChangeDTO).toList())
+                .lastSeq(changes.isEmpty() ? since : changes.get(changes.size() - 1).getSeq())
+                .build();
+    }
+
+    // Suscripción SSE que recibe los cambios posteriores a since; el id de cada evento es su secuencia
+    public SseEmitter subscribe(long since) {
+        if (since < 0) {
+            throw new BadRequestException("The since sequence cannot be negative");
+        }
+        var subscription = new Subscription(new SseEmitter(subscriptionTimeout.toMillis()), positionOf(since));
+        subscription.emitter.onCompletion(() -> subscriptions.remove(subscription));
+        subscription.emitter.onTimeout(() -> subscriptions.remove(subscription));
+        subscription.emitter.onError(error -> subscriptions.remove(subscription));
+        subscriptions.add(subscription);
+        log.info("Nueva suscripción a cambios desde la secuencia {} ({} activas)", since, subscriptions.size());
+        return subscription.emitter;
+    }
+
+    // Una consulta por ciclo desde la suscripción más atrasada; cada una recibe solo lo que le falta
+    void publish() {
+        if (subscriptions.isEmpty()) {
+            return;
+        }
+        try {
+            var from = subscriptions.stream().map(subscription -> subscription.position)
+                    .min(Position::compareTo).orElseThrow();
+            var changes = changeRepository.findVisibleAfter(from.xid(), from.seq(), MAX_CHANGES);
+            if (changes.isEmpty()) {
+                return;
+            }
+            subscriptions.forEach(subscription -> send(subscription, changes));
+        } catch (RuntimeException e) {
+            log.error("Error al publicar los cambios de transacciones: {}", e.getMessage());
+        }
+    }
+
+    // Elimina los cambios que superan el período de retención
+    @Transactional
+    @Scheduled(fixedDelayString = "${tenpo.changes.purge-interval:1h}")
+    public void purge() {
+        int deleted = changeRepository.deleteChangedBefore(OffsetDateTime.now().minus(retention));
+        if (deleted > 0) {
+            log.info("Se eliminaron {} cambios de transacciones anteriores a {}", deleted, retention);
+        }
+    }
+
+    int subscriptionCount() {
+        return subscriptions.size();
+    }
+
+    // Posición de lectura del cambio since; 0 es el inicio del registro
+    private Position positionOf(long since) {
+        if (since == 0) {
+            return Position.START;
+        }
+        return changeRepository.findById(since)
+                .map(Position::of)
+                .orElseThrow(() -> new BadRequestException("The since sequence " + since
+                        + " does not exist or was purged; start again from 0"));
+    }
+
+    private void send(Subscription subscription, List<TransactionChange> changes) {
+        try {
+            for (var change : changes) {
+                var position = Position.of(change);
+                if (position.compareTo(subscription.position) > 0) {
+                    subscription.emitter.send(SseEmitter.event()
+                            .id(Long.toString(change.getSeq()))
+                            .name("change")
+                            .data(toChangeDTO(change)));
+                    subscription.position = position;
+                }
+            }
+        } catch (IOException | IllegalStateException e) {
+            // Cliente desconectado: el emisor se da por terminado y se quita de la lista
+            subscriptions.remove(subscription);
+            subscription.emitter.completeWithError(e);
+        }
+    }
+
+    private static TransactionChangeDTO toChangeDTO(TransactionChange change) {
+        return TransactionChangeDTO.builder()
+                .seq(change.getSeq())
+                .operation(change.getOperation())
+                .transaction(TransactionResponseDTO.builder()
+                        .id(change.getTransactionId())
+                        .customer(change.getCustomer())
+                        .amount(change.getAmount())
+                        .merchant(change.getMerchant())
+                        .date(change.getDate())
+                        .build())
+                .changedAt(change.getChangedAt())
+                .build();
+    }
+
+    // Posición en el orden de lectura: id de la transacción de base de datos y secuencia del cambio
+    private record Position(long xid, long seq) implements Comparable<Position> {
+
+        private static final Position START = new Position(-1, 0);
+
+        private static Position of(TransactionChange change) {
+            return new Position(change.getChangedXid(), change.getSeq());
+        }
+
+        @Override
+        public int compareTo(Position other) {
+            int byXid = Long.compare(xid, other.xid);
+            return byXid != 0 ? byXid : Long.compare(seq, other.seq);
+        }
+    }
+
+    private static final class Subscription {
+
+        private final SseEmitter emitter;
+        private volatile Position position;
+
+        private Subscription(SseEmitter emitter, Position position) {
+            this.emitter = emitter;
+            this.position = position;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.tenpo.service;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.tenpo.model.Transaction;
+import com.tenpo.model.TransactionChange;
+
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+
+// Escribe el registro de cambios dentro de la misma transacción que modifica la tabla transactions.
+// Los números salen de transaction_changes_seq sin bloquear a las demás escrituras; el orden de lectura
+// seguro lo resuelve TransactionChangeFeed con el id de transacción de cada cambio.
+@Component
+@RequiredArgsConstructor
+public class TransactionChangeLog {
+
+    private final EntityManager entityManager;
+
+    // Tamaño de los lotes JDBC; coincide con hibernate.jdbc.batch_size
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+    private int jdbcBatchSize = 50;
+
+    @Transactional(Transactional.TxType.MANDATORY)
+    public void record(TransactionChange.Operation operation, Transaction transaction) {
+        recordAll(operation, List.of(transaction));
+    }
+
+    @Transactional(Transactional.TxType.MANDATORY)
+    public void recordAll(TransactionChange.Operation operation, List<Transaction> transactions) {
+        if (transactions.isEmpty()) {
+            return;
+        }
+        var changedAt = OffsetDateTime.now();
+        for (int i = 0; i < transactions.size(); i++) {
+            var transaction = transactions.get(i);
+            entityManager.persist(TransactionChange.builder()
+                    .transactionId(transaction.getId())
+                    .operation(operation)
+                    .customer(transaction.getCustomer())
+                    .amount(transaction.getAmount())
+                    .merchant(transaction.getMerchant())
+                    .date(transaction.getDate())
+                    .changedAt(changedAt)
+                    .build());
+            // En lotes grandes se vacía el contexto de persistencia por bloque
+            if ((i + 1) % jdbcBatchSize == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.tenpo.service;
+
+import java.nio.ByteBuffer;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Base64;
+
+import com.tenpo.errors.BadRequestException;
+
+// Posición (fecha, id) de la última transacción entregada en una página.
+// Se serializa como un token opaco en Base64 URL-safe para el cliente.
+public record TransactionCursor(OffsetDateTime date, int id) {
+
+    private static final int ENCODED_BYTES = Long.BYTES + Integer.BYTES + Integer.BYTES;
+
+    // Codifica el cursor como token opaco
+    public String encode() {
+        Instant instant = date.toInstant();
+        ByteBuffer buffer = ByteBuffer.allocate(ENCODED_BYTES)
+                .putLong(instant.getEpochSecond())
+                .putInt(instant.getNano())
+                .putInt(id);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(buffer.array());
+    }
+
+    // Decodifica un token recibido del cliente
+    public static TransactionCursor decode(String token) {
+        try {
+            byte[] bytes = Base64.getUrlDecoder().decode(token);
+            if (bytes.length != ENCODED_BYTES) {
+                throw new BadRequestException("Invalid cursor");
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            Instant instant = Instant.ofEpochSecond(buffer.getLong(), buffer.getInt());
+            return new TransactionCursor(instant.atOffset(ZoneOffset.UTC), buffer.getInt());
+        } catch (IllegalArgumentException | DateTimeException e) {
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+}
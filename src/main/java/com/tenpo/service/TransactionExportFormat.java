@@ -0,0 +1,36 @@
+package com.tenpo.service;
+
+import java.util.Locale;
+
+import com.tenpo.errors.BadRequestException;
+
+// Formatos de la exportación: el tipo de contenido de la respuesta y la extensión del archivo descargado
+public enum TransactionExportFormat {
+    CSV("text/csv", "csv"),
+    NDJSON("application/x-ndjson", "ndjson");
+
+    private final String contentType;
+    private final String extension;
+
+    TransactionExportFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String contentType() {
+        return contentType;
+    }
+
+    public String extension() {
+        return extension;
+    }
+
+    public static TransactionExportFormat parse(String value) {
+        for (TransactionExportFormat format : values()) {
+            if (format.extension.equals(value.trim().toLowerCase(Locale.ROOT))) {
+                return format;
+            }
+        }
+        throw new BadRequestException("The export format must be csv or ndjson");
+    }
+}
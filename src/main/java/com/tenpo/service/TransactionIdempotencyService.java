@@ -0,0 +1,209 @@
+package com.tenpo.service;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import com.tenpo.dto.TransactionBatchItemDTO;
+import com.tenpo.dto.TransactionBatchResponseDTO;
+import com.tenpo.dto.TransactionRequestDTO;
+import com.tenpo.dto.TransactionResponseDTO;
+import com.tenpo.errors.BadRequestException;
+import com.tenpo.errors.ConflictException;
+import com.tenpo.model.CompactTransaction;
+import com.tenpo.model.Transaction;
+import com.tenpo.repository.TransactionRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+// Creación idempotente de transacciones (encabezado Idempotency-Key).
+// Un reintento se responde desde la cache en memoria sin ir a la base de datos; si la clave no está en
+// memoria (otro nodo, reinicio o expiración), el índice único de idempotency_key rechaza el duplicado y
+// se devuelve la transacción guardada originalmente.
+@Slf4j
+@Service
+public class TransactionIdempotencyService {
+
+    public static final int MAX_KEY_LENGTH = 64;
+    static final char BATCH_ITEM_SEPARATOR = ':';
+
+    private final TransactionService transactionService;
+    private final TransactionRepository transactionRepository;
+    // Respuestas individuales en su representación compacta: es la cache con más entradas
+    private final IdempotencyCache<CompactTransaction> createdTransactions;
+    private final IdempotencyCache<TransactionBatchResponseDTO> createdBatches;
+
+    public TransactionIdempotencyService(TransactionService transactionService,
+            TransactionRepository transactionRepository,
+            @Value("${tenpo.idempotency.max-entries:100000}") int maxEntries,
+            @Value("${tenpo.idempotency.ttl:24h}") Duration ttl) {
+        this.transactionService = transactionService;
+        this.transactionRepository = transactionRepository;
+        this.createdTransactions = new IdempotencyCache<>(maxEntries, ttl);
+        this.createdBatches = new IdempotencyCache<>(maxEntries, ttl);
+    }
+
+    // Crea la transacción o devuelve la creada previamente con la misma clave
+    public TransactionResponseDTO createTransaction(String idempotencyKey, TransactionRequestDTO request) {
+        validateKey(idempotencyKey);
+        byte[] fingerprint = fingerprint(List.of(request));
+        var cached = createdTransactions.get(idempotencyKey, fingerprint);
+        if (cached != null) {
+            log.info("Solicitud repetida con Idempotency-Key {}, se devuelve la respuesta original", idempotencyKey);
+            return transactionService.getTransactionResponseDTO(cached.toTransaction());
+        }
+
+        TransactionResponseDTO response;
+        try {
+            response = transactionService.createTransaction(request, idempotencyKey);
+        } catch (DataIntegrityViolationException e) {
+            var existing = transactionRepository.findByIdempotencyKey(idempotencyKey).orElseThrow(() -> e);
+            if (!sameTransaction(existing, request)) {
+                throw keyReused();
+            }
+            log.info("Idempotency-Key {} ya registrada en la base de datos, se devuelve la transacción original", idempotencyKey);
+            response = transactionService.getTransactionResponseDTO(existing);
+        }
+        createdTransactions.put(idempotencyKey, fingerprint, new CompactTransaction(response.getId(),
+                response.getCustomer(), response.getMerchant(), response.getAmount(), response.getDate(),
+                Objects.requireNonNullElse(response.getVersion(), 0L)));
+        return response;
+    }
+
+    // Crea el lote o devuelve el resultado del lote creado previamente con la misma clave
+    public TransactionBatchResponseDTO createTransactions(String idempotencyKey, List<TransactionRequestDTO> requests) {
+        validateKey(idempotencyKey);
+        byte[] fingerprint = fingerprint(requests);
+        var cached = createdBatches.get(idempotencyKey, fingerprint);
+        if (cached != null) {
+            log.info("Lote repetido con Idempotency-Key {}, se devuelve la respuesta original", idempotencyKey);
+            return cached;
+        }
+
+        TransactionBatchResponseDTO response;
+        try {
+            response = transactionService.createTransactions(requests, idempotencyKey);
+        } catch (DataIntegrityViolationException e) {
+            response = findCreatedBatch(idempotencyKey, requests);
+            if (response == null) {
+                throw e;
+            }
+            log.info("Idempotency-Key {} ya registrada en la base de datos, se reconstruye el lote original", idempotencyKey);
+        }
+        createdBatches.put(idempotencyKey, fingerprint, response);
+        return response;
+    }
+
+    // Reconstruye el resultado de un lote a partir de sus filas: el lote se guardó en una sola transacción,
+    // así que los índices sin fila fueron rechazados en la solicitud original. Cada fila debe coincidir con
+    // el elemento del mismo índice; si no, la clave se usó con otro lote.
+    private TransactionBatchResponseDTO findCreatedBatch(String idempotencyKey, List<TransactionRequestDTO> requests) {
+        int size = requests.size();
+        var keys = IntStream.range(0, size)
+                .mapToObj(index -> TransactionService.batchItemKey(idempotencyKey, index))
+                .toList();
+        var created = transactionRepository.findByIdempotencyKeyIn(keys).stream()
+                .collect(Collectors.toMap(Transaction::getIdempotencyKey, Function.identity()));
+        if (created.isEmpty()) {
+            return null;
+        }
+        // Más filas que elementos, o una fila distinta de su elemento: el lote original era otro
+        if (transactionRepository.findByIdempotencyKey(TransactionService.batchItemKey(idempotencyKey, size)).isPresent()
+                || IntStream.range(0, size).anyMatch(i -> created.containsKey(keys.get(i))
+                        && !sameTransaction(created.get(keys.get(i)), requests.get(i)))) {
+            throw keyReused();
+        }
+
+        var items = new ArrayList<TransactionBatchItemDTO>(size);
+        for (int i = 0; i < size; i++) {
+            var transaction = created.get(keys.get(i));
+            items.add(transaction != null
+                    ? TransactionBatchItemDTO.builder()
+                            .index(i)
+                            .status(TransactionBatchItemDTO.Status.CREATED)
+                            .transaction(transactionService.getTransactionResponseDTO(transaction))
+                            .build()
+                    : TransactionBatchItemDTO.builder()
+                            .index(i)
+                            .status(TransactionBatchItemDTO.Status.REJECTED)
+                            .error("Rejected in the original request")
+                            .build());
+        }
+        return TransactionBatchResponseDTO.builder()
+                .created(created.size())
+                .rejected(size - created.size())
+                .items(items)
+                .build();
+    }
+
+    // Las claves de los elementos de un lote son <clave>:<índice>; sin ':' en las claves de los clientes,
+    // una creación individual nunca comparte clave con un elemento de otro lote
+    private static void validateKey(String idempotencyKey) {
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new BadRequestException("The Idempotency-Key must have between 1 and " + MAX_KEY_LENGTH + " characters");
+        }
+        if (idempotencyKey.indexOf(BATCH_ITEM_SEPARATOR) >= 0) {
+            throw new BadRequestException("The Idempotency-Key cannot contain '" + BATCH_ITEM_SEPARATOR + "'");
+        }
+    }
+
+    private static ConflictException keyReused() {
+        return new ConflictException("The Idempotency-Key was already used with a different request");
+    }
+
+    // Huella SHA-256 de los campos de las solicitudes, comparables por igualdad. Cada texto va precedido de su
+    // largo para que no se confundan los límites entre campos, y la fecha se toma como instante, igual que en
+    // sameTransaction.
+    static byte[] fingerprint(List<TransactionRequestDTO> requests) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        digest.update(ByteBuffer.allocate(Integer.BYTES).putInt(requests.size()).array());
+        for (var request : requests) {
+            update(digest, request.getCustomer());
+            update(digest, request.getMerchant());
+            var fields = ByteBuffer.allocate(2 + Long.BYTES * 3);
+            fields.put((byte) (request.getAmount() == null ? 0 : 1))
+                    .putLong(Objects.requireNonNullElse(request.getAmount(), 0L));
+            fields.put((byte) (request.getDate() == null ? 0 : 1));
+            if (request.getDate() != null) {
+                fields.putLong(request.getDate().toEpochSecond()).putLong(request.getDate().getNano());
+            }
+            digest.update(fields.array());
+        }
+        return digest.digest();
+    }
+
+    private static void update(MessageDigest digest, String value) {
+        if (value == null) {
+            digest.update(ByteBuffer.allocate(Integer.BYTES).putInt(-1).array());
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        digest.update(ByteBuffer.allocate(Integer.BYTES).putInt(bytes.length).array());
+        digest.update(bytes);
+    }
+
+    private static boolean sameTransaction(Transaction transaction, TransactionRequestDTO request) {
+        return Objects.equals(transaction.getCustomer(), request.getCustomer())
+                && Objects.equals(transaction.getAmount(), request.getAmount())
+                && Objects.equals(transaction.getMerchant(), request.getMerchant())
+                && transaction.getDate() != null && request.getDate() != null
+                && transaction.getDate().isEqual(request.getDate());
+    }
+}
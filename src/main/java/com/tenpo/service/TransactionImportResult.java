@@ -0,0 +1,5 @@
+package com.tenpo.service;
+
+// Resultado de una importación: filas recibidas, promovidas a transactions y rechazadas
+public record TransactionImportResult(long received, long imported, long rejected) {
+}
@@ -0,0 +1,248 @@
+package com.tenpo.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import com.tenpo.errors.BadRequestException;
+import com.tenpo.errors.ServiceUnavailableException;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+// Importación masiva de transacciones desde CSV, la inversa de TransactionExporter. El archivo se copia con
+// COPY ... FROM STDIN a una tabla temporal de texto, se valida con sentencias sobre el conjunto (las mismas
+// reglas que TransactionService.validate y el máximo por cliente) y las filas válidas se promueven a
+// transactions, junto con su registro de cambios, en una sola sentencia. Las rechazadas se devuelven como
+// archivo CSV con el número de línea y el motivo.
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TransactionImporter {
+
+    private static final Set<String> REQUIRED_COLUMNS = Set.of("customer", "amount", "merchant", "date");
+
+    // allocationSize de transactions_seq y transaction_changes_seq: cada nextval reserva los números
+    // (valor - 50, valor], igual que el optimizador pooled de Hibernate, así que las filas importadas nunca
+    // chocan con los ids ni con las secuencias de cambios que asigna la aplicación
+    private static final int ID_BLOCK_SIZE = 50;
+
+    // ISO 8601 con desfase obligatorio, dentro de los rangos que acepta timestamptz
+    private static final String DATE_PATTERN = "^[1-9][0-9]{3}-(0[1-9]|1[0-2])-(0[1-9]|[12][0-9]|3[01])[T ]"
+            + "([01][0-9]|2[0-3]):[0-5][0-9](:[0-5][0-9](\\.[0-9]{1,9})?)?(Z|[+-](0[0-9]|1[0-5])(:?[0-5][0-9])?)$";
+
+    // Validaciones en orden: cada fila guarda el motivo de la primera que no cumple. Los CASE aseguran que
+    // los casts solo se evalúen sobre valores con el formato correcto.
+    private static final List<String> VALIDATIONS = List.of(
+            "UPDATE transaction_import SET reason = 'The customer, amount, merchant and date are required' "
+                    + "WHERE coalesce(customer, '') = '' OR coalesce(trim(amount), '') = '' "
+                    + "OR coalesce(merchant, '') = '' OR coalesce(trim(date), '') = ''",
+            "UPDATE transaction_import SET reason = 'The customer and merchant must have at most 255 characters' "
+                    + "WHERE reason IS NULL AND (length(customer) > 255 OR length(merchant) > 255)",
+            "UPDATE transaction_import SET reason = 'The amount must be an integer in minor units' "
+                    + "WHERE reason IS NULL AND trim(amount) !~ '^-?[0-9]{1,18}$'",
+            "UPDATE transaction_import SET reason = 'The date must be an ISO 8601 date-time with offset' "
+                    + "WHERE reason IS NULL AND NOT CASE WHEN trim(date) ~ '" + DATE_PATTERN + "' "
+                    + "THEN substr(trim(date), 9, 2)::int <= extract(day from make_date(substr(trim(date), 1, 4)::int, "
+                    + "substr(trim(date), 6, 2)::int, 1) + interval '1 month' - interval '1 day') ELSE false END",
+            "UPDATE transaction_import SET amount_value = trim(amount)::bigint, date_value = trim(date)::timestamptz "
+                    + "WHERE reason IS NULL",
+            "UPDATE transaction_import SET reason = 'The date cannot be later than the current date' "
+                    + "WHERE reason IS NULL AND date_value > now()",
+            "UPDATE transaction_import SET reason = 'The amount must be greater than zero' "
+                    + "WHERE reason IS NULL AND amount_value <= 0");
+
+    // Máximo por cliente contando las transacciones existentes y las filas válidas anteriores del archivo
+    private static final String CUSTOMER_LIMIT_SQL = """
+            UPDATE transaction_import i SET reason = 'No more than %1$d transactions can be recorded'
+            FROM (SELECT s.line, coalesce(existing.total, 0) + row_number() OVER (PARTITION BY s.customer ORDER BY s.line) AS position
+                  FROM transaction_import s
+                  LEFT JOIN (SELECT customer, count(*) AS total FROM transactions
+                             WHERE customer IN (SELECT customer FROM transaction_import WHERE reason IS NULL)
+                             GROUP BY customer) existing ON existing.customer = s.customer
+                  WHERE s.reason IS NULL) ranked
+            WHERE i.line = ranked.line AND ranked.position > %1$d"""
+            .formatted(CustomerTransactionCounter.MAX_TRANSACTIONS_PER_CUSTOMER);
+
+    // Promueve las filas válidas y registra sus cambios en una sola sentencia, con los bloques de ids (primer
+    // parámetro) y de secuencias de cambios (segundo) ya reservados
+    private static final String PROMOTE_SQL = """
+            WITH blocks AS (
+                SELECT hi, row_number() OVER (ORDER BY hi) - 1 AS block FROM unnest(?::bigint[]) AS hi
+            ), change_blocks AS (
+                SELECT hi, row_number() OVER (ORDER BY hi) - 1 AS block FROM unnest(?::bigint[]) AS hi
+            ), valid AS (
+                SELECT customer, amount_value, merchant, date_value, row_number() OVER (ORDER BY line) - 1 AS position
+                FROM transaction_import WHERE reason IS NULL
+            ), promoted AS (
+                INSERT INTO transactions (id, customer, amount, merchant, date, version)
+                SELECT blocks.hi - %1$d + valid.position %% %2$d, valid.customer, valid.amount_value, valid.merchant,
+                       valid.date_value, 0
+                FROM valid JOIN blocks ON blocks.block = valid.position / %2$d
+                RETURNING id, customer, amount, merchant, date
+            ), changes AS (
+                SELECT promoted.*, row_number() OVER (ORDER BY promoted.id) - 1 AS position FROM promoted
+            )
+            INSERT INTO transaction_changes (seq, transaction_id, operation, customer, amount, merchant, date, changed_at)
+            SELECT change_blocks.hi - %1$d + changes.position %% %2$d, changes.id, 'CREATED', changes.customer,
+                   changes.amount, changes.merchant, changes.date, now()
+            FROM changes JOIN change_blocks ON change_blocks.block = changes.position / %2$d"""
+            .formatted(ID_BLOCK_SIZE - 1, ID_BLOCK_SIZE);
+
+    private static final String REJECTS_SQL = "COPY (SELECT line + 1 AS line, reason, customer, amount, merchant, date "
+            + "FROM transaction_import WHERE reason IS NOT NULL ORDER BY line) TO STDOUT WITH (FORMAT csv, HEADER)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final CustomerCacheInvalidation customerCacheInvalidation;
+
+    // Destino del archivo de rechazos; se abre una vez confirmada la importación, con su resultado
+    @FunctionalInterface
+    public interface RejectsTarget {
+        OutputStream open(TransactionImportResult result) throws IOException;
+    }
+
+    // Importa un CSV con encabezado que incluya customer, amount, merchant y date (el resto de las columnas,
+    // como id y version de un archivo exportado, se ignoran). Un archivo mal formado se rechaza completo.
+    public TransactionImportResult importCsv(InputStream csv, RejectsTarget rejects) {
+        long started = System.nanoTime();
+        var result = jdbcTemplate.execute((ConnectionCallback<TransactionImportResult>) connection -> {
+            if (!connection.isWrapperFor(PGConnection.class)) {
+                throw new ServiceUnavailableException("The import requires PostgreSQL");
+            }
+            var copyManager = connection.unwrap(PGConnection.class).getCopyAPI();
+            boolean autoCommit = connection.getAutoCommit();
+            try (Statement statement = connection.createStatement()) {
+                try {
+                    connection.setAutoCommit(false);
+                    var imported = load(connection, statement, copyManager, csv);
+                    // Los contadores por cliente y los resúmenes en memoria de todas las réplicas se vuelven
+                    // a leer con las filas nuevas; esta réplica no espera a la siguiente consulta de la señal
+                    customerCacheInvalidation.publish(statement);
+                    connection.commit();
+                    customerCacheInvalidation.reconcileLocal();
+                    connection.setAutoCommit(true);
+                    copyManager.copyOut(REJECTS_SQL, rejects.open(imported));
+                    return imported;
+                } catch (SQLException | RuntimeException e) {
+                    if (!connection.getAutoCommit()) {
+                        connection.rollback();
+                    }
+                    throw e;
+                } finally {
+                    connection.setAutoCommit(true);
+                    statement.execute("DROP TABLE IF EXISTS transaction_import");
+                    connection.setAutoCommit(autoCommit);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        log.info("Importación: {} filas recibidas, {} importadas y {} rechazadas en {} ms", result.received(),
+                result.imported(), result.rejected(), (System.nanoTime() - started) / 1_000_000);
+        return result;
+    }
+
+    private TransactionImportResult load(Connection connection, Statement statement, CopyManager copyManager,
+            InputStream csv) throws SQLException, IOException {
+        List<String> columns = stagingColumns(readLine(csv));
+        var definitions = new ArrayList<String>();
+        columns.forEach(column -> definitions.add(column + " text"));
+        statement.execute("DROP TABLE IF EXISTS transaction_import");
+        statement.execute("CREATE TEMP TABLE transaction_import (line bigint GENERATED ALWAYS AS IDENTITY, "
+                + String.join(", ", definitions) + ", amount_value bigint, date_value timestamptz, reason text)");
+
+        long received;
+        try {
+            received = copyManager.copyIn("COPY transaction_import (" + String.join(", ", columns)
+                    + ") FROM STDIN WITH (FORMAT csv)", csv);
+        } catch (SQLException e) {
+            // Cantidad de columnas, comillas o codificación inválidas
+            throw new BadRequestException("The CSV file could not be read: " + e.getMessage());
+        }
+
+        for (String validation : VALIDATIONS) {
+            statement.executeUpdate(validation);
+        }
+        // Nadie más agrega transacciones hasta el commit: el máximo por cliente se calcula sobre datos estables
+        statement.execute("LOCK TABLE transactions IN SHARE ROW EXCLUSIVE MODE");
+        statement.executeUpdate(CUSTOMER_LIMIT_SQL);
+
+        long valid;
+        try (var rows = statement.executeQuery("SELECT count(*) FROM transaction_import WHERE reason IS NULL")) {
+            rows.next();
+            valid = rows.getLong(1);
+        }
+        if (valid > 0) {
+            try (var promote = connection.prepareStatement(PROMOTE_SQL)) {
+                promote.setArray(1, connection.createArrayOf("bigint", blocks(statement, "transactions_seq", valid)));
+                promote.setArray(2, connection.createArrayOf("bigint", blocks(statement, "transaction_changes_seq", valid)));
+                promote.executeUpdate();
+            }
+        }
+        return new TransactionImportResult(received, valid, received - valid);
+    }
+
+    // Reserva los bloques de la secuencia necesarios para las filas. El primer valor de una secuencia nueva
+    // (1) no alcanza para un bloque completo de números positivos, así que se pide uno de más y se descarta
+    // si aparece.
+    private static Long[] blocks(Statement statement, String sequence, long rows) throws SQLException {
+        long needed = (rows + ID_BLOCK_SIZE - 1) / ID_BLOCK_SIZE;
+        var blocks = new ArrayList<Long>();
+        try (var values = statement.executeQuery(
+                "SELECT nextval('" + sequence + "') FROM generate_series(1, " + (needed + 1) + ")")) {
+            while (values.next()) {
+                long hi = values.getLong(1);
+                if (hi >= ID_BLOCK_SIZE && blocks.size() < needed) {
+                    blocks.add(hi);
+                }
+            }
+        }
+        return blocks.toArray(Long[]::new);
+    }
+
+    // Columnas de la tabla temporal en el orden del encabezado; las desconocidas se cargan y se ignoran
+    static List<String> stagingColumns(String header) {
+        if (header == null) {
+            throw new BadRequestException("The CSV file is empty");
+        }
+        var columns = new ArrayList<String>();
+        for (String name : header.replace("\uFEFF", "").split(",", -1)) {
+            String column = name.trim().replace("\"", "").toLowerCase(Locale.ROOT);
+            columns.add(REQUIRED_COLUMNS.contains(column) && !columns.contains(column)
+                    ? column : "ignored_" + columns.size());
+        }
+        if (!columns.containsAll(REQUIRED_COLUMNS)) {
+            throw new BadRequestException("The CSV header must include customer, amount, merchant and date");
+        }
+        return columns;
+    }
+
+    // Lee el encabezado byte a byte, sin consumir nada del resto del archivo que se copia a PostgreSQL
+    private static String readLine(InputStream in) throws IOException {
+        var line = new ByteArrayOutputStream();
+        int next;
+        while ((next = in.read()) != -1 && next != '\n') {
+            line.write(next);
+        }
+        if (next == -1 && line.size() == 0) {
+            return null;
+        }
+        return line.toString(StandardCharsets.UTF_8).stripTrailing();
+    }
+}
@@ -0,0 +1,318 @@
+package com.tenpo.service;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+
+import com.tenpo.model.Transaction;
+
+// Journal local de solo anexado con las transacciones aceptadas que aún no se guardaron en la base de datos.
+// Se escribe en segmentos (<journal-path>.1, .2, ...) de hasta segmentBytes: al llenarse uno se abre el
+// siguiente, y un segmento cerrado se borra en cuanto todas sus transacciones fueron confirmadas, así el journal
+// no crece sin límite bajo ingesta continua. Cada registro es [largo][CRC32][datos]; al leer se descarta el
+// final de un segmento si quedó incompleto por una caída. Las posiciones que devuelve append son lógicas y
+// crecen de un segmento al siguiente.
+class TransactionJournal implements Closeable {
+
+    private static final int HEADER_BYTES = Integer.BYTES + Integer.BYTES;
+    // Primer byte de los registros con monto de 64 bits. Los registros anteriores comienzan con el ID
+    // (un int positivo), cuyo primer byte nunca tiene el bit más alto encendido
+    private static final int LONG_AMOUNT_FORMAT = 0x81;
+    static final long DEFAULT_SEGMENT_BYTES = 64L * 1024 * 1024;
+
+    private final Path path;
+    private final long segmentBytes;
+    // Segmentos de una ejecución anterior, en orden, pendientes de reprocesar
+    private final List<Path> recovered;
+    // ReentrantLock en lugar de synchronized para no fijar hilos virtuales durante la E/S.
+    // Orden de adquisición: syncLock y luego appendLock
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private final ReentrantLock syncLock = new ReentrantLock();
+    // Segmentos con registros sin confirmar, más el activo, por su posición lógica inicial (protegido por appendLock)
+    private final TreeMap<Long, Segment> segments = new TreeMap<>();
+    private volatile Segment active;
+    private volatile long appended;
+    private volatile long synced;
+
+    TransactionJournal(Path path) throws IOException {
+        this(path, DEFAULT_SEGMENT_BYTES);
+    }
+
+    TransactionJournal(Path path, long segmentBytes) throws IOException {
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        this.path = path;
+        this.segmentBytes = segmentBytes;
+        this.recovered = new ArrayList<>(files(path));
+        long next = recovered.isEmpty() ? 1 : index(path, recovered.get(recovered.size() - 1)) + 1;
+        active = open(next, 0);
+        segments.put(0L, active);
+    }
+
+    // Archivos del journal en orden: el journal anterior a los segmentos (journal-path, si existe) y los segmentos
+    static List<Path> files(Path path) throws IOException {
+        Path directory = path.toAbsolutePath().getParent();
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        String name = path.getFileName().toString();
+        try (var files = Files.list(directory)) {
+            return files.filter(file -> {
+                        String fileName = file.getFileName().toString();
+                        return fileName.equals(name) || fileName.matches(Pattern.quote(name) + "\\.\\d+");
+                    })
+                    .sorted(Comparator.comparingLong(file -> index(path, file)))
+                    .toList();
+        }
+    }
+
+    // Reprocesa los segmentos de una ejecución anterior en bloques de hasta chunkSize transacciones, en orden de
+    // llegada, y borra cada segmento una vez procesado. Si el consumidor falla, el segmento se conserva.
+    void replay(int chunkSize, Consumer<List<Transaction>> consumer) throws IOException {
+        for (Path file : recovered) {
+            try (var channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                var chunk = new ArrayList<Transaction>(chunkSize);
+                long position = 0;
+                long size = channel.size();
+                ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+                while (position + HEADER_BYTES <= size) {
+                    header.clear();
+                    channel.read(header, position);
+                    header.flip();
+                    int length = header.getInt();
+                    int checksum = header.getInt();
+                    if (length <= 0 || position + HEADER_BYTES + length > size) {
+                        break;
+                    }
+                    ByteBuffer payload = ByteBuffer.allocate(length);
+                    channel.read(payload, position + HEADER_BYTES);
+                    if (checksum != crc(payload.array())) {
+                        break;
+                    }
+                    chunk.add(decode(payload.array()));
+                    if (chunk.size() == chunkSize) {
+                        consumer.accept(chunk);
+                        chunk = new ArrayList<>(chunkSize);
+                    }
+                    position += HEADER_BYTES + length;
+                }
+                if (!chunk.isEmpty()) {
+                    consumer.accept(chunk);
+                }
+            }
+            Files.delete(file);
+        }
+        recovered.clear();
+    }
+
+    // Anexa la transacción y devuelve la posición hasta la que hay que sincronizar para que sea durable;
+    // la misma posición identifica al registro en markFlushed
+    long append(Transaction transaction) throws IOException {
+        byte[] payload = encode(transaction);
+        ByteBuffer record = ByteBuffer.allocate(HEADER_BYTES + payload.length)
+                .putInt(payload.length)
+                .putInt(crc(payload))
+                .put(payload)
+                .flip();
+        if (appended - active.start >= segmentBytes) {
+            rotate();
+        }
+        appendLock.lock();
+        try {
+            long position = appended;
+            while (record.hasRemaining()) {
+                position += active.channel.write(record, position - active.start);
+            }
+            appended = position;
+            active.pending++;
+            return position;
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    // Fuerza a disco hasta la posición indicada. Un mismo fsync cubre todos los registros anexados
+    // hasta ese momento, por lo que las solicitudes concurrentes comparten la espera (group commit).
+    // Los segmentos anteriores al activo ya se forzaron al cerrarlos.
+    void sync(long position) throws IOException {
+        if (synced >= position) {
+            return;
+        }
+        syncLock.lock();
+        try {
+            if (synced >= position) {
+                return;
+            }
+            long target;
+            FileChannel channel;
+            appendLock.lock();
+            try {
+                target = appended;
+                channel = active.channel;
+            } finally {
+                appendLock.unlock();
+            }
+            channel.force(false);
+            synced = target;
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    // Marca como confirmados en la base de datos los registros con las posiciones que devolvió append.
+    // Un segmento cerrado sin pendientes se borra; el activo sin pendientes se vacía.
+    void markFlushed(List<Long> positions) throws IOException {
+        appendLock.lock();
+        try {
+            for (long position : positions) {
+                var segment = segments.floorEntry(position - 1).getValue();
+                segment.pending--;
+                if (segment != active && segment.pending <= 0) {
+                    segments.remove(segment.start);
+                    Files.deleteIfExists(segment.file);
+                }
+            }
+            if (active.pending <= 0 && appended > active.start) {
+                active.pending = 0;
+                active.channel.truncate(0);
+                active.channel.force(false);
+                segments.remove(active.start);
+                active.start = appended;
+                segments.put(active.start, active);
+            }
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    // Cierra el journal; el segmento activo se borra si no le quedan registros pendientes
+    @Override
+    public void close() throws IOException {
+        appendLock.lock();
+        try {
+            active.channel.close();
+            if (active.pending <= 0) {
+                Files.deleteIfExists(active.file);
+            }
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    // Cierra el segmento activo, ya forzado a disco, y abre el siguiente
+    private void rotate() throws IOException {
+        syncLock.lock();
+        try {
+            appendLock.lock();
+            try {
+                if (appended - active.start < segmentBytes) {
+                    return;
+                }
+                active.channel.force(false);
+                active.channel.close();
+                synced = appended;
+                if (active.pending <= 0) {
+                    segments.remove(active.start);
+                    Files.deleteIfExists(active.file);
+                }
+                active = open(active.index + 1, appended);
+                segments.put(active.start, active);
+            } finally {
+                appendLock.unlock();
+            }
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    private Segment open(long index, long start) throws IOException {
+        Path file = path.resolveSibling(path.getFileName() + "." + index);
+        var channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        return new Segment(index, file, channel, start);
+    }
+
+    // Número del segmento; 0 para el journal anterior a los segmentos
+    private static long index(Path path, Path file) {
+        String name = file.getFileName().toString();
+        return name.equals(path.getFileName().toString())
+                ? 0
+                : Long.parseLong(name.substring(path.getFileName().toString().length() + 1));
+    }
+
+    private static byte[] encode(Transaction transaction) throws IOException {
+        var bytes = new ByteArrayOutputStream(64);
+        try (var out = new DataOutputStream(bytes)) {
+            Instant instant = transaction.getDate().toInstant();
+            out.writeByte(LONG_AMOUNT_FORMAT);
+            out.writeInt(transaction.getId());
+            out.writeUTF(transaction.getCustomer());
+            out.writeLong(transaction.getAmount());
+            out.writeUTF(transaction.getMerchant());
+            out.writeLong(instant.getEpochSecond());
+            out.writeInt(instant.getNano());
+            out.writeInt(transaction.getDate().getOffset().getTotalSeconds());
+        }
+        return bytes.toByteArray();
+    }
+
+    private static Transaction decode(byte[] payload) throws IOException {
+        try (var in = new DataInputStream(new ByteArrayInputStream(payload))) {
+            // Un journal escrito antes de los montos de 64 bits se sigue pudiendo reprocesar
+            boolean longAmount = (payload[0] & 0xFF) == LONG_AMOUNT_FORMAT;
+            if (longAmount) {
+                in.readByte();
+            }
+            var transaction = new Transaction();
+            transaction.setId(in.readInt());
+            transaction.setCustomer(in.readUTF());
+            transaction.setAmount(longAmount ? in.readLong() : in.readInt());
+            transaction.setMerchant(in.readUTF());
+            Instant instant = Instant.ofEpochSecond(in.readLong(), in.readInt());
+            transaction.setDate(instant.atOffset(ZoneOffset.ofTotalSeconds(in.readInt())));
+            return transaction;
+        }
+    }
+
+    private static int crc(byte[] bytes) {
+        var crc = new CRC32();
+        crc.update(bytes);
+        return (int) crc.getValue();
+    }
+
+    // Archivo del journal; start es la posición lógica de su primer byte
+    private static final class Segment {
+
+        private final long index;
+        private final Path file;
+        private final FileChannel channel;
+        private volatile long start;
+        // Registros anexados que aún no fueron confirmados
+        private long pending;
+
+        private Segment(long index, Path file, FileChannel channel, long start) {
+            this.index = index;
+            this.file = file;
+            this.channel = channel;
+            this.start = start;
+        }
+    }
+}
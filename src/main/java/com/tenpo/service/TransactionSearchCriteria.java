@@ -0,0 +1,33 @@
+package com.tenpo.service;
+
+import java.time.OffsetDateTime;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import com.tenpo.errors.BadRequestException;
+import com.tenpo.model.Transaction;
+
+import static com.tenpo.repository.TransactionSpecifications.*;
+
+// Filtros de GET /search; todos son opcionales. Montos inclusivos, fechas en el rango [from, to).
+public record TransactionSearchCriteria(String customer, String merchant, Long minAmount, Long maxAmount,
+        OffsetDateTime from, OffsetDateTime to) {
+
+    void validate() {
+        if (minAmount != null && maxAmount != null && minAmount > maxAmount) {
+            throw new BadRequestException("The minimum amount cannot be greater than the maximum amount");
+        }
+        if (from != null && to != null && !from.isBefore(to)) {
+            throw new BadRequestException("The from date must be earlier than the to date");
+        }
+    }
+
+    Specification<Transaction> toSpecification() {
+        return Specification.where(customerEquals(customer))
+                .and(merchantEquals(merchant))
+                .and(amountAtLeast(minAmount))
+                .and(amountAtMost(maxAmount))
+                .and(dateFrom(from))
+                .and(dateBefore(to));
+    }
+}
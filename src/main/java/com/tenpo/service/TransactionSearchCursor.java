@@ -0,0 +1,61 @@
+package com.tenpo.service;
+
+import java.nio.ByteBuffer;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Base64;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import com.tenpo.dto.TransactionResponseDTO;
+import com.tenpo.errors.BadRequestException;
+import com.tenpo.model.Transaction;
+import com.tenpo.repository.TransactionSpecifications;
+
+// Posición de la última transacción entregada por la búsqueda: incluye el orden con el que se generó
+// y los valores de todos los campos ordenables, para continuar con cualquiera de ellos
+public record TransactionSearchCursor(TransactionSort sort, OffsetDateTime date, long amount, int id) {
+
+    private static final int ENCODED_BYTES = 1 + Long.BYTES + Integer.BYTES + Long.BYTES + Integer.BYTES;
+
+    static TransactionSearchCursor of(TransactionSort sort, TransactionResponseDTO last) {
+        return new TransactionSearchCursor(sort, last.getDate(), last.getAmount(), last.getId());
+    }
+
+    // Condición para continuar después de esta posición
+    Specification<Transaction> toSpecification() {
+        return switch (sort) {
+            case DATE_ASC, DATE_DESC -> TransactionSpecifications.after(sort.attribute(), date, id, sort.descending());
+            case AMOUNT_ASC, AMOUNT_DESC -> TransactionSpecifications.after(sort.attribute(), amount, id, sort.descending());
+        };
+    }
+
+    // Codifica el cursor como token opaco
+    public String encode() {
+        Instant instant = date.toInstant();
+        ByteBuffer buffer = ByteBuffer.allocate(ENCODED_BYTES)
+                .put((byte) sort.ordinal())
+                .putLong(instant.getEpochSecond())
+                .putInt(instant.getNano())
+                .putLong(amount)
+                .putInt(id);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(buffer.array());
+    }
+
+    // Decodifica un token recibido del cliente; debe haberse generado con el mismo orden
+    public static TransactionSearchCursor decode(String token, TransactionSort sort) {
+        try {
+            byte[] bytes = Base64.getUrlDecoder().decode(token);
+            if (bytes.length != ENCODED_BYTES || bytes[0] != sort.ordinal()) {
+                throw new BadRequestException("Invalid cursor");
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(bytes, 1, bytes.length - 1);
+            Instant instant = Instant.ofEpochSecond(buffer.getLong(), buffer.getInt());
+            return new TransactionSearchCursor(sort, instant.atOffset(ZoneOffset.UTC), buffer.getLong(), buffer.getInt());
+        } catch (IllegalArgumentException | DateTimeException e) {
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+}
@@ -1,29 +1,58 @@
 package com.tenpo.service;
 
+import java.time.LocalDate;
 import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.function.Consumer;
 
+import com.tenpo.dto.CustomerSummaryDTO;
+import com.tenpo.dto.TransactionAggregateDTO;
+import com.tenpo.dto.TransactionBatchItemDTO;
+import com.tenpo.dto.TransactionBatchResponseDTO;
+import com.tenpo.dto.TransactionPageDTO;
 import com.tenpo.dto.TransactionRequestDTO;
 import com.tenpo.dto.TransactionResponseDTO;
 import com.tenpo.errors.InternalErrorException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 
 import com.tenpo.model.Transaction;
+import com.tenpo.model.TransactionChange;
+import com.tenpo.repository.TransactionAmountAggregate;
 import com.tenpo.repository.TransactionRepository;
 
+import jakarta.persistence.EntityManager;
 import jakarta.transaction.Transactional;
 import com.tenpo.errors.BadRequestException;
+import com.tenpo.errors.ConflictException;
 import com.tenpo.errors.ResourceNotFoundException;
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class TransactionService {
 
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 500;
+    public static final int MAX_BATCH_SIZE = 5000;
+    public static final int MAX_AGGREGATE_DAYS = 366;
+
     private final TransactionRepository transactionRepository;
+    private final EntityManager entityManager;
+    private final CustomerTransactionCounter customerTransactionCounter;
+    private final TransactionChangeLog transactionChangeLog;
+    private final CustomerLedger customerLedger;
+
+    // Tamaño de los lotes JDBC; coincide con hibernate.jdbc.batch_size
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+    private int jdbcBatchSize = 50;
 
     // Devuelve la lista de todas las transacciones
     public List<TransactionResponseDTO> getAllTransactions() {
@@ -40,6 +69,122 @@ public class TransactionService {
                 .toList();
     }
 
+    // Devuelve una página de transacciones ordenada por (fecha, id) a partir del cursor
+    public TransactionPageDTO getTransactionsPage(String cursor, int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new BadRequestException("The page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        log.info("Listando página de {} transacciones", size);
+
+        // Se pide un elemento extra para saber si existe una página siguiente
+        var limit = Limit.of(size + 1);
+        List<Transaction> transactions;
+        if (cursor == null || cursor.isBlank()) {
+            transactions = transactionRepository.findFirstPage(limit);
+        } else {
+            var position = TransactionCursor.decode(cursor);
+            transactions = transactionRepository.findPageAfter(position.date(), position.id(), limit);
+        }
+
+        boolean hasNext = transactions.size() > size;
+        var page = hasNext ? transactions.subList(0, size) : transactions;
+        String nextCursor = null;
+        if (hasNext) {
+            var last = page.get(page.size() - 1);
+            nextCursor = new TransactionCursor(last.getDate(), last.getId()).encode();
+        }
+
+        return TransactionPageDTO.builder()
+                .transactions(page.stream().map(this::getTransactionResponseDTO).toList())
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    // Busca transacciones por cliente, comercio, rango de montos y de fechas, con paginación por cursor.
+    // Las filas se proyectan directamente al DTO, sin cargar entidades
+    public TransactionPageDTO searchTransactions(TransactionSearchCriteria criteria, TransactionSort sort, String cursor, int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new BadRequestException("The page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        criteria.validate();
+        log.info("Buscando transacciones con {} ordenadas por {}", criteria, sort);
+
+        var specification = criteria.toSpecification();
+        if (cursor != null && !cursor.isBlank()) {
+            specification = specification.and(TransactionSearchCursor.decode(cursor, sort).toSpecification());
+        }
+
+        // Se pide un elemento extra para saber si existe una página siguiente
+        var transactions = transactionRepository.search(specification, sort.toSort(), Limit.of(size + 1));
+        boolean hasNext = transactions.size() > size;
+        var page = hasNext ? transactions.subList(0, size) : transactions;
+
+        return TransactionPageDTO.builder()
+                .transactions(page)
+                .nextCursor(hasNext ? TransactionSearchCursor.of(sort, page.get(page.size() - 1)).encode() : null)
+                .build();
+    }
+
+    // Recorre todas las transacciones fila a fila sin cargarlas completas en memoria
+    @Transactional
+    public void forEachTransaction(Consumer<TransactionResponseDTO> action) {
+        log.info("Transmitiendo todas las transacciones");
+        try (var transactions = transactionRepository.streamAll()) {
+            transactions.forEach(transaction -> {
+                action.accept(getTransactionResponseDTO(transaction));
+                // Se libera la entidad del contexto de persistencia para mantener el heap constante
+                entityManager.detach(transaction);
+            });
+        }
+    }
+
+    // Totales de hasta size clientes posteriores a after (orden alfabético); la agregación se resuelve en la base de datos
+    public List<TransactionAggregateDTO> getAggregatesByCustomer(String after, int size) {
+        validateAggregateSize(size);
+        log.info("Calculando totales de {} clientes posteriores a '{}'", size, after);
+        return transactionRepository.aggregateByCustomer(after, Limit.of(size)).stream()
+                .map(TransactionService::toAggregateDTO)
+                .toList();
+    }
+
+    // Totales de hasta size comercios posteriores a after (orden alfabético); la agregación se resuelve en la base de datos
+    public List<TransactionAggregateDTO> getAggregatesByMerchant(String after, int size) {
+        validateAggregateSize(size);
+        log.info("Calculando totales de {} comercios posteriores a '{}'", size, after);
+        return transactionRepository.aggregateByMerchant(after, Limit.of(size)).stream()
+                .map(TransactionService::toAggregateDTO)
+                .toList();
+    }
+
+    private static void validateAggregateSize(int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new BadRequestException("The page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+    }
+
+    // Totales por día entre from y to (ambos incluidos, en UTC)
+    public List<TransactionAggregateDTO> getDailyAggregates(LocalDate from, LocalDate to) {
+        if (from.isAfter(to) || from.plusDays(MAX_AGGREGATE_DAYS).isBefore(to)) {
+            throw new BadRequestException("The date range must be ordered and span at most " + MAX_AGGREGATE_DAYS + " days");
+        }
+        log.info("Calculando totales diarios entre {} y {}", from, to);
+        return transactionRepository.aggregateByDay(from.atStartOfDay().atOffset(ZoneOffset.UTC),
+                        to.plusDays(1).atStartOfDay().atOffset(ZoneOffset.UTC)).stream()
+                .map(aggregate -> TransactionAggregateDTO.builder()
+                        .key(aggregate.getDay().toString())
+                        .count(aggregate.getTransactions())
+                        .total(aggregate.getTotalAmount())
+                        .average(aggregate.getAverageAmount())
+                        .build())
+                .toList();
+    }
+
+    // Cantidad, total y últimas transacciones del cliente, desde el resumen en memoria
+    public CustomerSummaryDTO getCustomerSummary(String customer) {
+        log.info("Obteniendo el resumen del cliente {}", customer);
+        return customerLedger.summary(customer);
+    }
+
     // Devuelve una transacción específica por ID
     public Transaction getTransactionById(int id) {
         log.info("Buscando la transacción con ID {}", id);
@@ -50,70 +195,189 @@ public class TransactionService {
     // Crea una nueva transacción
     @Transactional
     public TransactionResponseDTO createTransaction(TransactionRequestDTO request) {
+        return createTransaction(request, null);
+    }
+
+    // Crea una nueva transacción registrando su Idempotency-Key. Si la clave ya existe en la base de datos,
+    // la violación del índice único se propaga para que TransactionIdempotencyService devuelva la original.
+    @Transactional
+    public TransactionResponseDTO createTransaction(TransactionRequestDTO request, String idempotencyKey) {
         log.info("Creando transacción para el cliente {}", request.getCustomer());
         validateTransaction(request);
+        reserveCustomerSlot(request.getCustomer());
 
-        var transaction = new Transaction();
-        transaction.setCustomer(request.getCustomer());
-        transaction.setAmount(request.getAmount());
-        transaction.setMerchant(request.getMerchant());
-        transaction.setDate(request.getDate());
+        var transaction = toTransaction(request);
+        transaction.setIdempotencyKey(idempotencyKey);
 
         try {
             transactionRepository.save(transaction);
         } catch (Exception e) {
+            rethrowIfDuplicateKey(e, idempotencyKey);
             log.error("Error al guardar la transacción: {}", e.getMessage());
             throw new InternalErrorException("An error occurred while saving the transaction");
         }
+        transactionChangeLog.record(TransactionChange.Operation.CREATED, transaction);
+        customerLedger.created(transaction);
 
         return getTransactionResponseDTO(transaction);
     }
 
-    // Actualiza una transacción existente
+    // Crea un lote de transacciones validándolas en una sola pasada e insertándolas con JDBC batch
     @Transactional
-    public TransactionResponseDTO updateTransaction(int id, TransactionRequestDTO updatedTransaction) {
-        log.info("Actualizando transacción con ID {}", id);
+    public TransactionBatchResponseDTO createTransactions(List<TransactionRequestDTO> requests) {
+        return createTransactions(requests, null);
+    }
 
-        var existingTransaction = transactionRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Transaction not found with ID: " + id));
+    // Crea un lote registrando la Idempotency-Key de cada transacción como <clave>:<índice>
+    @Transactional
+    public TransactionBatchResponseDTO createTransactions(List<TransactionRequestDTO> requests, String idempotencyKey) {
+        if (requests == null || requests.isEmpty() || requests.size() > MAX_BATCH_SIZE) {
+            throw new BadRequestException("The batch must contain between 1 and " + MAX_BATCH_SIZE + " transactions");
+        }
+        log.info("Creando lote de {} transacciones", requests.size());
+
+        // Una sola consulta agrupada carga los contadores de todos los clientes del lote
+        customerTransactionCounter.warm(requests.stream()
+                .filter(request -> request != null && request.getCustomer() != null)
+                .map(TransactionRequestDTO::getCustomer)
+                .toList());
 
+        var items = new ArrayList<TransactionBatchItemDTO>(requests.size());
+        var accepted = new ArrayList<Transaction>();
+        var acceptedIndexes = new ArrayList<Integer>();
+        for (int i = 0; i < requests.size(); i++) {
+            var request = requests.get(i);
+            try {
+                validateTransaction(request);
+                reserveCustomerSlot(request.getCustomer());
+            } catch (BadRequestException e) {
+                items.add(TransactionBatchItemDTO.builder()
+                        .index(i)
+                        .status(TransactionBatchItemDTO.Status.REJECTED)
+                        .error(e.getMessage())
+                        .build());
+                continue;
+            }
+            var transaction = toTransaction(request);
+            if (idempotencyKey != null) {
+                transaction.setIdempotencyKey(batchItemKey(idempotencyKey, i));
+            }
+            accepted.add(transaction);
+            acceptedIndexes.add(i);
+            items.add(null);
+        }
+
+        try {
+            // Se vacía el contexto de persistencia por bloque para que no crezca con el lote
+            for (int from = 0; from < accepted.size(); from += jdbcBatchSize) {
+                transactionRepository.saveAll(accepted.subList(from, Math.min(from + jdbcBatchSize, accepted.size())));
+                transactionRepository.flush();
+                entityManager.clear();
+            }
+            transactionChangeLog.recordAll(TransactionChange.Operation.CREATED, accepted);
+            customerLedger.createdAll(accepted);
+        } catch (Exception e) {
+            rethrowIfDuplicateKey(e, idempotencyKey);
+            log.error("Error al guardar el lote de transacciones: {}", e.getMessage());
+            throw new InternalErrorException("An error occurred while saving the transactions");
+        }
+
+        for (int i = 0; i < accepted.size(); i++) {
+            items.set(acceptedIndexes.get(i), TransactionBatchItemDTO.builder()
+                    .index(acceptedIndexes.get(i))
+                    .status(TransactionBatchItemDTO.Status.CREATED)
+                    .transaction(getTransactionResponseDTO(accepted.get(i)))
+                    .build());
+        }
+
+        log.info("Lote procesado: {} creadas, {} rechazadas", accepted.size(), requests.size() - accepted.size());
+        return TransactionBatchResponseDTO.builder()
+                .created(accepted.size())
+                .rejected(requests.size() - accepted.size())
+                .items(items)
+                .build();
+    }
+
+    // Actualiza una transacción existente sin condición de versión
+    @Transactional
+    public TransactionResponseDTO updateTransaction(int id, TransactionRequestDTO updatedTransaction) {
+        return updateTransaction(id, updatedTransaction, null);
+    }
+
+    // Actualiza una transacción con un único UPDATE que devuelve la fila anterior, sin leerla antes.
+    // Con expectedVersion (header If-Match) la actualización solo se aplica si nadie la modificó mientras tanto.
+    @Transactional
+    public TransactionResponseDTO updateTransaction(int id, TransactionRequestDTO updatedTransaction, Long expectedVersion) {
+        log.info("Actualizando transacción con ID {}", id);
         validateTransaction(updatedTransaction);
 
-        existingTransaction.setAmount(updatedTransaction.getAmount());
-        existingTransaction.setMerchant(updatedTransaction.getMerchant());
-        existingTransaction.setCustomer(updatedTransaction.getCustomer());
-        existingTransaction.setDate(updatedTransaction.getDate());
+        var transaction = toTransaction(updatedTransaction);
+        transaction.setId(id);
 
+        Transaction previous;
         try {
-            transactionRepository.save(existingTransaction);
+            previous = transactionRepository.updateReturningPrevious(transaction, expectedVersion).orElse(null);
         } catch (Exception e) {
             log.error("Error al actualizar la transacción con ID {}: {}", id, e.getMessage());
             throw new InternalErrorException("An error occurred while updating the transaction");
         }
+        if (previous == null) {
+            // Solo en el camino de error se consulta si la fila existe, para distinguir 404 de 409
+            if (expectedVersion != null && transactionRepository.existsById(id)) {
+                throw new ConflictException("Transaction " + id + " was modified concurrently; expected version " + expectedVersion);
+            }
+            throw new ResourceNotFoundException("Transaction not found with ID: " + id);
+        }
+
+        // El máximo por cliente solo se verifica si la transacción cambia de cliente; si no hay cupo,
+        // la excepción revierte el UPDATE
+        if (!previous.getCustomer().equals(updatedTransaction.getCustomer())) {
+            reserveCustomerSlot(updatedTransaction.getCustomer());
+            customerTransactionCounter.release(previous.getCustomer());
+        }
+
+        transaction.setIdempotencyKey(previous.getIdempotencyKey());
+        transaction.setVersion(previous.getVersion() + 1);
+        transactionChangeLog.record(TransactionChange.Operation.UPDATED, transaction);
+        customerLedger.updated(previous, transaction);
 
-        return getTransactionResponseDTO(existingTransaction);
+        return getTransactionResponseDTO(transaction);
     }
 
-    // Elimina una transacción
+    // Elimina una transacción con un único DELETE que devuelve la fila eliminada
     @Transactional
     public void deleteTransaction(int id) {
-        log.info("Buscando transacción con ID {}", id);
-
-        var transaction = transactionRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Transaction not found with ID: " + id));
+        log.info("Eliminando transacción con ID {}", id);
 
+        Transaction transaction;
         try {
-            transactionRepository.delete(transaction);
+            transaction = transactionRepository.deleteReturning(id).orElse(null);
         } catch (Exception e) {
             log.error("Error al eliminar la transacción con ID {}: {}", id, e.getMessage());
             throw new InternalErrorException("An error occurred while deleting the transaction.");
         }
+        if (transaction == null) {
+            throw new ResourceNotFoundException("Transaction not found with ID: " + id);
+        }
+        transactionChangeLog.record(TransactionChange.Operation.DELETED, transaction);
+        customerLedger.deleted(transaction);
+        customerTransactionCounter.release(transaction.getCustomer());
 
         log.info("Transacción con ID {} eliminada exitosamente", id);
     }
 
     // Validaciones de la transacción
-    private void validateTransaction(TransactionRequestDTO request) {
+    void validateTransaction(TransactionRequestDTO request) {
+        validate(request);
+    }
+
+    // Validaciones sin estado, compartidas con el modo reactivo
+    public static void validate(TransactionRequestDTO request) {
+        if (request == null || request.getCustomer() == null || request.getAmount() == null
+                || request.getMerchant() == null || request.getDate() == null) {
+            throw new BadRequestException("The customer, amount, merchant and date are required");
+        }
+
         if (request.getDate().isAfter(OffsetDateTime.now())) {
             throw new BadRequestException("The date cannot be later than the current date");
         }
@@ -121,21 +385,56 @@ public class TransactionService {
         if (request.getAmount() <= 0) {
             throw new BadRequestException("The amount must be greater than zero");
         }
+    }
+
+    // Reserva un cupo del máximo de transacciones por cliente (solo consulta la base de datos cerca del máximo)
+    void reserveCustomerSlot(String customer) {
+        if (!customerTransactionCounter.tryReserve(customer)) {
+            throw new BadRequestException("No more than " + CustomerTransactionCounter.MAX_TRANSACTIONS_PER_CUSTOMER
+                    + " transactions can be recorded");
+        }
+    }
 
-        long count = transactionRepository.countByCustomer(request.getCustomer());
-        if (count >= 100) {
-            throw new BadRequestException("No more than 100 transactions can be recorded");
+    // Clave de idempotencia de cada transacción de un lote
+    static String batchItemKey(String idempotencyKey, int index) {
+        return idempotencyKey + TransactionIdempotencyService.BATCH_ITEM_SEPARATOR + index;
+    }
+
+    // Una clave de idempotencia repetida no es un error interno: la resuelve quien llamó
+    private static void rethrowIfDuplicateKey(Exception e, String idempotencyKey) {
+        if (idempotencyKey != null && e instanceof DataIntegrityViolationException duplicate) {
+            throw duplicate;
         }
     }
 
+    // Crea la entidad a partir de la solicitud
+    Transaction toTransaction(TransactionRequestDTO request) {
+        var transaction = new Transaction();
+        transaction.setCustomer(request.getCustomer());
+        transaction.setAmount(request.getAmount());
+        transaction.setMerchant(request.getMerchant());
+        transaction.setDate(request.getDate());
+        return transaction;
+    }
+
+    private static TransactionAggregateDTO toAggregateDTO(TransactionAmountAggregate aggregate) {
+        return TransactionAggregateDTO.builder()
+                .key(aggregate.getGroupKey())
+                .count(aggregate.getTransactions())
+                .total(aggregate.getTotalAmount())
+                .average(aggregate.getAverageAmount())
+                .build();
+    }
+
     // Convierte una transacción en su DTO de respuesta
-    private TransactionResponseDTO getTransactionResponseDTO(Transaction transaction) {
+    TransactionResponseDTO getTransactionResponseDTO(Transaction transaction) {
         return TransactionResponseDTO.builder()
                 .id(transaction.getId())
                 .customer(transaction.getCustomer())
                 .amount(transaction.getAmount())
                 .merchant(transaction.getMerchant())
                 .date(transaction.getDate())
+                .version(transaction.getVersion())
                 .build();
     }
 }
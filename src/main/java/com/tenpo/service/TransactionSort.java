@@ -0,0 +1,50 @@
+package com.tenpo.service;
+
+import java.util.Locale;
+
+import org.springframework.data.domain.Sort;
+
+import com.tenpo.errors.BadRequestException;
+
+// Órdenes admitidos por la búsqueda; el id desempata para que la paginación por cursor sea estable
+public enum TransactionSort {
+    DATE_ASC("date", false),
+    DATE_DESC("date", true),
+    AMOUNT_ASC("amount", false),
+    AMOUNT_DESC("amount", true);
+
+    private final String attribute;
+    private final boolean descending;
+
+    TransactionSort(String attribute, boolean descending) {
+        this.attribute = attribute;
+        this.descending = descending;
+    }
+
+    public String attribute() {
+        return attribute;
+    }
+
+    public boolean descending() {
+        return descending;
+    }
+
+    public Sort toSort() {
+        var direction = descending ? Sort.Direction.DESC : Sort.Direction.ASC;
+        return Sort.by(direction, attribute).and(Sort.by(direction, "id"));
+    }
+
+    // Interpreta el parámetro sort con el formato campo[,asc|desc], por ejemplo date,desc
+    public static TransactionSort parse(String value) {
+        String[] parts = value.trim().toLowerCase(Locale.ROOT).split(",");
+        String direction = parts.length > 1 ? parts[1].trim() : "asc";
+        if (parts.length <= 2 && (direction.equals("asc") || direction.equals("desc"))) {
+            for (TransactionSort sort : values()) {
+                if (sort.attribute.equals(parts[0].trim()) && sort.descending == direction.equals("desc")) {
+                    return sort;
+                }
+            }
+        }
+        throw new BadRequestException("The sort must be date or amount, optionally followed by ,asc or ,desc");
+    }
+}
@@ -0,0 +1,33 @@
+package com.tenpo.service;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import lombok.Data;
+
+// Configuración de la ingesta asíncrona de transacciones (prefijo tenpo.write-behind)
+@Data
+@ConfigurationProperties(prefix = "tenpo.write-behind")
+public class WriteBehindProperties {
+
+    // Habilita el endpoint de ingesta asíncrona y el escritor en segundo plano
+    private boolean enabled = false;
+
+    // Máximo de transacciones aceptadas y aún no guardadas; al llenarse se responde 503
+    private int queueCapacity = 10_000;
+
+    // Máximo de transacciones confirmadas en una misma transacción de base de datos
+    private int maxBatchSize = 500;
+
+    // Espera antes de reintentar un lote cuando la base de datos no está disponible
+    private Duration retryDelay = Duration.ofSeconds(1);
+
+    // Journal local con las transacciones aceptadas que aún no están en la base de datos
+    private Path journalPath = Path.of("data", "write-behind.journal");
+
+    // Tamaño a partir del cual el journal pasa a un segmento nuevo; los segmentos ya guardados se borran
+    private DataSize journalSegmentSize = DataSize.ofMegabytes(64);
+}
@@ -0,0 +1,265 @@
+package com.tenpo.service;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.tenpo.dto.TransactionRequestDTO;
+import com.tenpo.dto.TransactionResponseDTO;
+import com.tenpo.errors.InternalErrorException;
+import com.tenpo.errors.ServiceUnavailableException;
+import com.tenpo.model.Transaction;
+import com.tenpo.model.TransactionChange;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+
+// Ingesta asíncrona de transacciones (tenpo.write-behind.enabled=true).
+// La solicitud se valida y se anexa al journal local de forma síncrona; luego un único hilo escritor
+// vacía la cola en lotes, cada uno confirmado en una sola transacción con inserts JDBC en lote.
+// Lo aceptado y no confirmado se reprocesa desde el journal al iniciar la aplicación.
+@Slf4j
+@Service
+@ConditionalOnProperty(prefix = "tenpo.write-behind", name = "enabled", havingValue = "true")
+public class WriteBehindTransactionService {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO transactions (id, customer, amount, merchant, date) VALUES (?, ?, ?, ?, ?)";
+    private static final String EXISTING_IDS_SQL = "SELECT id FROM transactions WHERE id = ANY (?)";
+
+    private final TransactionService transactionService;
+    private final CustomerTransactionCounter customerTransactionCounter;
+    private final TransactionChangeLog transactionChangeLog;
+    private final CustomerLedger customerLedger;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final SessionFactoryImplementor sessionFactory;
+    private final IdentifierGenerator idGenerator;
+    private final WriteBehindProperties properties;
+    private final TransactionJournal journal;
+
+    // Cola circular acotada; el semáforo reserva el lugar antes de escribir en el journal
+    private final ArrayBlockingQueue<Journaled> queue;
+    private final Semaphore capacity;
+    private final Thread writer;
+    private volatile boolean accepting;
+    private volatile boolean running = true;
+
+    public WriteBehindTransactionService(TransactionService transactionService,
+            CustomerTransactionCounter customerTransactionCounter,
+            TransactionChangeLog transactionChangeLog,
+            CustomerLedger customerLedger,
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            EntityManagerFactory entityManagerFactory,
+            WriteBehindProperties properties,
+            MeterRegistry meterRegistry) throws IOException {
+        this.transactionService = transactionService;
+        this.customerTransactionCounter = customerTransactionCounter;
+        this.transactionChangeLog = transactionChangeLog;
+        this.customerLedger = customerLedger;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class).unwrap(SessionFactoryImplementor.class);
+        // Mismo generador (secuencia con asignación por bloques) que usan los inserts de JPA
+        this.idGenerator = (IdentifierGenerator) sessionFactory.getMappingMetamodel()
+                .getEntityDescriptor(Transaction.class)
+                .getGenerator();
+        this.properties = properties;
+        this.journal = new TransactionJournal(properties.getJournalPath(), properties.getJournalSegmentSize().toBytes());
+        this.queue = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+        this.capacity = new Semaphore(properties.getQueueCapacity());
+        this.writer = new Thread(this::drain, "transaction-writer");
+        this.writer.setDaemon(true);
+
+        Gauge.builder("tenpo.write-behind.queue.size", queue, ArrayBlockingQueue::size)
+                .description("Accepted transactions waiting to be written to the database")
+                .register(meterRegistry);
+    }
+
+    // Reprocesa el journal de una ejecución anterior y comienza a aceptar solicitudes
+    @PostConstruct
+    void start() throws IOException {
+        journal.replay(properties.getMaxBatchSize(), this::replay);
+        accepting = true;
+        writer.start();
+    }
+
+    // Valida la transacción, la registra en el journal y la encola; devuelve el ID asignado
+    public TransactionResponseDTO submit(TransactionRequestDTO request) {
+        transactionService.validateTransaction(request);
+        if (!accepting || !capacity.tryAcquire()) {
+            throw new ServiceUnavailableException("The ingestion queue is full. Try again later.");
+        }
+        boolean enqueued = false;
+        try {
+            transactionService.reserveCustomerSlot(request.getCustomer());
+            try {
+                var transaction = transactionService.toTransaction(request);
+                transaction.setId(nextId());
+                long position = journal.append(transaction);
+                journal.sync(position);
+                queue.add(new Journaled(transaction, position));
+                enqueued = true;
+                return transactionService.getTransactionResponseDTO(transaction);
+            } catch (IOException e) {
+                // Sin journal no se puede garantizar durabilidad: se deja de aceptar solicitudes
+                log.error("Error al escribir en el journal; se deshabilita la ingesta asíncrona: {}", e.getMessage());
+                accepting = false;
+                throw new InternalErrorException("An error occurred while saving the transaction");
+            } finally {
+                if (!enqueued) {
+                    customerTransactionCounter.release(request.getCustomer());
+                }
+            }
+        } finally {
+            if (!enqueued) {
+                capacity.release();
+            }
+        }
+    }
+
+    // Espera a que se guarde lo encolado y cierra el journal
+    @PreDestroy
+    void stop() throws IOException, InterruptedException {
+        accepting = false;
+        running = false;
+        writer.join(TimeUnit.SECONDS.toMillis(30));
+        journal.close();
+    }
+
+    private int nextId() {
+        try (var session = sessionFactory.openStatelessSession()) {
+            return ((Number) idGenerator.generate((SharedSessionContractImplementor) session, null)).intValue();
+        }
+    }
+
+    // Bucle del hilo escritor: toma todo lo disponible (hasta maxBatchSize) y lo confirma junto
+    private void drain() {
+        var batch = new ArrayList<Journaled>(properties.getMaxBatchSize());
+        try {
+            while (running || !queue.isEmpty()) {
+                var first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, properties.getMaxBatchSize() - 1);
+                if (!write(batch)) {
+                    // Detenido sin poder guardar: las transacciones quedan en el journal para el próximo inicio
+                    log.warn("{} transacciones quedan pendientes en el journal", batch.size() + queue.size());
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Guarda el lote reintentando ante cualquier error que no sea de integridad; false si se detuvo antes.
+    // Las transacciones salen del lote a medida que se confirman, así un reintento no repite las ya guardadas.
+    private boolean write(List<Journaled> batch) throws InterruptedException {
+        boolean oneByOne = false;
+        while (!batch.isEmpty()) {
+            try {
+                if (!oneByOne) {
+                    try {
+                        insert(batch.stream().map(Journaled::transaction).toList());
+                        log.debug("Lote de {} transacciones guardado", batch.size());
+                        flushed(batch);
+                        batch.clear();
+                    } catch (DataIntegrityViolationException e) {
+                        // Una fila inválida no debe bloquear al resto del lote
+                        oneByOne = true;
+                    }
+                } else {
+                    insertOne(batch.get(0).transaction());
+                    flushed(batch.subList(0, 1));
+                    batch.remove(0);
+                }
+            } catch (RuntimeException e) {
+                // Base de datos no disponible u otro error inesperado: el hilo escritor no debe terminar
+                log.error("Error al guardar el lote de {} transacciones: {}", batch.size(), e.getMessage(), e);
+                if (!running) {
+                    return false;
+                }
+                Thread.sleep(properties.getRetryDelay().toMillis());
+            }
+        }
+        return true;
+    }
+
+    private void insertOne(Transaction transaction) {
+        try {
+            insert(List.of(transaction));
+        } catch (DataIntegrityViolationException e) {
+            log.error("Se descarta la transacción con ID {}: {}", transaction.getId(), e.getMessage());
+            customerTransactionCounter.release(transaction.getCustomer());
+        }
+    }
+
+    // Libera el lugar en la cola de las transacciones confirmadas y las marca en el journal.
+    // Si el journal falla, las filas siguen en él y al próximo inicio se omiten porque ya existen en la tabla.
+    private void flushed(List<Journaled> saved) {
+        try {
+            journal.markFlushed(saved.stream().map(Journaled::position).toList());
+        } catch (IOException | RuntimeException e) {
+            log.error("Error al actualizar el journal tras guardar {} transacciones: {}", saved.size(), e.getMessage());
+        } finally {
+            capacity.release(saved.size());
+        }
+    }
+
+    // Reprocesa un bloque del journal de una ejecución anterior. Las transacciones que alcanzaron a confirmarse
+    // antes de la caída ya existen en la tabla; se consultan solo los IDs del bloque.
+    private void replay(List<Transaction> journaled) {
+        log.info("Reprocesando {} transacciones del journal", journaled.size());
+        Integer[] ids = journaled.stream().map(Transaction::getId).toArray(Integer[]::new);
+        var existing = new HashSet<Integer>(jdbcTemplate.query(connection -> {
+            var statement = connection.prepareStatement(EXISTING_IDS_SQL);
+            statement.setArray(1, connection.createArrayOf("integer", ids));
+            return statement;
+        }, (row, rowNum) -> row.getInt(1)));
+        var missing = journaled.stream().filter(transaction -> !existing.contains(transaction.getId())).toList();
+        if (!missing.isEmpty()) {
+            insert(missing);
+        }
+    }
+
+    // Inserta el lote y registra los cambios en la misma transacción
+    private void insert(List<Transaction> transactions) {
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.batchUpdate(INSERT_SQL, transactions, transactions.size(), (statement, transaction) -> {
+                statement.setInt(1, transaction.getId());
+                statement.setString(2, transaction.getCustomer());
+                statement.setLong(3, transaction.getAmount());
+                statement.setString(4, transaction.getMerchant());
+                statement.setObject(5, transaction.getDate());
+            });
+            transactionChangeLog.recordAll(TransactionChange.Operation.CREATED, transactions);
+            customerLedger.createdAll(transactions);
+        });
+    }
+
+    // Transacción aceptada y su posición en el journal, para marcarla al confirmarse
+    private record Journaled(Transaction transaction, long position) {
+    }
+}
@@ -0,0 +1,12 @@
+-- Esquema inicial, equivalente al que generaba Hibernate con ddl-auto=update.
+-- En bases existentes no se ejecuta: Flyway registra la línea base (baseline-on-migrate) en la versión 1.
+CREATE SEQUENCE IF NOT EXISTS transactions_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS transactions (
+    id       integer                     NOT NULL,
+    customer varchar(255),
+    amount   integer                     NOT NULL,
+    merchant varchar(255),
+    date     timestamp(6) with time zone,
+    CONSTRAINT transactions_pkey PRIMARY KEY (id)
+);
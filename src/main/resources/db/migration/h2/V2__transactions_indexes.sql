@@ -0,0 +1,12 @@
+-- Índices compuestos que terminan en date: sirven a las consultas por cliente o comercio ordenadas por fecha
+-- y siguen siendo válidos como índices locales si la tabla se particiona por rango de date.
+-- La fecha es la futura clave de partición, por lo que no admite nulos.
+ALTER TABLE transactions ALTER COLUMN date SET NOT NULL;
+
+CREATE INDEX IF NOT EXISTS idx_transactions_customer_date ON transactions (customer, date);
+CREATE INDEX IF NOT EXISTS idx_transactions_merchant_date ON transactions (merchant, date);
+-- Recorridos por (date, id): paginación por cursor, streaming y totales diarios
+CREATE INDEX IF NOT EXISTS idx_transactions_date ON transactions (date, id);
+
+-- Reemplazado por idx_transactions_customer_date
+DROP INDEX IF EXISTS idx_transactions_customer;
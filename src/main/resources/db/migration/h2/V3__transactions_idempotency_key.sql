@@ -0,0 +1,5 @@
+-- Clave de idempotencia enviada por el cliente (Idempotency-Key); en los lotes se guarda como <clave>:<índice>.
+-- El índice único rechaza duplicados aunque la solicitud repetida llegue a otro nodo.
+ALTER TABLE transactions ADD COLUMN IF NOT EXISTS idempotency_key varchar(80);
+
+CREATE UNIQUE INDEX IF NOT EXISTS uq_transactions_idempotency_key ON transactions (idempotency_key);
@@ -0,0 +1,11 @@
+-- Contadores de rate limiting compartidos entre réplicas (en PostgreSQL la tabla es UNLOGGED)
+CREATE TABLE IF NOT EXISTS rate_limit_counters (
+    route        varchar(255) NOT NULL,
+    client_key   varchar(255) NOT NULL,
+    window_start bigint       NOT NULL,
+    hits         bigint       NOT NULL,
+    expires_at   bigint       NOT NULL,
+    CONSTRAINT rate_limit_counters_pkey PRIMARY KEY (route, client_key, window_start)
+);
+
+CREATE INDEX IF NOT EXISTS idx_rate_limit_counters_expires_at ON rate_limit_counters (expires_at);
@@ -0,0 +1,3 @@
+-- Montos en la unidad mínima de la moneda como enteros de 64 bits: con integer el máximo era 2.147.483.647.
+ALTER TABLE transactions ALTER COLUMN amount SET DATA TYPE bigint;
+ALTER TABLE transaction_changes ALTER COLUMN amount SET DATA TYPE bigint;
@@ -0,0 +1,14 @@
+-- Secuencia del registro de cambios sin bloqueo. Con la fila única de transaction_change_sequence cada
+-- escritura esperaba, hasta el commit, a la anterior que había tomado un número.
+-- Bloques de 50 como transactions_seq (optimizador pooled de Hibernate), a continuación del último asignado.
+CREATE SEQUENCE IF NOT EXISTS transaction_changes_seq START WITH 50 INCREMENT BY 50;
+ALTER SEQUENCE transaction_changes_seq RESTART WITH (SELECT last_seq + 50 FROM transaction_change_sequence WHERE id = 1);
+DROP TABLE transaction_change_sequence;
+
+-- H2 no expone ids de transacción: todos los cambios quedan con 0 y se leen en orden de seq
+ALTER TABLE transaction_changes ADD COLUMN changed_xid bigint DEFAULT 0 NOT NULL;
+
+CREATE INDEX IF NOT EXISTS idx_transaction_changes_xid_seq ON transaction_changes (changed_xid, seq);
+
+CREATE VIEW transaction_changes_visible AS
+SELECT * FROM transaction_changes;
@@ -0,0 +1,9 @@
+-- Señales compartidas entre réplicas para descartar caches en memoria: quien escribe por fuera de los
+-- servicios (como la importación masiva) incrementa la generación y cada réplica la consulta periódicamente.
+CREATE TABLE IF NOT EXISTS cache_invalidations (
+    name       varchar(64) NOT NULL,
+    generation bigint      NOT NULL,
+    CONSTRAINT cache_invalidations_pkey PRIMARY KEY (name)
+);
+
+INSERT INTO cache_invalidations (name, generation) VALUES ('customers', 0);
@@ -0,0 +1,25 @@
+-- Registro de cambios (outbox) de la tabla transactions para consumidores incrementales.
+-- Cada fila guarda el estado de la transacción después del cambio (o el último estado si se eliminó).
+CREATE TABLE IF NOT EXISTS transaction_changes (
+    seq            bigint                      NOT NULL,
+    transaction_id integer                     NOT NULL,
+    operation      varchar(10)                 NOT NULL,
+    customer       varchar(255),
+    amount         integer                     NOT NULL,
+    merchant       varchar(255),
+    date           timestamp(6) with time zone,
+    changed_at     timestamp(6) with time zone NOT NULL,
+    CONSTRAINT transaction_changes_pkey PRIMARY KEY (seq)
+);
+
+CREATE INDEX IF NOT EXISTS idx_transaction_changes_changed_at ON transaction_changes (changed_at);
+
+-- Último número de secuencia asignado. Se bloquea la fila hasta el commit para que los números se
+-- confirmen en orden: un consumidor que leyó hasta N nunca verá aparecer después un cambio menor que N.
+CREATE TABLE IF NOT EXISTS transaction_change_sequence (
+    id       integer NOT NULL,
+    last_seq bigint  NOT NULL,
+    CONSTRAINT transaction_change_sequence_pkey PRIMARY KEY (id)
+);
+
+INSERT INTO transaction_change_sequence (id, last_seq) VALUES (1, 0);
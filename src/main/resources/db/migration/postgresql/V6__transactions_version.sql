@@ -0,0 +1,3 @@
+-- Versión de cada transacción para el control de concurrencia optimista (@Version en la entidad).
+-- Las actualizaciones la incrementan; PUT /update/{id} con If-Match solo modifica la fila si coincide.
+ALTER TABLE transactions ADD COLUMN IF NOT EXISTS version bigint NOT NULL DEFAULT 0;
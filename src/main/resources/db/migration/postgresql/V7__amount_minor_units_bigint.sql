@@ -0,0 +1,5 @@
+-- Montos en la unidad mínima de la moneda como enteros de 64 bits: con integer el máximo era 2.147.483.647.
+-- El cambio de tipo reescribe las tablas bajo un bloqueo exclusivo; en tablas grandes conviene aplicarlo
+-- en una ventana de mantenimiento.
+ALTER TABLE transactions ALTER COLUMN amount TYPE bigint;
+ALTER TABLE transaction_changes ALTER COLUMN amount TYPE bigint;
@@ -0,0 +1,20 @@
+-- Secuencia del registro de cambios sin bloqueo. Con la fila única de transaction_change_sequence cada
+-- escritura esperaba, hasta el commit, a la anterior que había tomado un número.
+-- Bloques de 50 como transactions_seq (optimizador pooled de Hibernate), a continuación del último asignado.
+CREATE SEQUENCE IF NOT EXISTS transaction_changes_seq INCREMENT BY 50;
+SELECT setval('transaction_changes_seq', (SELECT last_seq + 50 FROM transaction_change_sequence WHERE id = 1), false);
+DROP TABLE transaction_change_sequence;
+
+-- Los números ya no se confirman en orden, así que cada cambio guarda el id de la transacción de base de
+-- datos que lo escribió. Los cambios existentes quedan con 0 (antes de todos los nuevos) sin reescribir la tabla.
+ALTER TABLE transaction_changes ADD COLUMN changed_xid bigint NOT NULL DEFAULT 0;
+ALTER TABLE transaction_changes ALTER COLUMN changed_xid SET DEFAULT pg_current_xact_id()::text::bigint;
+
+CREATE INDEX IF NOT EXISTS idx_transaction_changes_xid_seq ON transaction_changes (changed_xid, seq);
+
+-- Cambios que los consumidores pueden leer: los de transacciones anteriores a la más antigua todavía en curso.
+-- Cualquier cambio que se confirme después tendrá un changed_xid mayor, así que leer en orden
+-- (changed_xid, seq) nunca deja atrás un cambio que aparezca más tarde.
+CREATE VIEW transaction_changes_visible AS
+SELECT * FROM transaction_changes
+WHERE changed_xid < pg_snapshot_xmin(pg_current_snapshot())::text::bigint;
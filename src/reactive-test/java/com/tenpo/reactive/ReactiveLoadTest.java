@@ -0,0 +1,171 @@
+package com.tenpo.reactive;
+
+import com.tenpo.TenpoApplication;
+import com.tenpo.repository.TransactionRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Compara el modo servlet (Tomcat, hilos de plataforma) con el modo reactivo (Netty) usando la misma
+// cantidad de hilos de atención (uno por núcleo), el mismo heap y la misma latencia simulada de base de datos.
+// Ejecutar con: mvn -Preactive,load-test test
+class ReactiveLoadTest {
+
+    private static final int CLIENTS = 200;
+    private static final int REQUESTS_PER_CLIENT = 1;
+    private static final long DB_LATENCY_MILLIS = 200;
+    // Con pocos núcleos el modo servlet tarda CLIENTS * latencia / núcleos en atender la carga
+    private static final int CORES = Runtime.getRuntime().availableProcessors();
+
+    @Test
+    void reactiveServesMoreConcurrentRequestsWithSameCores() throws Exception {
+        // Debe fijarse antes de que Reactor Netty cree sus event loops
+        System.setProperty("reactor.netty.ioWorkerCount", Integer.toString(CORES));
+
+        double servlet = measureThroughput("servlet", new SpringApplicationBuilder(TenpoApplication.class)
+                .initializers(ctx -> ctx.getBeanFactory().addBeanPostProcessor(new BlockingDatabaseLatency())),
+                "--server.tomcat.threads.max=" + CORES,
+                "--spring.datasource.url=jdbc:h2:mem:load-servlet;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.database=H2",
+                "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                "--spring.jpa.show-sql=false",
+                "--logging.level.org.hibernate=WARN",
+                "--logging.level.org.springframework.jdbc.datasource=WARN");
+
+        double reactive = measureThroughput("reactivo", new SpringApplicationBuilder(ReactiveTenpoApplication.class)
+                .web(WebApplicationType.REACTIVE)
+                .profiles("reactive")
+                .initializers(ctx -> ctx.getBeanFactory().addBeanPostProcessor(new NonBlockingDatabaseLatency())),
+                "--spring.r2dbc.url=r2dbc:h2:mem:///load-reactive;DB_CLOSE_DELAY=-1",
+                "--spring.r2dbc.username=sa",
+                "--spring.r2dbc.password=",
+                "--spring.flyway.url=jdbc:h2:mem:load-reactive;DB_CLOSE_DELAY=-1",
+                "--spring.flyway.user=sa",
+                "--spring.flyway.password=");
+
+        System.out.printf("Throughput con %d núcleos, %d clientes y %d ms de latencia de BD: servlet=%.0f req/s, reactivo=%.0f req/s, heap máximo=%d MB%n",
+                CORES, CLIENTS, DB_LATENCY_MILLIS, servlet, reactive, Runtime.getRuntime().maxMemory() / (1024 * 1024));
+
+        // Con un hilo por núcleo, Tomcat queda limitado a CORES / latencia; el event loop no espera a la base de datos
+        assertTrue(reactive > servlet * 2, "The reactive mode should at least double the throughput");
+    }
+
+    private double measureThroughput(String mode, SpringApplicationBuilder builder, String... properties) throws Exception {
+        String[] args = new String[properties.length + 3];
+        args[0] = "--server.port=0";
+        args[1] = "--logging.level.com.tenpo=WARN";
+        args[2] = "--tenpo.changes.poll-interval=1h";
+        System.arraycopy(properties, 0, args, 3, properties.length);
+
+        try (ConfigurableApplicationContext context = builder.run(args)) {
+            int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+            var request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/transaction/page?size=10")).build();
+            var client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+            // Calentamiento para que la comparación no incluya la carga de clases
+            for (int i = 0; i < 50; i++) {
+                client.send(request, HttpResponse.BodyHandlers.discarding());
+            }
+
+            ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+            CountDownLatch start = new CountDownLatch(1);
+            AtomicInteger failures = new AtomicInteger();
+            ManagementFactory.getThreadMXBean().resetPeakThreadCount();
+            for (int c = 0; c < CLIENTS; c++) {
+                clients.execute(() -> {
+                    try {
+                        start.await();
+                        for (int i = 0; i < REQUESTS_PER_CLIENT; i++) {
+                            if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() != 200) {
+                                failures.incrementAndGet();
+                            }
+                        }
+                    } catch (Exception e) {
+                        failures.incrementAndGet();
+                    }
+                });
+            }
+
+            long begin = System.nanoTime();
+            start.countDown();
+            clients.shutdown();
+            assertTrue(clients.awaitTermination(5, TimeUnit.MINUTES));
+            double seconds = (System.nanoTime() - begin) / 1e9;
+
+            assertEquals(0, failures.get());
+            System.out.printf("%s: %.2f s, pico de hilos=%d%n",
+                    mode, seconds, ManagementFactory.getThreadMXBean().getPeakThreadCount());
+            return CLIENTS * REQUESTS_PER_CLIENT / seconds;
+        }
+    }
+
+    // Modo servlet: el hilo de Tomcat queda bloqueado mientras dura la consulta
+    private static class BlockingDatabaseLatency implements BeanPostProcessor {
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (!(bean instanceof TransactionRepository)) {
+                return bean;
+            }
+            return Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { TransactionRepository.class },
+                    (proxy, method, args) -> {
+                        Thread.sleep(DB_LATENCY_MILLIS);
+                        try {
+                            return method.invoke(bean, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        }
+                    });
+        }
+    }
+
+    // Modo reactivo: la misma espera, sin ocupar un hilo
+    private static class NonBlockingDatabaseLatency implements BeanPostProcessor {
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (!(bean instanceof ReactiveTransactionRepository)) {
+                return bean;
+            }
+            Duration latency = Duration.ofMillis(DB_LATENCY_MILLIS);
+            return Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { ReactiveTransactionRepository.class },
+                    (proxy, method, args) -> {
+                        Object result;
+                        try {
+                            result = method.invoke(bean, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        }
+                        if (result instanceof Mono<?> mono) {
+                            return mono.delaySubscription(latency);
+                        }
+                        if (result instanceof Flux<?> flux) {
+                            return flux.delaySubscription(latency);
+                        }
+                        return result;
+                    });
+        }
+    }
+}
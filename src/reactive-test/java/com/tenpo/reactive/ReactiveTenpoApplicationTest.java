@@ -0,0 +1,134 @@
+package com.tenpo.reactive;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import com.tenpo.dto.TransactionPageDTO;
+import com.tenpo.dto.TransactionRequestDTO;
+import com.tenpo.dto.TransactionResponseDTO;
+import com.tenpo.errors.ErrorResponse;
+
+// Modo reactivo contra H2 (R2DBC); el esquema lo crea Flyway con su propia conexión JDBC a la misma base en memoria
+@SpringBootTest(classes = ReactiveTenpoApplication.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.main.web-application-type=reactive",
+        "spring.r2dbc.url=r2dbc:h2:mem:///reactive;DB_CLOSE_DELAY=-1",
+        "spring.r2dbc.username=sa",
+        "spring.r2dbc.password=",
+        "spring.flyway.url=jdbc:h2:mem:reactive;DB_CLOSE_DELAY=-1",
+        "spring.flyway.user=sa",
+        "spring.flyway.password="
+})
+@ActiveProfiles("reactive")
+class ReactiveTenpoApplicationTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    @Test
+    void testCreateUpdateDeleteAndRecordChanges() {
+        var created = webTestClient.post().uri("/api/transaction/create")
+                .bodyValue(request("Pedro", 1000))
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(TransactionResponseDTO.class)
+                .returnResult().getResponseBody();
+        assertTrue(created.getId() > 0);
+
+        webTestClient.put().uri("/api/transaction/update/{id}", created.getId())
+                .bodyValue(request("Pedro", 1500))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.amount").isEqualTo(1500);
+
+        // Una actualización basada en una versión anterior se rechaza sin modificar la fila
+        webTestClient.put().uri("/api/transaction/update/{id}", created.getId())
+                .header(HttpHeaders.IF_MATCH, "\"" + created.getVersion() + "\"")
+                .bodyValue(request("Pedro", 2000))
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.CONFLICT);
+
+        webTestClient.get().uri("/api/transaction/allTransactions")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(TransactionResponseDTO.class)
+                .value(transactions -> assertTrue(transactions.stream().anyMatch(t -> t.getId() == created.getId())));
+
+        var page = webTestClient.get().uri("/api/transaction/page?size=1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(TransactionPageDTO.class)
+                .returnResult().getResponseBody();
+        assertEquals(1, page.getTransactions().size());
+
+        webTestClient.delete().uri("/api/transaction/delete/{id}", created.getId())
+                .exchange()
+                .expectStatus().isNoContent();
+
+        webTestClient.put().uri("/api/transaction/update/{id}", created.getId())
+                .bodyValue(request("Pedro", 10))
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody(ErrorResponse.class)
+                .value(error -> assertEquals("Transaction not found with ID: " + created.getId(), error.getMessage()));
+
+        // Las escrituras reactivas también quedan en el registro de cambios, en orden
+        var operations = databaseClient.sql("SELECT operation FROM transaction_changes WHERE transaction_id = :id ORDER BY seq")
+                .bind("id", created.getId())
+                .map(row -> row.get(0, String.class))
+                .all()
+                .collectList()
+                .block();
+        assertEquals(List.of("CREATED", "UPDATED", "DELETED"), operations);
+    }
+
+    @Test
+    void testValidationErrorsUseServletContract() {
+        webTestClient.post().uri("/api/transaction/create")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(request("Ana", -5))
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody(ErrorResponse.class)
+                .value(error -> {
+                    assertEquals(HttpStatus.BAD_REQUEST.value(), error.getStatusCode());
+                    assertEquals("The amount must be greater than zero", error.getMessage());
+                    assertEquals("uri=/api/transaction/create", error.getPath());
+                });
+    }
+
+    @Test
+    void testRateLimitWebFilterRejectsOverLimit() {
+        // Ruta sin regla propia: aplica la regla por defecto (3 por minuto)
+        for (int i = 0; i < 3; i++) {
+            webTestClient.get().uri("/api/transaction/unknown").exchange().expectStatus().isNotFound();
+        }
+        webTestClient.get().uri("/api/transaction/unknown")
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+    }
+
+    private static TransactionRequestDTO request(String customer, long amount) {
+        return TransactionRequestDTO.builder()
+                .customer(customer)
+                .amount(amount)
+                .merchant("StoreA")
+                .date(OffsetDateTime.now(ZoneOffset.UTC).minusMinutes(1))
+                .build();
+    }
+}
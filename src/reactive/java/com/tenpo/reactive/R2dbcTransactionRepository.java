@@ -0,0 +1,212 @@
+package com.tenpo.reactive;
+
+import java.time.OffsetDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.springframework.r2dbc.core.DatabaseClient;
+
+import com.tenpo.model.Transaction;
+import com.tenpo.model.TransactionChange;
+
+import io.r2dbc.spi.Readable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// Implementación con DatabaseClient. Los IDs se toman de transactions_seq, y las secuencias de cambios de
+// transaction_changes_seq, en bloques de 50 igual que el generador de Hibernate: cada valor V de la secuencia
+// reserva los números (V-49 .. V], así que ambos modos pueden escribir sobre la misma base sin colisiones.
+class R2dbcTransactionRepository implements ReactiveTransactionRepository {
+
+    private static final int ID_BLOCK_SIZE = 50;
+    private static final int FETCH_SIZE = 500;
+    private static final String COLUMNS = "id, customer, amount, merchant, date";
+    private static final String SELECT_COLUMNS = COLUMNS + ", version";
+
+    private final DatabaseClient databaseClient;
+    private final boolean postgres;
+    private final BlockSequence transactionIds;
+    private final BlockSequence changeSeqs;
+
+    R2dbcTransactionRepository(DatabaseClient databaseClient, String databaseName) {
+        this.databaseClient = databaseClient;
+        this.postgres = !databaseName.startsWith("H2");
+        this.transactionIds = new BlockSequence(nextValueSql(databaseName, "transactions_seq"));
+        this.changeSeqs = new BlockSequence(nextValueSql(databaseName, "transaction_changes_seq"));
+    }
+
+    @Override
+    public Flux<Transaction> findAll() {
+        return databaseClient.sql("SELECT " + SELECT_COLUMNS + " FROM transactions ORDER BY date, id")
+                .filter(statement -> statement.fetchSize(FETCH_SIZE))
+                .map(R2dbcTransactionRepository::toTransaction)
+                .all();
+    }
+
+    @Override
+    public Flux<Transaction> findFirstPage(int limit) {
+        return databaseClient.sql("SELECT " + SELECT_COLUMNS + " FROM transactions ORDER BY date, id LIMIT :limit")
+                .bind("limit", limit)
+                .map(R2dbcTransactionRepository::toTransaction)
+                .all();
+    }
+
+    @Override
+    public Flux<Transaction> findPageAfter(OffsetDateTime date, int id, int limit) {
+        return databaseClient.sql("SELECT " + SELECT_COLUMNS + " FROM transactions "
+                        + "WHERE date > :date OR (date = :date AND id > :id) ORDER BY date, id LIMIT :limit")
+                .bind("date", date)
+                .bind("id", id)
+                .bind("limit", limit)
+                .map(R2dbcTransactionRepository::toTransaction)
+                .all();
+    }
+
+    @Override
+    public Mono<Transaction> findById(int id) {
+        return databaseClient.sql("SELECT " + SELECT_COLUMNS + " FROM transactions WHERE id = :id")
+                .bind("id", id)
+                .map(R2dbcTransactionRepository::toTransaction)
+                .one();
+    }
+
+    @Override
+    public Mono<Long> countByCustomer(String customer) {
+        return databaseClient.sql("SELECT COUNT(*) FROM transactions WHERE customer = :customer")
+                .bind("customer", customer)
+                .map(row -> row.get(0, Long.class))
+                .one();
+    }
+
+    // Advisory lock de PostgreSQL por cliente, liberado al confirmar o revertir. H2 (solo pruebas) no lo tiene.
+    @Override
+    public Mono<Void> lockCustomer(String customer) {
+        if (!postgres) {
+            return Mono.empty();
+        }
+        return databaseClient.sql("SELECT pg_advisory_xact_lock(hashtext(:customer))")
+                .bind("customer", customer)
+                .then();
+    }
+
+    @Override
+    public Mono<Transaction> insert(Transaction transaction) {
+        return nextValue(transactionIds).map(Long::intValue).flatMap(id -> {
+            transaction.setId(id);
+            return databaseClient.sql("INSERT INTO transactions (" + COLUMNS + ") VALUES (:id, :customer, :amount, :merchant, :date)")
+                    .bind("id", id)
+                    .bind("customer", transaction.getCustomer())
+                    .bind("amount", transaction.getAmount())
+                    .bind("merchant", transaction.getMerchant())
+                    .bind("date", transaction.getDate())
+                    .then()
+                    .thenReturn(transaction);
+        });
+    }
+
+    @Override
+    public Mono<Boolean> update(Transaction transaction, long expectedVersion) {
+        return databaseClient.sql("UPDATE transactions SET customer = :customer, amount = :amount, merchant = :merchant, date = :date, "
+                        + "version = version + 1 WHERE id = :id AND version = :version")
+                .bind("id", transaction.getId())
+                .bind("version", expectedVersion)
+                .bind("customer", transaction.getCustomer())
+                .bind("amount", transaction.getAmount())
+                .bind("merchant", transaction.getMerchant())
+                .bind("date", transaction.getDate())
+                .fetch()
+                .rowsUpdated()
+                .map(rows -> rows == 1);
+    }
+
+    @Override
+    public Mono<Void> delete(int id) {
+        return databaseClient.sql("DELETE FROM transactions WHERE id = :id")
+                .bind("id", id)
+                .then();
+    }
+
+    @Override
+    public Mono<Void> recordChange(TransactionChange.Operation operation, Transaction transaction) {
+        // changed_xid lo asigna la base de datos, como en TransactionChangeLog
+        return nextValue(changeSeqs)
+                .flatMap(seq -> databaseClient.sql("INSERT INTO transaction_changes "
+                                + "(seq, transaction_id, operation, customer, amount, merchant, date, changed_at) "
+                                + "VALUES (:seq, :transactionId, :operation, :customer, :amount, :merchant, :date, :changedAt)")
+                        .bind("seq", seq)
+                        .bind("transactionId", transaction.getId())
+                        .bind("operation", operation.name())
+                        .bind("customer", transaction.getCustomer())
+                        .bind("amount", transaction.getAmount())
+                        .bind("merchant", transaction.getMerchant())
+                        .bind("date", transaction.getDate())
+                        .bind("changedAt", OffsetDateTime.now())
+                        .then());
+    }
+
+    private static String nextValueSql(String databaseName, String sequence) {
+        return databaseName.startsWith("H2")
+                ? "SELECT NEXT VALUE FOR " + sequence
+                : "SELECT nextval('" + sequence + "')";
+    }
+
+    // Toma el siguiente número del bloque actual; si se agotó, reserva otro bloque en la secuencia.
+    // Si dos suscriptores reservan a la vez, uno de los bloques se descarta: solo se pierden números.
+    private Mono<Long> nextValue(BlockSequence sequence) {
+        return Mono.defer(() -> {
+            long value = sequence.block.get().next();
+            if (value > 0) {
+                return Mono.just(value);
+            }
+            return databaseClient.sql(sequence.nextValueSql)
+                    .map(row -> row.get(0, Long.class))
+                    .one()
+                    .map(hi -> {
+                        var block = new IdBlock(Math.max(1, hi - ID_BLOCK_SIZE + 1), hi);
+                        long first = block.next();
+                        sequence.block.set(block);
+                        return first;
+                    });
+        });
+    }
+
+    private static Transaction toTransaction(Readable row) {
+        return Transaction.builder()
+                .id(row.get("id", Integer.class))
+                .customer(row.get("customer", String.class))
+                .amount(row.get("amount", Long.class))
+                .merchant(row.get("merchant", String.class))
+                .date(row.get("date", OffsetDateTime.class))
+                .version(row.get("version", Long.class))
+                .build();
+    }
+
+    // Secuencia de la base de datos con el bloque reservado actualmente
+    private static final class BlockSequence {
+
+        private final String nextValueSql;
+        private final AtomicReference<IdBlock> block = new AtomicReference<>(new IdBlock(1, 0));
+
+        private BlockSequence(String nextValueSql) {
+            this.nextValueSql = nextValueSql;
+        }
+    }
+
+    // Rango [next, hi] de números reservados
+    private static final class IdBlock {
+
+        private final AtomicLong next;
+        private final long hi;
+
+        private IdBlock(long first, long hi) {
+            this.next = new AtomicLong(first);
+            this.hi = hi;
+        }
+
+        // Siguiente número del bloque, o 0 si se agotó
+        long next() {
+            long value = next.getAndIncrement();
+            return value <= hi ? value : 0;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.tenpo.reactive;
+
+import java.net.InetSocketAddress;
+
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+
+import com.tenpo.errors.RateLimitException;
+import com.tenpo.ratelimit.RateLimitEngine;
+
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Mono;
+
+// Equivalente de RateLimitInterceptor para WebFlux. El motor decide con operaciones CAS en memoria,
+// por lo que se puede llamar desde el event loop sin bloquearlo.
+@RequiredArgsConstructor
+class RateLimitWebFilter implements WebFilter {
+
+    private static final String API_PATTERN = "/api/**";
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final RateLimitEngine rateLimitEngine;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        var request = exchange.getRequest();
+        String path = request.getPath().pathWithinApplication().value();
+        if (!pathMatcher.match(API_PATTERN, path)) {
+            return chain.filter(exchange);
+        }
+        InetSocketAddress remoteAddress = request.getRemoteAddress();
+        String clientKey = remoteAddress != null ? remoteAddress.getAddress().getHostAddress() : "unknown";
+        if (!rateLimitEngine.tryAcquire(request.getMethod().name(), path, clientKey)) {
+            return Mono.error(new RateLimitException("Rate limit exceeded. Try again later."));
+        }
+        return chain.filter(exchange);
+    }
+}
@@ -0,0 +1,66 @@
+package com.tenpo.reactive;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebExceptionHandler;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tenpo.errors.BadRequestException;
+import com.tenpo.errors.ConflictException;
+import com.tenpo.errors.ErrorResponse;
+import com.tenpo.errors.InternalErrorException;
+import com.tenpo.errors.RateLimitException;
+import com.tenpo.errors.ResourceNotFoundException;
+import com.tenpo.errors.ServiceUnavailableException;
+
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Mono;
+
+// Equivalente de GlobalExceptionHandler: mismos códigos de estado y mismo cuerpo ErrorResponse.
+// Las excepciones no reconocidas siguen al manejador por defecto de Spring Boot.
+@RequiredArgsConstructor
+class ReactiveErrorHandler implements WebExceptionHandler {
+
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public Mono<Void> handle(ServerWebExchange exchange, Throwable ex) {
+        HttpStatus bodyStatus;
+        HttpStatus responseStatus;
+        if (ex instanceof BadRequestException || ex instanceof IllegalArgumentException) {
+            bodyStatus = responseStatus = HttpStatus.BAD_REQUEST;
+        } else if (ex instanceof ResourceNotFoundException) {
+            bodyStatus = responseStatus = HttpStatus.NOT_FOUND;
+        } else if (ex instanceof ConflictException) {
+            bodyStatus = responseStatus = HttpStatus.CONFLICT;
+        } else if (ex instanceof RateLimitException) {
+            bodyStatus = responseStatus = HttpStatus.TOO_MANY_REQUESTS;
+        } else if (ex instanceof ServiceUnavailableException) {
+            bodyStatus = responseStatus = HttpStatus.SERVICE_UNAVAILABLE;
+        } else if (ex instanceof InternalErrorException) {
+            // Igual que en el modo servlet
+            bodyStatus = HttpStatus.INTERNAL_SERVER_ERROR;
+            responseStatus = HttpStatus.BAD_REQUEST;
+        } else {
+            return Mono.error(ex);
+        }
+
+        var response = exchange.getResponse();
+        if (response.isCommitted()) {
+            return Mono.error(ex);
+        }
+        var error = new ErrorResponse(bodyStatus.value(), bodyStatus.getReasonPhrase(), ex.getMessage(),
+                "uri=" + exchange.getRequest().getPath().value());
+        response.setStatusCode(responseStatus);
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        try {
+            DataBuffer buffer = response.bufferFactory().wrap(objectMapper.writeValueAsBytes(error));
+            return response.writeWith(Mono.just(buffer));
+        } catch (JsonProcessingException e) {
+            return Mono.error(e);
+        }
+    }
+}
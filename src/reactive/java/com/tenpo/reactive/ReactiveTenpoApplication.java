@@ -0,0 +1,33 @@
+package com.tenpo.reactive;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Import;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+import com.tenpo.ratelimit.LocalRateLimitStore;
+import com.tenpo.ratelimit.RateLimitEngine;
+import com.tenpo.ratelimit.RateLimitProperties;
+
+// Modo reactivo (perfil Maven reactive): el mismo contrato /api/transaction/** atendido por WebFlux y R2DBC.
+// Solo escanea com.tenpo.reactive y reutiliza los DTO, las excepciones y el motor de rate limiting.
+// La condición evita que la aplicación servlet, que escanea com.tenpo, registre esta configuración.
+// Sin DataSource JDBC: Flyway migra el esquema con su propia conexión (spring.flyway.url).
+@SpringBootApplication(exclude = DataSourceAutoConfiguration.class)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@EnableConfigurationProperties(RateLimitProperties.class)
+@Import({ RateLimitEngine.class, LocalRateLimitStore.class })
+@EnableScheduling
+public class ReactiveTenpoApplication {
+
+    public static void main(String[] args) {
+        new SpringApplicationBuilder(ReactiveTenpoApplication.class)
+                .web(WebApplicationType.REACTIVE)
+                .profiles("reactive")
+                .run(args);
+    }
+}
@@ -0,0 +1,38 @@
+package com.tenpo.reactive;
+
+import java.time.OffsetDateTime;
+
+import com.tenpo.model.Transaction;
+import com.tenpo.model.TransactionChange;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// Acceso no bloqueante a la tabla transactions; las escrituras deben ejecutarse dentro de una transacción R2DBC
+public interface ReactiveTransactionRepository {
+
+    // Todas las transacciones ordenadas por (fecha, id), leídas a medida que el suscriptor las pide
+    Flux<Transaction> findAll();
+
+    Flux<Transaction> findFirstPage(int limit);
+
+    Flux<Transaction> findPageAfter(OffsetDateTime date, int id, int limit);
+
+    Mono<Transaction> findById(int id);
+
+    Mono<Long> countByCustomer(String customer);
+
+    // Bloquea al cliente hasta el fin de la transacción, para que contar e insertar no se intercale con otra escritura
+    Mono<Void> lockCustomer(String customer);
+
+    // Inserta la transacción asignándole un ID de transactions_seq
+    Mono<Transaction> insert(Transaction transaction);
+
+    // Actualiza la fila solo si sigue en expectedVersion; false si no existe o cambió
+    Mono<Boolean> update(Transaction transaction, long expectedVersion);
+
+    Mono<Void> delete(int id);
+
+    // Registra el cambio en transaction_changes con la siguiente secuencia (ver TransactionChangeLog)
+    Mono<Void> recordChange(TransactionChange.Operation operation, Transaction transaction);
+}
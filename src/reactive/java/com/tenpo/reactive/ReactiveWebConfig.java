@@ -0,0 +1,58 @@
+package com.tenpo.reactive;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tenpo.ratelimit.RateLimitEngine;
+
+import io.r2dbc.spi.ConnectionFactory;
+
+// Rutas y componentes del modo reactivo. Las clases no son @Component para que el escaneo de la
+// aplicación servlet no las registre; solo esta configuración (condicionada a WebFlux) las crea.
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveWebConfig {
+
+    @Bean
+    ReactiveTransactionRepository reactiveTransactionRepository(DatabaseClient databaseClient, ConnectionFactory connectionFactory) {
+        return new R2dbcTransactionRepository(databaseClient, connectionFactory.getMetadata().getName());
+    }
+
+    @Bean
+    TransactionHandler transactionHandler(ReactiveTransactionRepository repository, TransactionalOperator transactionalOperator) {
+        return new TransactionHandler(repository, transactionalOperator);
+    }
+
+    @Bean
+    RouterFunction<ServerResponse> transactionRoutes(TransactionHandler handler) {
+        return RouterFunctions.route()
+                .path("/api/transaction", builder -> builder
+                        .GET("/allTransactions", handler::getAllTransactions)
+                        .GET("/page", handler::getTransactionsPage)
+                        .GET("/stream", handler::streamTransactions)
+                        .POST("/create", handler::createTransaction)
+                        .PUT("/update/{id}", handler::updateTransaction)
+                        .DELETE("/delete/{id}", handler::deleteTransaction))
+                .build();
+    }
+
+    @Bean
+    RateLimitWebFilter rateLimitWebFilter(RateLimitEngine rateLimitEngine) {
+        return new RateLimitWebFilter(rateLimitEngine);
+    }
+
+    // Antes del manejador de errores por defecto de Spring Boot (orden -1)
+    @Bean
+    @Order(-2)
+    ReactiveErrorHandler reactiveErrorHandler(ObjectMapper objectMapper) {
+        return new ReactiveErrorHandler(objectMapper);
+    }
+}
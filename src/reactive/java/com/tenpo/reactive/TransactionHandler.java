@@ -0,0 +1,198 @@
+package com.tenpo.reactive;
+
+import java.util.List;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+import com.tenpo.controller.TransactionController;
+import com.tenpo.dto.TransactionPageDTO;
+import com.tenpo.dto.TransactionRequestDTO;
+import com.tenpo.dto.TransactionResponseDTO;
+import com.tenpo.errors.BadRequestException;
+import com.tenpo.errors.ConflictException;
+import com.tenpo.errors.ResourceNotFoundException;
+import com.tenpo.model.Transaction;
+import com.tenpo.model.TransactionChange;
+import com.tenpo.service.CustomerTransactionCounter;
+import com.tenpo.service.TransactionCursor;
+import com.tenpo.service.TransactionService;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// Versión no bloqueante de TransactionController: mismas rutas, validaciones y mensajes de error
+@Slf4j
+@RequiredArgsConstructor
+class TransactionHandler {
+
+    private final ReactiveTransactionRepository repository;
+    private final TransactionalOperator transactionalOperator;
+
+    // Arreglo JSON escrito a medida que llegan las filas; la demanda del cliente regula la lectura
+    Mono<ServerResponse> getAllTransactions(ServerRequest request) {
+        log.info("Obteniendo todas las transacciones");
+        return ServerResponse.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(repository.findAll().map(TransactionHandler::toResponseDTO), TransactionResponseDTO.class);
+    }
+
+    Mono<ServerResponse> getTransactionsPage(ServerRequest request) {
+        int size = request.queryParam("size").map(Integer::parseInt).orElse(TransactionService.DEFAULT_PAGE_SIZE);
+        if (size < 1 || size > TransactionService.MAX_PAGE_SIZE) {
+            return Mono.error(new BadRequestException("The page size must be between 1 and " + TransactionService.MAX_PAGE_SIZE));
+        }
+        log.info("Obteniendo página de {} transacciones", size);
+
+        // Se pide un elemento extra para saber si existe una página siguiente
+        var cursor = request.queryParam("cursor").filter(token -> !token.isBlank());
+        Flux<Transaction> transactions = cursor.isEmpty()
+                ? repository.findFirstPage(size + 1)
+                : Mono.fromCallable(() -> TransactionCursor.decode(cursor.get()))
+                        .flatMapMany(position -> repository.findPageAfter(position.date(), position.id(), size + 1));
+
+        return transactions.collectList()
+                .map(rows -> toPageDTO(rows, size))
+                .flatMap(page -> ServerResponse.ok().contentType(MediaType.APPLICATION_JSON).bodyValue(page));
+    }
+
+    Mono<ServerResponse> streamTransactions(ServerRequest request) {
+        log.info("Transmitiendo todas las transacciones");
+        return ServerResponse.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(repository.findAll().map(TransactionHandler::toResponseDTO), TransactionResponseDTO.class);
+    }
+
+    Mono<ServerResponse> createTransaction(ServerRequest request) {
+        return requestBody(request)
+                .doOnNext(TransactionService::validate)
+                .flatMap(body -> {
+                    log.info("Creando una nueva transacción para el cliente {}", body.getCustomer());
+                    return checkCustomerLimit(body.getCustomer())
+                            .then(repository.insert(toTransaction(body)))
+                            .flatMap(transaction -> repository.recordChange(TransactionChange.Operation.CREATED, transaction)
+                                    .thenReturn(transaction))
+                            .as(transactionalOperator::transactional);
+                })
+                .flatMap(transaction -> ServerResponse.status(HttpStatus.CREATED)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .bodyValue(toResponseDTO(transaction)));
+    }
+
+    // Actualiza solo si la fila sigue en la versión leída (o en la de If-Match): 409 si otra escritura la cambió
+    Mono<ServerResponse> updateTransaction(ServerRequest request) {
+        int id = pathId(request);
+        var ifMatch = request.headers().firstHeader(HttpHeaders.IF_MATCH);
+        Long expectedVersion = ifMatch == null ? null : TransactionController.parseVersion(ifMatch);
+        log.info("Actualizando transacción con ID {}", id);
+        return requestBody(request)
+                .flatMap(body -> findExisting(id)
+                        .flatMap(existing -> {
+                            TransactionService.validate(body);
+                            long version = expectedVersion != null ? expectedVersion : existing.getVersion();
+                            // El máximo por cliente solo se verifica si la transacción cambia de cliente
+                            Mono<Void> limit = existing.getCustomer().equals(body.getCustomer())
+                                    ? Mono.empty()
+                                    : checkCustomerLimit(body.getCustomer());
+                            var updated = toTransaction(body);
+                            updated.setId(id);
+                            updated.setVersion(version + 1);
+                            return limit.then(repository.update(updated, version))
+                                    .flatMap(applied -> applied
+                                            ? repository.recordChange(TransactionChange.Operation.UPDATED, updated)
+                                            : notUpdated(id, version))
+                                    .thenReturn(updated);
+                        })
+                        .as(transactionalOperator::transactional))
+                .flatMap(transaction -> ServerResponse.ok()
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .bodyValue(toResponseDTO(transaction)));
+    }
+
+    Mono<ServerResponse> deleteTransaction(ServerRequest request) {
+        int id = pathId(request);
+        log.info("Eliminando transacción con ID {}", id);
+        return findExisting(id)
+                .flatMap(transaction -> repository.delete(id)
+                        .then(repository.recordChange(TransactionChange.Operation.DELETED, transaction)))
+                .as(transactionalOperator::transactional)
+                .then(ServerResponse.noContent().build());
+    }
+
+    private static Mono<TransactionRequestDTO> requestBody(ServerRequest request) {
+        return request.bodyToMono(TransactionRequestDTO.class)
+                .switchIfEmpty(Mono.error(() -> new BadRequestException("The request body is required")));
+    }
+
+    private Mono<Transaction> findExisting(int id) {
+        return repository.findById(id)
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("Transaction not found with ID: " + id)));
+    }
+
+    // La fila no estaba en la versión esperada: 404 si ya no existe, 409 si otra escritura la cambió
+    private Mono<Void> notUpdated(int id, long version) {
+        return repository.findById(id)
+                .flatMap(current -> Mono.<Void>error(new ConflictException(
+                        "Transaction " + id + " was modified concurrently; expected version " + version)))
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("Transaction not found with ID: " + id)));
+    }
+
+    // Sin el contador en memoria del modo servlet: una consulta de conteo no bloqueante por escritura.
+    // El bloqueo por cliente dura hasta el fin de la transacción, así dos escrituras concurrentes del mismo
+    // cliente no pueden contar a la vez la misma última posición libre.
+    private Mono<Void> checkCustomerLimit(String customer) {
+        return repository.lockCustomer(customer)
+                .then(repository.countByCustomer(customer))
+                .filter(count -> count >= CustomerTransactionCounter.MAX_TRANSACTIONS_PER_CUSTOMER)
+                .flatMap(count -> Mono.error(new BadRequestException("No more than "
+                        + CustomerTransactionCounter.MAX_TRANSACTIONS_PER_CUSTOMER + " transactions can be recorded")));
+    }
+
+    private static int pathId(ServerRequest request) {
+        try {
+            return Integer.parseInt(request.pathVariable("id"));
+        } catch (NumberFormatException e) {
+            throw new BadRequestException("Invalid transaction ID");
+        }
+    }
+
+    private static TransactionPageDTO toPageDTO(List<Transaction> transactions, int size) {
+        boolean hasNext = transactions.size() > size;
+        var page = hasNext ? transactions.subList(0, size) : transactions;
+        String nextCursor = null;
+        if (hasNext) {
+            var last = page.get(page.size() - 1);
+            nextCursor = new TransactionCursor(last.getDate(), last.getId()).encode();
+        }
+        return TransactionPageDTO.builder()
+                .transactions(page.stream().map(TransactionHandler::toResponseDTO).toList())
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    private static Transaction toTransaction(TransactionRequestDTO request) {
+        return Transaction.builder()
+                .customer(request.getCustomer())
+                .amount(request.getAmount())
+                .merchant(request.getMerchant())
+                .date(request.getDate())
+                .build();
+    }
+
+    private static TransactionResponseDTO toResponseDTO(Transaction transaction) {
+        return TransactionResponseDTO.builder()
+                .id(transaction.getId())
+                .customer(transaction.getCustomer())
+                .amount(transaction.getAmount())
+                .merchant(transaction.getMerchant())
+                .date(transaction.getDate())
+                .version(transaction.getVersion())
+                .build();
+    }
+}
@@ -0,0 +1,49 @@
+package com.tenpo.config;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.tenpo.dto.TransactionResponseDTO;
+
+class BinaryFormatConfigTest {
+
+    private final BinaryFormatConfig config = new BinaryFormatConfig();
+
+    @Test
+    void testCborRoundTripWithEpochMicros() throws Exception {
+        var mapper = config.cborHttpMessageConverter(Jackson2ObjectMapperBuilder.json()).getObjectMapper();
+        var transaction = TransactionResponseDTO.builder()
+                .id(7)
+                .customer("Pedro")
+                .amount(1000)
+                .merchant("StoreA")
+                .date(OffsetDateTime.of(2025, 1, 1, 10, 0, 0, 123_456_000, ZoneOffset.ofHours(-3)))
+                .build();
+
+        byte[] cbor = mapper.writeValueAsBytes(transaction);
+        var read = mapper.readValue(cbor, TransactionResponseDTO.class);
+
+        // La fecha viaja como entero (microsegundos desde epoch) y se lee en UTC
+        assertTrue(mapper.readTree(cbor).get("date").isIntegralNumber());
+        assertEquals(transaction.getDate().toInstant(), read.getDate().toInstant());
+        assertEquals(ZoneOffset.UTC, read.getDate().getOffset());
+        assertTrue(cbor.length < Jackson2ObjectMapperBuilder.json().build().writeValueAsBytes(transaction).length);
+    }
+
+    @Test
+    void testIsoStringsAreStillAccepted() throws Exception {
+        var mapper = BinaryFormatConfig.binaryMapper(Jackson2ObjectMapperBuilder.json().factory(new CBORFactory()));
+        var json = Jackson2ObjectMapperBuilder.json().build();
+        var node = json.createObjectNode().put("date", "2025-01-01T10:00:00Z").put("amount", 10);
+
+        var read = mapper.readValue(mapper.writeValueAsBytes(node), TransactionResponseDTO.class);
+
+        assertEquals(OffsetDateTime.of(2025, 1, 1, 10, 0, 0, 0, ZoneOffset.UTC), read.getDate());
+    }
+}
@@ -0,0 +1,43 @@
+package com.tenpo.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// El contexto se levanta con las migraciones de db/migration/h2 y la verificación de índices
+@DataJpaTest
+@Import(SchemaMigrationConfig.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SchemaMigrationConfigTest {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void testMigratedSchemaHasRequiredIndexes() {
+        assertDoesNotThrow(() -> SchemaMigrationConfig.verifyIndexes(dataSource));
+    }
+
+    @Test
+    void testMissingIndexFailsVerification() {
+        // Simula una diferencia con el esquema esperado eliminando un índice
+        jdbcTemplate.execute("DROP INDEX idx_transactions_merchant_date");
+        try {
+            var exception = assertThrows(IllegalStateException.class, () -> SchemaMigrationConfig.verifyIndexes(dataSource));
+            assertTrue(exception.getMessage().contains("idx_transactions_merchant_date"));
+        } finally {
+            jdbcTemplate.execute("CREATE INDEX idx_transactions_merchant_date ON transactions (merchant, date)");
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.tenpo.config;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+@ExtendWith(OutputCaptureExtension.class)
+class SlowQueryConfigTest {
+
+    @Test
+    void testOnlySlowStatementsAreLoggedWithParameters(CapturedOutput output) throws Exception {
+        try (var hikari = new HikariDataSource()) {
+            hikari.setJdbcUrl("jdbc:h2:mem:slow-query");
+            var jdbcTemplate = new JdbcTemplate(SlowQueryConfig.wrap(hikari, "test", Duration.ofMillis(150)));
+
+            jdbcTemplate.execute("CREATE ALIAS PAUSE FOR 'java.lang.Thread.sleep(long)'");
+            jdbcTemplate.queryForObject("SELECT ?", Integer.class, 7);
+            assertFalse(output.getOut().contains("Consulta lenta"));
+
+            jdbcTemplate.update("CALL PAUSE(?)", 200L);
+            assertTrue(output.getOut().contains("Consulta lenta"));
+            assertTrue(output.getOut().contains("CALL PAUSE(?)"));
+            assertTrue(output.getOut().contains("200"));
+        }
+    }
+
+    @Test
+    void testWrappedDataSourceStillExposesHikari() throws Exception {
+        try (var hikari = new HikariDataSource()) {
+            hikari.setJdbcUrl("jdbc:h2:mem:slow-query-unwrap");
+            var dataSource = SlowQueryConfig.wrap(hikari, "test", Duration.ofMillis(200));
+
+            // MetricsConfig y las métricas de HikariCP de Spring Boot obtienen el pool con unwrap
+            assertTrue(dataSource.isWrapperFor(HikariDataSource.class));
+            assertSame(hikari, dataSource.unwrap(HikariDataSource.class));
+        }
+    }
+}
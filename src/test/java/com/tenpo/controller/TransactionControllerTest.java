@@ -1,16 +1,37 @@
 package com.tenpo.controller;
 
+import com.tenpo.dto.CustomerSummaryDTO;
+import com.tenpo.dto.TransactionAggregateDTO;
+import com.tenpo.dto.TransactionBatchItemDTO;
+import com.tenpo.dto.TransactionBatchResponseDTO;
+import com.tenpo.dto.TransactionChangesDTO;
+import com.tenpo.dto.TransactionPageDTO;
 import com.tenpo.dto.TransactionRequestDTO;
 import com.tenpo.dto.TransactionResponseDTO;
+import com.tenpo.errors.BadRequestException;
+import com.tenpo.service.TransactionChangeFeed;
+import com.tenpo.service.TransactionExportFormat;
+import com.tenpo.service.TransactionExporter;
+import com.tenpo.service.TransactionImportResult;
+import com.tenpo.service.TransactionImporter;
+import com.tenpo.service.TransactionSearchCriteria;
 import com.tenpo.service.TransactionService;
+import com.tenpo.service.TransactionSort;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.time.LocalDate;
 import java.time.OffsetDateTime;
 import java.util.Collections;
 
@@ -23,7 +44,19 @@ class TransactionControllerTest {
     @Mock
     private TransactionService service;
 
+    // Mock del registro de cambios usado por los endpoints /changes
+    @Mock
+    private TransactionChangeFeed changeFeed;
+
     // Se declara la inyección del controlador con el mock del servicio
+    // Mock de la exportación usada por /export
+    @Mock
+    private TransactionExporter exporter;
+
+    // Mock de la importación usada por /import
+    @Mock
+    private TransactionImporter importer;
+
     @InjectMocks
     private TransactionController controller;
 
@@ -38,7 +71,7 @@ class TransactionControllerTest {
         // Inicializa el objeto DTO de solicitud (para crear una transacción)
         transactionRequest = TransactionRequestDTO.builder()
                 .customer("1")
-                .amount(1000)
+                .amount(1000L)
                 .merchant("StoreA")
                 .date(OffsetDateTime.now())
                 .build();
@@ -70,6 +103,121 @@ class TransactionControllerTest {
         verify(service, times(1)).getAllTransactions();
     }
 
+    // Test para verificar el comportamiento de obtener una página de transacciones
+    @Test
+    void getTransactionsPage() {
+        // Configura el mock para que el servicio devuelva una página con cursor siguiente
+        var page = TransactionPageDTO.builder()
+                .transactions(Collections.singletonList(transactionResponse))
+                .nextCursor("cursor")
+                .build();
+        when(service.getTransactionsPage(null, 1)).thenReturn(page);
+
+        // Llama al método del controlador para obtener la primera página
+        ResponseEntity<TransactionPageDTO> response = controller.getTransactionsPage(null, 1);
+
+        // Verifica que el código de estado sea OK (200) y que se retorne el cursor de la página siguiente
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(1, response.getBody().getTransactions().size());
+        assertEquals("cursor", response.getBody().getNextCursor());
+
+        // Verifica que el servicio haya sido llamado una vez
+        verify(service, times(1)).getTransactionsPage(null, 1);
+    }
+
+    // Test para verificar que la búsqueda arme los filtros y el orden a partir de los parámetros
+    @Test
+    void searchTransactions() {
+        var page = TransactionPageDTO.builder()
+                .transactions(Collections.singletonList(transactionResponse))
+                .build();
+        var criteria = new TransactionSearchCriteria("nacho", null, 100L, null, null, null);
+        when(service.searchTransactions(criteria, TransactionSort.AMOUNT_DESC, null, 10)).thenReturn(page);
+
+        ResponseEntity<TransactionPageDTO> response = controller.searchTransactions(
+                "nacho", null, 100L, null, null, null, "amount,desc", null, 10);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(page, response.getBody());
+        verify(service, times(1)).searchTransactions(criteria, TransactionSort.AMOUNT_DESC, null, 10);
+    }
+
+    // Test para verificar que el resumen del cliente se obtiene del servicio
+    @Test
+    void getCustomerSummary() {
+        var summary = CustomerSummaryDTO.builder()
+                .customer("1")
+                .count(1)
+                .total(1000)
+                .recent(Collections.singletonList(transactionResponse))
+                .build();
+        when(service.getCustomerSummary("1")).thenReturn(summary);
+
+        ResponseEntity<CustomerSummaryDTO> response = controller.getCustomerSummary("1");
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(summary, response.getBody());
+    }
+
+    // Test para verificar el comportamiento de obtener los totales diarios
+    @Test
+    void getDailyAggregates() {
+        // Configura el mock para que el servicio devuelva el total de un día
+        var from = LocalDate.of(2025, 1, 1);
+        var to = LocalDate.of(2025, 1, 31);
+        var aggregate = TransactionAggregateDTO.builder().key("2025-01-01").count(2).total(1000).average(500).build();
+        when(service.getDailyAggregates(from, to)).thenReturn(List.of(aggregate));
+
+        // Llama al método del controlador con el rango de fechas
+        ResponseEntity<List<TransactionAggregateDTO>> response = controller.getDailyAggregates(from, to);
+
+        // Verifica que el código de estado sea OK (200) y que se retornen los totales
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(aggregate, response.getBody().get(0));
+        verify(service, times(1)).getDailyAggregates(from, to);
+    }
+
+    // Test para verificar que la exportación comprimida se descarga como archivo .gz
+    @Test
+    void exportTransactionsGzip() throws IOException {
+        var from = OffsetDateTime.parse("2025-01-01T00:00:00Z");
+        var response = new MockHttpServletResponse();
+
+        controller.exportTransactions("NDJSON", from, null, true, response);
+
+        assertEquals("application/gzip", response.getContentType());
+        assertEquals("attachment; filename=\"transactions.ndjson.gz\"", response.getHeader(HttpHeaders.CONTENT_DISPOSITION));
+        verify(exporter, times(1)).export(TransactionExportFormat.NDJSON, from, null, true, response.getOutputStream());
+    }
+
+    // Test para verificar que un formato desconocido se rechaza antes de exportar
+    @Test
+    void exportTransactionsInvalidFormat() {
+        assertThrows(BadRequestException.class,
+                () -> controller.exportTransactions("xml", null, null, false, new MockHttpServletResponse()));
+        verifyNoInteractions(exporter);
+    }
+
+    // Test para verificar que la importación informa los totales en encabezados antes del archivo de rechazos
+    @Test
+    void importTransactions() throws IOException {
+        var request = new MockHttpServletRequest();
+        request.setContent("customer,amount,merchant,date\n".getBytes(StandardCharsets.UTF_8));
+        var response = new MockHttpServletResponse();
+        when(importer.importCsv(any(), any())).thenAnswer(invocation -> {
+            var result = new TransactionImportResult(3, 2, 1);
+            invocation.getArgument(1, TransactionImporter.RejectsTarget.class).open(result).write('x');
+            return result;
+        });
+
+        controller.importTransactions(null, request, response);
+
+        assertEquals("2", response.getHeader(TransactionController.IMPORTED_COUNT_HEADER));
+        assertEquals("1", response.getHeader(TransactionController.REJECTED_COUNT_HEADER));
+        assertEquals("text/csv;charset=UTF-8", response.getContentType());
+        assertEquals("x", response.getContentAsString());
+    }
+
     // Test para verificar el comportamiento de crear una transacción
     @Test
     void createTransaction() {
@@ -77,7 +225,7 @@ class TransactionControllerTest {
         when(service.createTransaction(any())).thenReturn(transactionResponse);
 
         // Llama al método del controlador para crear una transacción
-        ResponseEntity<TransactionResponseDTO> response = controller.createTransaction(transactionRequest);
+        ResponseEntity<TransactionResponseDTO> response = controller.createTransaction(null, transactionRequest);
 
         // Verifica que el código de estado sea CREATED (201) y que la respuesta sea la transacción creada
         assertEquals(HttpStatus.CREATED, response.getStatusCode());
@@ -87,6 +235,32 @@ class TransactionControllerTest {
         verify(service, times(1)).createTransaction(any());
     }
 
+    // Test para verificar el comportamiento de crear un lote de transacciones
+    @Test
+    void createTransactions() {
+        // Configura el mock para que el servicio reporte una transacción creada
+        var batch = TransactionBatchResponseDTO.builder()
+                .created(1)
+                .rejected(0)
+                .items(List.of(TransactionBatchItemDTO.builder()
+                        .index(0)
+                        .status(TransactionBatchItemDTO.Status.CREATED)
+                        .transaction(transactionResponse)
+                        .build()))
+                .build();
+        when(service.createTransactions(any())).thenReturn(batch);
+
+        // Llama al método del controlador para crear el lote
+        ResponseEntity<TransactionBatchResponseDTO> response = controller.createTransactions(null, List.of(transactionRequest));
+
+        // Verifica que el código de estado sea OK (200) y que se informe el resultado por transacción
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(1, response.getBody().getCreated());
+        assertEquals(transactionResponse, response.getBody().getItems().get(0).getTransaction());
+
+        verify(service, times(1)).createTransactions(any());
+    }
+
     // Test para verificar el comportamiento de actualizar una transacción
     @Test
     void updateTransaction() {
@@ -94,7 +268,7 @@ class TransactionControllerTest {
         when(service.updateTransaction(eq(1), any())).thenReturn(transactionResponse);
 
         // Llama al método del controlador para actualizar la transacción con id 1
-        ResponseEntity<TransactionResponseDTO> response = controller.updateTransaction(1, transactionRequest);
+        ResponseEntity<TransactionResponseDTO> response = controller.updateTransaction(1, null, transactionRequest);
 
         // Verifica que el código de estado sea OK (200) y que la respuesta sea la transacción actualizada
         assertEquals(HttpStatus.OK, response.getStatusCode());
@@ -104,6 +278,19 @@ class TransactionControllerTest {
         verify(service, times(1)).updateTransaction(eq(1), any());
     }
 
+    // Test para verificar que la versión del header If-Match llega al servicio
+    @Test
+    void updateTransactionWithIfMatch() {
+        when(service.updateTransaction(eq(1), any(), eq(3L))).thenReturn(transactionResponse);
+
+        ResponseEntity<TransactionResponseDTO> response = controller.updateTransaction(1, "W/\"3\"", transactionRequest);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        verify(service, times(1)).updateTransaction(eq(1), any(), eq(3L));
+        // Un If-Match que no es una versión es un error del cliente
+        assertThrows(BadRequestException.class, () -> controller.updateTransaction(1, "*", transactionRequest));
+    }
+
     // Test para verificar el comportamiento de eliminar una transacción
     @Test
     void deleteTransaction() {
@@ -119,4 +306,25 @@ class TransactionControllerTest {
         // Verifica que el servicio haya sido llamado una vez con el id 1
         verify(service, times(1)).deleteTransaction(1);
     }
+
+    // Test para verificar que los cambios se piden desde la secuencia recibida
+    @Test
+    void getChanges() {
+        var changes = TransactionChangesDTO.builder().changes(Collections.emptyList()).lastSeq(42).build();
+        when(changeFeed.getChanges(42, TransactionChangeFeed.DEFAULT_CHANGES)).thenReturn(changes);
+
+        ResponseEntity<TransactionChangesDTO> response = controller.getChanges(42, TransactionChangeFeed.DEFAULT_CHANGES);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(42, response.getBody().getLastSeq());
+        verify(changeFeed, times(1)).getChanges(42, TransactionChangeFeed.DEFAULT_CHANGES);
+    }
+
+    // Test para verificar que Last-Event-ID tiene prioridad sobre since al reanudar una suscripción
+    @Test
+    void streamChangesResumesFromLastEventId() {
+        controller.streamChanges(10L, 25L);
+
+        verify(changeFeed, times(1)).subscribe(25);
+    }
 }
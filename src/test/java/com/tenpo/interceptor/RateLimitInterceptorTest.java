@@ -0,0 +1,67 @@
+package com.tenpo.interceptor;
+
+import com.tenpo.errors.RateLimitException;
+import com.tenpo.ratelimit.LocalRateLimitStore;
+import com.tenpo.ratelimit.RateLimitEngine;
+import com.tenpo.ratelimit.RateLimitProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimitInterceptorTest {
+
+    private RateLimitInterceptor interceptor;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        // Se excluye el listado y se limita la creación a 2 solicitudes por minuto
+        var excluded = new RateLimitProperties.Route();
+        excluded.setMethod("GET");
+        excluded.setPattern("/api/transaction/allTransactions");
+        excluded.setEnabled(false);
+
+        var create = new RateLimitProperties.Route();
+        create.setMethod("POST");
+        create.setPattern("/api/transaction/create");
+        create.setLimit(2);
+
+        meterRegistry = new SimpleMeterRegistry();
+        var properties = new RateLimitProperties();
+        properties.setRoutes(List.of(excluded, create));
+        interceptor = new RateLimitInterceptor(new RateLimitEngine(properties, new LocalRateLimitStore(), meterRegistry));
+    }
+
+    @Test
+    void excludedRouteIsNeverLimited() throws Exception {
+        for (int i = 0; i < 10; i++) {
+            assertTrue(interceptor.preHandle(request("GET", "/api/transaction/allTransactions"), new MockHttpServletResponse(), null));
+        }
+    }
+
+    @Test
+    void limitedRouteThrowsWhenExceeded() throws Exception {
+        assertTrue(interceptor.preHandle(request("POST", "/api/transaction/create"), new MockHttpServletResponse(), null));
+        assertTrue(interceptor.preHandle(request("POST", "/api/transaction/create"), new MockHttpServletResponse(), null));
+
+        // La tercera solicitud del mismo cliente supera el límite de la ruta
+        assertThrows(RateLimitException.class,
+                () -> interceptor.preHandle(request("POST", "/api/transaction/create"), new MockHttpServletResponse(), null));
+
+        // El rechazo queda registrado en la métrica de la ruta
+        assertEquals(1.0, meterRegistry.get("tenpo.ratelimit.rejected").tag("route", "POST /api/transaction/create").counter().count());
+        assertEquals(1.0, meterRegistry.get("tenpo.ratelimit.keys").tag("route", "POST /api/transaction/create").gauge().value());
+    }
+
+    private MockHttpServletRequest request(String method, String uri) {
+        var request = new MockHttpServletRequest(method, uri);
+        request.setRemoteAddr("10.0.0.1");
+        return request;
+    }
+}
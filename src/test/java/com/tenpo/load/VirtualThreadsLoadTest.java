@@ -0,0 +1,127 @@
+package com.tenpo.load;
+
+import com.tenpo.TenpoApplication;
+import com.tenpo.repository.TransactionRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+// Compara el throughput del servidor con hilos de plataforma y con hilos virtuales usando
+// el mismo heap (-Xmx del perfil load-test) y la misma latencia simulada de base de datos.
+// Ejecutar con: mvn -Pjava21,load-test test (requiere un JDK 21)
+class VirtualThreadsLoadTest {
+
+    // La latencia alta hace que el límite sea la cantidad de hilos y no la CPU de la máquina de pruebas
+    private static final int CLIENTS = 200;
+    private static final int REQUESTS_PER_CLIENT = 3;
+    private static final long DB_LATENCY_MILLIS = 200;
+    private static final int TOMCAT_THREADS = 8;
+
+    @Test
+    void virtualThreadsServeMoreConcurrentRequests() throws Exception {
+        assumeTrue(Runtime.version().feature() >= 21, "Virtual threads require Java 21");
+
+        double platform = measureThroughput(false);
+        double virtual = measureThroughput(true);
+
+        System.out.printf("Throughput con %d clientes y %d ms de latencia de BD: plataforma=%.0f req/s, virtual=%.0f req/s, heap máximo=%d MB%n",
+                CLIENTS, DB_LATENCY_MILLIS, platform, virtual, Runtime.getRuntime().maxMemory() / (1024 * 1024));
+
+        // Con hilos de plataforma el techo es TOMCAT_THREADS / latencia; con hilos virtuales no
+        assertTrue(virtual > platform * 2, "Virtual threads should at least double the throughput");
+    }
+
+    private double measureThroughput(boolean virtualThreads) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(TenpoApplication.class)
+                .initializers(ctx -> ctx.getBeanFactory().addBeanPostProcessor(new SimulatedDatabaseLatency()))
+                .run("--server.port=0",
+                        "--spring.threads.virtual.enabled=" + virtualThreads,
+                        "--server.tomcat.threads.max=" + TOMCAT_THREADS,
+                        "--spring.datasource.url=jdbc:h2:mem:load-" + virtualThreads + ";DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.jpa.database=H2",
+                        "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                        "--spring.jpa.show-sql=false",
+                        "--logging.level.com.tenpo=WARN",
+                        "--logging.level.org.hibernate=WARN",
+                        "--logging.level.org.springframework.jdbc.datasource=WARN")) {
+
+            int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+            var request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/transaction/page?size=10")).build();
+            var client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+            // Calentamiento para que la comparación no incluya la carga de clases
+            for (int i = 0; i < 50; i++) {
+                client.send(request, HttpResponse.BodyHandlers.discarding());
+            }
+
+            ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+            CountDownLatch start = new CountDownLatch(1);
+            AtomicInteger failures = new AtomicInteger();
+            ManagementFactory.getThreadMXBean().resetPeakThreadCount();
+            for (int c = 0; c < CLIENTS; c++) {
+                clients.execute(() -> {
+                    try {
+                        start.await();
+                        for (int i = 0; i < REQUESTS_PER_CLIENT; i++) {
+                            if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() != 200) {
+                                failures.incrementAndGet();
+                            }
+                        }
+                    } catch (Exception e) {
+                        failures.incrementAndGet();
+                    }
+                });
+            }
+
+            long begin = System.nanoTime();
+            start.countDown();
+            clients.shutdown();
+            assertTrue(clients.awaitTermination(2, TimeUnit.MINUTES));
+            double seconds = (System.nanoTime() - begin) / 1e9;
+
+            assertEquals(0, failures.get());
+            System.out.printf("virtual=%s: %.2f s, pico de hilos de plataforma=%d%n",
+                    virtualThreads, seconds, ManagementFactory.getThreadMXBean().getPeakThreadCount());
+            return CLIENTS * REQUESTS_PER_CLIENT / seconds;
+        }
+    }
+
+    // Agrega una espera a cada llamada al repositorio para simular la latencia de PostgreSQL
+    private static class SimulatedDatabaseLatency implements BeanPostProcessor {
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (!(bean instanceof TransactionRepository)) {
+                return bean;
+            }
+            return Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { TransactionRepository.class },
+                    (proxy, method, args) -> {
+                        Thread.sleep(DB_LATENCY_MILLIS);
+                        try {
+                            return method.invoke(bean, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        }
+                    });
+        }
+    }
+}
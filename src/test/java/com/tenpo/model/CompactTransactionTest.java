@@ -0,0 +1,72 @@
+package com.tenpo.model;
+
+import org.junit.jupiter.api.Test;
+import org.openjdk.jol.info.GraphLayout;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+class CompactTransactionTest {
+
+    private static final int ROWS = 10_000;
+    private static final OffsetDateTime BASE = OffsetDateTime.of(2025, 1, 1, 10, 0, 0, 123_456_000, ZoneOffset.ofHours(-3));
+
+    @Test
+    void testRoundTripKeepsOffsetAndMicros() {
+        var transaction = transaction(7);
+        transaction.setVersion(2);
+
+        var compact = CompactTransaction.of(transaction);
+
+        assertEquals(transaction, compact.toTransaction());
+        assertEquals(ZoneOffset.ofHours(-3), compact.date().getOffset());
+        assertEquals(BASE.plusMinutes(7), compact.date());
+    }
+
+    @Test
+    void testCustomerAndMerchantAreShared() {
+        var first = CompactTransaction.of(transaction(1));
+        var second = CompactTransaction.of(transaction(101));
+
+        assertSame(first.customer(), second.customer());
+        assertSame(first.merchant(), second.merchant());
+    }
+
+    // Tamaño en heap por fila de la entidad (como la materializa JDBC: cadenas y fecha propias de cada fila)
+    // frente a la representación compacta
+    @Test
+    void testCompactRowUsesLessHeap() {
+        var transactions = new ArrayList<Transaction>(ROWS);
+        var compact = new ArrayList<CompactTransaction>(ROWS);
+        for (int id = 0; id < ROWS; id++) {
+            var transaction = transaction(id);
+            transactions.add(transaction);
+            compact.add(CompactTransaction.of(transaction));
+        }
+
+        long entityBytes = bytesPerRow(transactions);
+        long compactBytes = bytesPerRow(compact);
+
+        assertTrue(compactBytes * 3 < entityBytes,
+                "Compact row (" + compactBytes + " bytes) is not a third of the entity (" + entityBytes + " bytes)");
+    }
+
+    private static long bytesPerRow(List<?> rows) {
+        return GraphLayout.parseInstance(rows).totalSize() / rows.size();
+    }
+
+    // 100 clientes y 10 comercios, con cadenas nuevas en cada fila
+    private static Transaction transaction(int id) {
+        return Transaction.builder()
+                .id(id)
+                .customer(new String("Cliente " + id % 100))
+                .amount(1000L + id)
+                .merchant(new String("Comercio " + id % 10))
+                .date(BASE.plusMinutes(id))
+                .build();
+    }
+}
@@ -0,0 +1,97 @@
+package com.tenpo.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimiterTest {
+
+    private static final long NOW = 1_700_000_000_000L;
+    private static final Duration MINUTE = Duration.ofMinutes(1);
+
+    @Test
+    void slidingWindowRejectsAfterLimit() {
+        RateLimiter limiter = new SlidingWindowRateLimiter(3, MINUTE);
+        long start = NOW - NOW % MINUTE.toMillis();
+
+        // Las tres primeras solicitudes pasan y la cuarta se rechaza
+        assertTrue(limiter.tryAcquire("10.0.0.1", start));
+        assertTrue(limiter.tryAcquire("10.0.0.1", start + 1));
+        assertTrue(limiter.tryAcquire("10.0.0.1", start + 2));
+        assertFalse(limiter.tryAcquire("10.0.0.1", start + 3));
+        // Otro cliente tiene su propio contador
+        assertTrue(limiter.tryAcquire("10.0.0.2", start + 3));
+        // A mitad de la ventana siguiente aún pesa la mitad de la anterior (1.5 + 2 supera 3)
+        assertTrue(limiter.tryAcquire("10.0.0.1", start + MINUTE.toMillis() + 30_000));
+        assertTrue(limiter.tryAcquire("10.0.0.1", start + MINUTE.toMillis() + 30_001));
+        assertFalse(limiter.tryAcquire("10.0.0.1", start + MINUTE.toMillis() + 30_002));
+        // Dos ventanas después el contador está limpio
+        assertTrue(limiter.tryAcquire("10.0.0.1", start + 3 * MINUTE.toMillis()));
+    }
+
+    @Test
+    void tokenBucketRefillsOverTime() {
+        RateLimiter limiter = new TokenBucketRateLimiter(3, MINUTE);
+
+        // Permite una ráfaga del tamaño del límite
+        assertTrue(limiter.tryAcquire("10.0.0.1", NOW));
+        assertTrue(limiter.tryAcquire("10.0.0.1", NOW));
+        assertTrue(limiter.tryAcquire("10.0.0.1", NOW));
+        assertFalse(limiter.tryAcquire("10.0.0.1", NOW));
+        // Recarga un token cada 20 segundos
+        assertFalse(limiter.tryAcquire("10.0.0.1", NOW + 19_999));
+        assertTrue(limiter.tryAcquire("10.0.0.1", NOW + 20_000));
+        assertFalse(limiter.tryAcquire("10.0.0.1", NOW + 20_000));
+    }
+
+    @Test
+    void concurrentBurstNeverExceedsLimit() throws InterruptedException {
+        for (RateLimitAlgorithm algorithm : RateLimitAlgorithm.values()) {
+            RateLimiter limiter = algorithm.create(3, MINUTE);
+            int threads = 32;
+            ExecutorService executor = Executors.newFixedThreadPool(threads);
+            CountDownLatch start = new CountDownLatch(1);
+            AtomicInteger admitted = new AtomicInteger();
+
+            // Muchas solicitudes simultáneas del mismo cliente
+            for (int i = 0; i < threads * 10; i++) {
+                executor.execute(() -> {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    if (limiter.tryAcquire("10.0.0.1", NOW)) {
+                        admitted.incrementAndGet();
+                    }
+                });
+            }
+            start.countDown();
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+            // Exactamente el límite configurado, sin importar la contención
+            assertEquals(3, admitted.get(), algorithm.name());
+        }
+    }
+
+    @Test
+    void evictsIdleKeys() {
+        for (RateLimitAlgorithm algorithm : RateLimitAlgorithm.values()) {
+            RateLimiter limiter = algorithm.create(3, MINUTE);
+            limiter.tryAcquire("10.0.0.1", NOW);
+            limiter.tryAcquire("10.0.0.2", NOW + MINUTE.toMillis() * 2);
+
+            // Solo se desaloja la clave cuyo estado ya expiró
+            assertEquals(1, limiter.evictIdle(NOW + MINUTE.toMillis() * 2), algorithm.name());
+            assertEquals(1, limiter.size(), algorithm.name());
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.tenpo.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+class SharedRateLimitStoreTest {
+
+    private static final Duration WINDOW = Duration.ofMinutes(1);
+    private static final long NOW = 1_000 * WINDOW.toMillis();
+
+    // Almacén compartido en memoria que reemplaza a PostgreSQL en las pruebas
+    static class InMemoryRateLimitStore extends SharedRateLimitStore {
+        private final Map<WindowCounter, Long> counters;
+        boolean unavailable;
+        int calls;
+
+        InMemoryRateLimitStore(Map<WindowCounter, Long> counters) {
+            this.counters = counters;
+        }
+
+        @Override
+        protected Map<WindowCounter, Long> addAndGet(Map<WindowCounter, Long> increments) {
+            calls++;
+            if (unavailable) {
+                throw new IllegalStateException("store unavailable");
+            }
+            var totals = new HashMap<WindowCounter, Long>();
+            increments.forEach((counter, hits) -> totals.put(counter, counters.merge(counter, hits, Long::sum)));
+            return totals;
+        }
+
+        @Override
+        protected int deleteExpired(long nowMillis) {
+            int before = counters.size();
+            counters.keySet().removeIf(counter -> counter.expiresAt() < nowMillis);
+            return before - counters.size();
+        }
+    }
+
+    @Test
+    void testLimitIsSharedBetweenReplicas() {
+        var shared = new ConcurrentHashMap<WindowCounter, Long>();
+        var replicaA = new InMemoryRateLimitStore(shared);
+        var replicaB = new InMemoryRateLimitStore(shared);
+        var limiterA = replicaA.create("POST /create", RateLimitAlgorithm.SLIDING_WINDOW, 3, WINDOW);
+        var limiterB = replicaB.create("POST /create", RateLimitAlgorithm.SLIDING_WINDOW, 3, WINDOW);
+
+        // El cliente consume su límite completo en la réplica A
+        for (int i = 0; i < 3; i++) {
+            assertTrue(limiterA.tryAcquire("10.0.0.1", NOW));
+        }
+        assertFalse(limiterA.tryAcquire("10.0.0.1", NOW));
+
+        // Sin sincronizar, la réplica B solo conoce lo propio
+        assertTrue(limiterB.tryAcquire("10.0.0.1", NOW));
+
+        // Tras sincronizar ambas réplicas, B conoce el total global y rechaza
+        replicaA.sync(NOW);
+        replicaB.sync(NOW);
+        assertFalse(limiterB.tryAcquire("10.0.0.1", NOW + 1));
+        assertEquals(4, shared.values().stream().mapToLong(Long::longValue).sum());
+    }
+
+    @Test
+    void testPendingCountersSurviveStoreFailure() {
+        var shared = new ConcurrentHashMap<WindowCounter, Long>();
+        var replica = new InMemoryRateLimitStore(shared);
+        var limiter = replica.create("POST /create", RateLimitAlgorithm.SLIDING_WINDOW, 3, WINDOW);
+        assertTrue(limiter.tryAcquire("10.0.0.1", NOW));
+
+        // Si el almacén falla, lo admitido se conserva y se envía en la siguiente sincronización
+        replica.unavailable = true;
+        replica.sync(NOW);
+        assertTrue(shared.isEmpty());
+
+        replica.unavailable = false;
+        replica.sync(NOW);
+        assertEquals(1L, shared.get(new WindowCounter("POST /create", "10.0.0.1", NOW, WINDOW.toMillis())));
+        // Una vez enviado no se vuelve a sumar
+        replica.sync(NOW);
+        assertEquals(1L, shared.get(new WindowCounter("POST /create", "10.0.0.1", NOW, WINDOW.toMillis())));
+    }
+
+    @Test
+    void testIdleKeysAreNotSynchronizedAndExpire() {
+        var shared = new ConcurrentHashMap<WindowCounter, Long>();
+        var replica = new InMemoryRateLimitStore(shared);
+        var limiter = replica.create("POST /create", RateLimitAlgorithm.SLIDING_WINDOW, 3, WINDOW);
+        assertTrue(limiter.tryAcquire("10.0.0.1", NOW));
+        replica.sync(NOW);
+
+        // Dos ventanas después el cliente ya no influye: no se sincroniza, se desaloja y su contador expira
+        long later = NOW + 2 * WINDOW.toMillis();
+        int calls = replica.calls;
+        replica.sync(later);
+        assertEquals(calls, replica.calls);
+        assertEquals(1, limiter.evictIdle(later));
+        replica.evictExpired(later + 1);
+        assertTrue(shared.isEmpty());
+    }
+}
@@ -0,0 +1,117 @@
+package com.tenpo.repository;
+
+import com.tenpo.model.Transaction;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.persistence.EntityManagerFactory;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.concurrent.CompletableFuture;
+
+// Cache de segundo nivel (perfil cache): cada operación del repositorio usa su propia transacción,
+// igual que las llamadas desde el servicio
+@DataJpaTest
+@ActiveProfiles("cache")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class TransactionCacheTest {
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        transactionRepository.deleteAll();
+        entityManagerFactory.getCache().evictAll();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void testFindByIdIsServedFromCache() {
+        Transaction saved = transactionRepository.save(transaction("Pedro", 1000));
+
+        // La primera lectura después del insert ya encuentra la entidad en la cache
+        assertTrue(transactionRepository.findById(saved.getId()).isPresent());
+        assertTrue(transactionRepository.findById(saved.getId()).isPresent());
+
+        assertEquals(2, statistics.getSecondLevelCacheHitCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void testUpdateAndDeleteInvalidateCache() {
+        Transaction saved = transactionRepository.save(transaction("Pedro", 1000));
+
+        // La actualización reemplaza la entrada: la siguiente lectura devuelve el nuevo monto
+        saved.setAmount(2000);
+        saved = transactionRepository.save(saved);
+        assertEquals(2000, transactionRepository.findById(saved.getId()).orElseThrow().getAmount());
+
+        // La eliminación invalida la entrada: la lectura ya no la encuentra
+        transactionRepository.delete(saved);
+        assertTrue(transactionRepository.findById(saved.getId()).isEmpty());
+    }
+
+    @Test
+    void testSingleStatementWritesEvictCache() {
+        Transaction saved = transactionRepository.save(transaction("Pedro", 1000));
+        assertTrue(transactionRepository.findById(saved.getId()).isPresent());
+
+        // El UPDATE por JDBC no pasa por Hibernate: la entrada se invalida y la lectura ve el nuevo monto
+        Transaction changes = transaction("Pedro", 3000);
+        changes.setId(saved.getId());
+        assertTrue(transactionRepository.updateReturningPrevious(changes, null).isPresent());
+        assertEquals(3000, transactionRepository.findById(saved.getId()).orElseThrow().getAmount());
+
+        // Lo mismo con el DELETE
+        assertTrue(transactionRepository.deleteReturning(saved.getId()).isPresent());
+        assertTrue(transactionRepository.findById(saved.getId()).isEmpty());
+    }
+
+    @Test
+    void testReadDuringSingleStatementWriteDoesNotKeepStaleEntry() throws Exception {
+        Transaction saved = transactionRepository.save(transaction("Pedro", 1000));
+        Transaction changes = transaction("Pedro", 4000);
+        changes.setId(saved.getId());
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            transactionRepository.updateReturningPrevious(changes, null);
+            // Otra transacción lee la fila confirmada antes del commit y la deja otra vez en la cache
+            var concurrentRead = CompletableFuture.supplyAsync(() -> transactionRepository.findById(saved.getId()));
+            assertEquals(1000, concurrentRead.join().orElseThrow().getAmount());
+        });
+
+        // Al confirmar se invalida de nuevo: la lectura ve el nuevo monto
+        assertEquals(4000, transactionRepository.findById(saved.getId()).orElseThrow().getAmount());
+    }
+
+    private static Transaction transaction(String customer, int amount) {
+        Transaction transaction = new Transaction();
+        transaction.setCustomer(customer);
+        transaction.setAmount(amount);
+        transaction.setMerchant("Supermercado");
+        transaction.setDate(OffsetDateTime.of(2025, 1, 1, 10, 0, 0, 0, ZoneOffset.UTC));
+        return transaction;
+    }
+}
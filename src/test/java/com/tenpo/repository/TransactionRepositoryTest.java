@@ -1,6 +1,9 @@
 package com.tenpo.repository;
 
+import com.tenpo.dto.TransactionResponseDTO;
 import com.tenpo.model.Transaction;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -8,10 +11,16 @@ import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.test.context.TestPropertySource;
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.time.LocalDate;
 import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
+import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
 @DataJpaTest
 @TestPropertySource(locations = "classpath:application.properties") 
 class TransactionRepositoryTest {
@@ -19,6 +28,9 @@ class TransactionRepositoryTest {
     @Autowired
     private TransactionRepository transactionRepository;
 
+    @Autowired
+    private EntityManager entityManager;
+
     private Transaction transaction;
     
     // Método que se ejecuta antes de cada prueba
@@ -66,4 +78,142 @@ class TransactionRepositoryTest {
      // Verifica que la transacción eliminada no esté presente en la base de datos
         assertFalse(deletedTransaction.isPresent());
     }
+
+    @Test
+    void testDeleteReturning() {
+    	// Se guarda la transacción y se elimina con una sola sentencia que devuelve la fila
+        Transaction savedTransaction = transactionRepository.saveAndFlush(transaction);
+        Optional<Transaction> deletedTransaction = transactionRepository.deleteReturning(savedTransaction.getId());
+        // Verifica que se devuelva la fila eliminada
+        assertTrue(deletedTransaction.isPresent());
+        assertEquals("Pedro", deletedTransaction.get().getCustomer());
+        // Verifica que una segunda eliminación no encuentre la fila
+        assertTrue(transactionRepository.deleteReturning(savedTransaction.getId()).isEmpty());
+    }
+
+    @Test
+    void testUpdateReturningPreviousChecksVersion() {
+    	// Se guarda la transacción (versión 0) y se preparan los nuevos valores
+        Transaction savedTransaction = transactionRepository.saveAndFlush(transaction);
+        Transaction changes = Transaction.builder()
+                .id(savedTransaction.getId())
+                .customer("Ana")
+                .amount(2000)
+                .merchant("Farmacia")
+                .date(savedTransaction.getDate())
+                .build();
+        // Con la versión vigente se actualiza y se devuelve la fila anterior
+        Optional<Transaction> previous = transactionRepository.updateReturningPrevious(changes, 0L);
+        assertTrue(previous.isPresent());
+        assertEquals("Pedro", previous.get().getCustomer());
+        assertEquals(0L, previous.get().getVersion());
+        // Verifica que la versión 0 ya no coincida y que la 1 sí
+        assertTrue(transactionRepository.updateReturningPrevious(changes, 0L).isEmpty());
+        assertEquals("Ana", transactionRepository.updateReturningPrevious(changes, 1L).get().getCustomer());
+    }
+
+    @Test
+    void testKeysetPagination() {
+    	// Se guardan tres transacciones con fechas consecutivas
+        for (int i = 0; i < 3; i++) {
+            Transaction t = new Transaction();
+            t.setAmount(1000 + i);
+            t.setMerchant("Supermercado");
+            t.setCustomer("Pedro");
+            t.setDate(transaction.getDate().plusMinutes(i));
+            transactionRepository.save(t);
+        }
+        // La primera página contiene las dos transacciones más antiguas
+        List<Transaction> firstPage = transactionRepository.findFirstPage(Limit.of(2));
+        assertEquals(2, firstPage.size());
+        // La página siguiente continúa desde la última posición (fecha, id) entregada
+        Transaction last = firstPage.get(1);
+        List<Transaction> nextPage = transactionRepository.findPageAfter(last.getDate(), last.getId(), Limit.of(2));
+        assertEquals(1, nextPage.size());
+        assertEquals(1002, nextPage.get(0).getAmount());
+    }
+
+    @Test
+    void testCountByCustomerIn() {
+    	// Se guarda la transacción de Pedro y se cuentan sus transacciones junto a un cliente sin registros
+        transactionRepository.save(transaction);
+        List<CustomerTransactionCount> counts = transactionRepository.countByCustomerIn(List.of("Pedro", "Juan"));
+        // Solo se retornan los clientes con transacciones
+        assertEquals(1, counts.size());
+        assertEquals("Pedro", counts.get(0).getCustomer());
+        assertEquals(1, counts.get(0).getTotal());
+    }
+
+    @Test
+    void testAggregates() {
+    	// Se guardan dos transacciones de Pedro en días distintos y una de Juan en el segundo día
+        transactionRepository.save(transaction);
+        transactionRepository.save(Transaction.builder()
+                .customer("Pedro").amount(3000).merchant("Farmacia").date(transaction.getDate().plusDays(1)).build());
+        transactionRepository.save(Transaction.builder()
+                .customer("Juan").amount(500).merchant("Farmacia").date(transaction.getDate().plusDays(1)).build());
+
+        // Totales por cliente, ordenados por cliente
+        List<TransactionAmountAggregate> byCustomer = transactionRepository.aggregateByCustomer("", Limit.of(10));
+        assertEquals(2, byCustomer.size());
+        assertEquals("Pedro", byCustomer.get(1).getGroupKey());
+        assertEquals(2, byCustomer.get(1).getTransactions());
+        assertEquals(4000, byCustomer.get(1).getTotalAmount());
+        assertEquals(2000.0, byCustomer.get(1).getAverageAmount(), 0.001);
+        // La página siguiente empieza después del último cliente recibido
+        assertEquals(List.of("Pedro"), transactionRepository.aggregateByCustomer("Juan", Limit.of(10)).stream()
+                .map(TransactionAmountAggregate::getGroupKey).toList());
+
+        // Totales por comercio
+        List<TransactionAmountAggregate> byMerchant = transactionRepository.aggregateByMerchant("", Limit.of(1));
+        assertEquals("Farmacia", byMerchant.get(0).getGroupKey());
+        assertEquals(3500, byMerchant.get(0).getTotalAmount());
+
+        // Totales por día, limitados al rango consultado
+        List<DailyAmountAggregate> byDay = transactionRepository.aggregateByDay(
+                transaction.getDate().plusDays(1).withHour(0), transaction.getDate().plusDays(2).withHour(0));
+        assertEquals(1, byDay.size());
+        assertEquals(transaction.getDate().plusDays(1).toLocalDate(), byDay.get(0).getDay());
+        assertEquals(2, byDay.get(0).getTransactions());
+
+        // El día es el calendario UTC, no el desfase con que llegó la fecha
+        transactionRepository.save(Transaction.builder().customer("Juan").amount(700).merchant("Farmacia")
+                .date(OffsetDateTime.of(2025, 3, 1, 22, 30, 0, 0, ZoneOffset.ofHours(-3))).build());
+        byDay = transactionRepository.aggregateByDay(OffsetDateTime.of(2025, 3, 1, 0, 0, 0, 0, ZoneOffset.UTC),
+                OffsetDateTime.of(2025, 3, 3, 0, 0, 0, 0, ZoneOffset.UTC));
+        assertEquals(1, byDay.size());
+        assertEquals(LocalDate.of(2025, 3, 2), byDay.get(0).getDay());
+    }
+
+    @Test
+    void testSearchProjectsFilteredKeysetPages() {
+    	// Se guardan cuatro transacciones de Pedro con montos distintos y una de Juan
+        for (int amount : new int[] { 3000, 1000, 2000, 2000 }) {
+            transactionRepository.save(Transaction.builder()
+                    .customer("Pedro").amount(amount).merchant("Farmacia").date(transaction.getDate()).build());
+        }
+        transactionRepository.save(Transaction.builder()
+                .customer("Juan").amount(1500).merchant("Farmacia").date(transaction.getDate()).build());
+        transactionRepository.flush();
+        entityManager.clear();
+
+        // Primera página de Pedro con monto >= 2000, ordenada por monto descendente e id
+        Specification<Transaction> pedro = TransactionSpecifications.customerEquals("Pedro")
+                .and(TransactionSpecifications.amountAtLeast(2000L));
+        Sort byAmountDesc = Sort.by(Sort.Direction.DESC, "amount").and(Sort.by(Sort.Direction.DESC, "id"));
+        List<TransactionResponseDTO> firstPage = transactionRepository.search(pedro, byAmountDesc, Limit.of(2));
+        assertEquals(List.of(3000L, 2000L), firstPage.stream().map(TransactionResponseDTO::getAmount).toList());
+
+        // La proyección no deja entidades en el contexto de persistencia
+        assertEquals(0, entityManager.unwrap(Session.class).getStatistics().getEntityCount());
+
+        // La página siguiente continúa después de (monto, id) del último elemento, desempatando por id
+        TransactionResponseDTO last = firstPage.get(1);
+        List<TransactionResponseDTO> nextPage = transactionRepository.search(
+                pedro.and(TransactionSpecifications.after("amount", last.getAmount(), last.getId(), true)),
+                byAmountDesc, Limit.of(2));
+        assertEquals(1, nextPage.size());
+        assertEquals(2000, nextPage.get(0).getAmount());
+        assertTrue(nextPage.get(0).getId() < last.getId());
+    }
 }
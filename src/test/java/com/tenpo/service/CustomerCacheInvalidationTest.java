@@ -0,0 +1,60 @@
+package com.tenpo.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.mockito.Mockito.*;
+
+class CustomerCacheInvalidationTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    @Mock
+    private CustomerTransactionCounter customerTransactionCounter;
+    @Mock
+    private CustomerLedger customerLedger;
+
+    private CustomerCacheInvalidation invalidation;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        invalidation = new CustomerCacheInvalidation(jdbcTemplate, customerTransactionCounter, customerLedger);
+    }
+
+    @Test
+    void reconcilesOnlyWhenGenerationChanges() {
+        when(jdbcTemplate.queryForObject(CustomerCacheInvalidation.GENERATION_SQL, Long.class))
+                .thenReturn(3L, 3L, 4L);
+
+        // La primera consulta toma la referencia y la segunda no ve cambios
+        invalidation.poll();
+        invalidation.poll();
+        verifyNoInteractions(customerTransactionCounter, customerLedger);
+
+        // Otra réplica importó: se reconcilian los contadores y los resúmenes
+        invalidation.poll();
+        verify(customerTransactionCounter).reconcile();
+        verify(customerLedger).reconcile();
+    }
+
+    @Test
+    void failedPollKeepsLastGeneration() {
+        when(jdbcTemplate.queryForObject(CustomerCacheInvalidation.GENERATION_SQL, Long.class))
+                .thenReturn(3L)
+                .thenThrow(new DataAccessResourceFailureException("sin conexión"))
+                .thenReturn(5L);
+
+        invalidation.poll();
+        invalidation.poll();
+        verifyNoInteractions(customerTransactionCounter, customerLedger);
+
+        invalidation.poll();
+        verify(customerTransactionCounter).reconcile();
+        verify(customerLedger).reconcile();
+    }
+}
@@ -0,0 +1,165 @@
+package com.tenpo.service;
+
+import com.tenpo.model.CompactTransaction;
+import com.tenpo.model.Transaction;
+import com.tenpo.repository.TransactionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.mockito.Mockito.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class CustomerLedgerTest {
+
+    private static final OffsetDateTime BASE = OffsetDateTime.of(2025, 1, 1, 10, 0, 0, 0, ZoneOffset.UTC);
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private CustomerLedger ledger;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        // Se retienen las 3 transacciones más recientes de cada cliente
+        ledger = new CustomerLedger(transactionRepository, transactionTemplate, 3, 1000);
+    }
+
+    @Test
+    void keepsTotalsAndMostRecentByDate() {
+        when(transactionRepository.findCompactByCustomer("Juan")).thenReturn(List.of(row(1, 100, 1), row(2, 200, 2)));
+        ledger.summary("Juan");
+
+        // Sin transacción activa las escrituras se aplican de inmediato; la 4 es anterior a las demás
+        ledger.created(transaction(3, 300, 5));
+        ledger.created(transaction(4, 400, 0));
+        ledger.created(transaction(5, 500, 3));
+
+        var summary = ledger.summary("Juan");
+        assertEquals(5, summary.getCount());
+        assertEquals(1500, summary.getTotal());
+        assertEquals(List.of(3, 5, 2), summary.getRecent().stream().map(dto -> dto.getId()).toList());
+        assertEquals(BASE.plusHours(5), summary.getRecent().get(0).getDate());
+        // Solo la primera lectura consulta la base de datos
+        verify(transactionRepository, times(1)).findCompactByCustomer("Juan");
+    }
+
+    @Test
+    void updateMovesTransactionBetweenCustomers() {
+        when(transactionRepository.findCompactByCustomer("Juan")).thenReturn(List.of(row(1, 100, 1)));
+        when(transactionRepository.findCompactByCustomer("Ana")).thenReturn(List.of());
+        ledger.summary("Juan");
+        ledger.summary("Ana");
+
+        var updated = transaction(1, 150, 2);
+        updated.setCustomer("Ana");
+        ledger.updated(transaction(1, 100, 1), updated);
+
+        assertEquals(0, ledger.summary("Juan").getTotal());
+        assertTrue(ledger.summary("Juan").getRecent().isEmpty());
+        assertEquals(150, ledger.summary("Ana").getTotal());
+        assertEquals(1, ledger.summary("Ana").getRecent().get(0).getId());
+    }
+
+    @Test
+    void deletingRetainedTransactionReloadsOlderOnes() {
+        var rows = new ArrayList<CompactTransaction>();
+        for (int id = 1; id <= 5; id++) {
+            rows.add(row(id, 100, id));
+        }
+        when(transactionRepository.findCompactByCustomer("Juan")).thenReturn(rows);
+        ledger.summary("Juan");
+
+        // La eliminada estaba entre las retenidas y hay más antiguas que no lo están: se recarga
+        ledger.deleted(transaction(5, 100, 5));
+        rows.remove(4);
+
+        var summary = ledger.summary("Juan");
+        assertEquals(4, summary.getCount());
+        assertEquals(List.of(4, 3, 2), summary.getRecent().stream().map(dto -> dto.getId()).toList());
+        verify(transactionRepository, times(2)).findCompactByCustomer("Juan");
+    }
+
+    @Test
+    void writesCommittedDuringLoadAreAppliedOnce() {
+        // Mientras se consulta se confirman la 3 (que la consulta no vio) y la 2 (que sí vio)
+        when(transactionRepository.findCompactByCustomer("Juan")).thenAnswer(invocation -> {
+            ledger.created(transaction(3, 300, 3));
+            ledger.created(transaction(2, 200, 2));
+            return List.of(row(1, 100, 1), row(2, 200, 2));
+        });
+
+        var summary = ledger.summary("Juan");
+        assertEquals(3, summary.getCount());
+        assertEquals(600, summary.getTotal());
+        assertEquals(List.of(3, 2, 1), summary.getRecent().stream().map(dto -> dto.getId()).toList());
+        // El resumen quedó en memoria con las tres
+        assertEquals(600, ledger.summary("Juan").getTotal());
+        verify(transactionRepository, times(1)).findCompactByCustomer("Juan");
+    }
+
+    @Test
+    void writesCommittedBeforeLoadAreNotAppliedTwice() {
+        // La 3 y la eliminación de la 2 se confirman antes de la consulta, pero sus callbacks corren después
+        TransactionSynchronizationManager.initSynchronization();
+        ledger.created(transaction(3, 300, 3));
+        ledger.deleted(transaction(2, 200, 2));
+        var synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        when(transactionRepository.findCompactByCustomer("Juan")).thenReturn(List.of(row(1, 100, 1), row(3, 300, 3)));
+
+        assertEquals(400, ledger.summary("Juan").getTotal());
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+        synchronizations.forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+
+        var summary = ledger.summary("Juan");
+        assertEquals(2, summary.getCount());
+        assertEquals(400, summary.getTotal());
+        // Sin escrituras en curso, las siguientes se aplican normalmente
+        ledger.created(transaction(4, 50, 4));
+        assertEquals(450, ledger.summary("Juan").getTotal());
+    }
+
+    @Test
+    void evictsLeastRecentlyReadAtMaximum() {
+        // Con 2 clientes como máximo, cargar un tercero descarta solo el leído hace más tiempo
+        var small = new CustomerLedger(transactionRepository, transactionTemplate, 3, 2);
+        when(transactionRepository.findCompactByCustomer(anyString())).thenReturn(List.of());
+        small.summary("Ana");
+        small.summary("Juan");
+        small.summary("Ana");
+        small.summary("Pedro");
+        small.summary("Ana");
+
+        verify(transactionRepository, times(1)).findCompactByCustomer("Ana");
+        small.summary("Juan");
+        verify(transactionRepository, times(2)).findCompactByCustomer("Juan");
+    }
+
+    private static CompactTransaction row(int id, int amount, int hours) {
+        return new CompactTransaction(id, "Juan", "Supermercado", amount, BASE.plusHours(hours), 0);
+    }
+
+    private static Transaction transaction(int id, int amount, int hours) {
+        return Transaction.builder()
+                .id(id)
+                .customer("Juan")
+                .amount(amount)
+                .merchant("Supermercado")
+                .date(BASE.plusHours(hours))
+                .build();
+    }
+}
@@ -0,0 +1,129 @@
+package com.tenpo.service;
+
+import com.tenpo.repository.TransactionRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.mockito.Mockito.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class CustomerTransactionCounterTest {
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    private CustomerTransactionCounter counter;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        counter = new CustomerTransactionCounter(transactionRepository, 1000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void loadsCountOnce() {
+        when(transactionRepository.countByCustomer("Juan")).thenReturn(10L);
+
+        assertTrue(counter.tryReserve("Juan"));
+        assertTrue(counter.tryReserve("Juan"));
+        assertTrue(counter.tryReserve("Juan"));
+
+        // Lejos del máximo solo la primera reserva consulta la base de datos
+        verify(transactionRepository, times(1)).countByCustomer("Juan");
+    }
+
+    @Test
+    void rejectsAtMaximum() {
+        // El cliente ya tiene 98 transacciones registradas
+        when(transactionRepository.countByCustomer("Juan")).thenReturn(98L);
+
+        assertTrue(counter.tryReserve("Juan"));
+        assertTrue(counter.tryReserve("Juan"));
+        assertFalse(counter.tryReserve("Juan"));
+    }
+
+    @Test
+    void nearLimitCountsTransactionsFromOtherReplicas() {
+        // Al cargarlo tenía 90; luego otra réplica confirmó las 10 restantes
+        when(transactionRepository.countByCustomer("Juan")).thenReturn(90L, 100L);
+
+        assertFalse(counter.tryReserve("Juan"));
+        // El conteo cerca del máximo se hace con el cliente bloqueado
+        var order = inOrder(transactionRepository);
+        order.verify(transactionRepository).lockCustomer("Juan");
+        order.verify(transactionRepository).countByCustomer("Juan");
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedAtMaximum() {
+        // Con 3 contadores como máximo, cada carga nueva descarta solo el usado hace más tiempo
+        var small = new CustomerTransactionCounter(transactionRepository, 3);
+        when(transactionRepository.countByCustomer(anyString())).thenReturn(0L);
+        small.tryReserve("Ana");
+        small.tryReserve("Juan");
+        small.tryReserve("Pedro");
+        small.tryReserve("Ana");
+
+        small.tryReserve("Diego");
+        small.tryReserve("Ana");
+        small.tryReserve("Pedro");
+        small.tryReserve("Juan");
+
+        verify(transactionRepository, times(1)).countByCustomer("Ana");
+        verify(transactionRepository, times(1)).countByCustomer("Pedro");
+        verify(transactionRepository, times(2)).countByCustomer("Juan");
+    }
+
+    @Test
+    void releaseFreesSlot() {
+        // La base de datos refleja la eliminación una vez confirmada
+        when(transactionRepository.countByCustomer("Juan")).thenReturn(100L, 100L, 99L);
+
+        assertFalse(counter.tryReserve("Juan"));
+        // Sin transacción activa la liberación se aplica de inmediato
+        counter.release("Juan");
+        assertTrue(counter.tryReserve("Juan"));
+    }
+
+    @Test
+    void reconcileReloadsFromDatabase() {
+        when(transactionRepository.countByCustomer("Juan")).thenReturn(0L);
+        counter.tryReserve("Juan");
+
+        counter.reconcile();
+        counter.tryReserve("Juan");
+
+        verify(transactionRepository, times(2)).countByCustomer("Juan");
+    }
+
+    @Test
+    void reconcileWaitsForReservationsInFlight() {
+        when(transactionRepository.countByCustomer("Juan")).thenReturn(0L);
+        TransactionSynchronizationManager.initSynchronization();
+        assertTrue(counter.tryReserve("Juan"));
+
+        // La consulta no vería la fila sin confirmar: el contador no se vuelve a leer todavía
+        counter.reconcile();
+        assertTrue(counter.tryReserve("Juan"));
+        verify(transactionRepository, times(1)).countByCustomer("Juan");
+
+        var synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+
+        assertTrue(counter.tryReserve("Juan"));
+        verify(transactionRepository, times(2)).countByCustomer("Juan");
+    }
+}
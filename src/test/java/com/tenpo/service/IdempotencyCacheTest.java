@@ -0,0 +1,50 @@
+package com.tenpo.service;
+
+import com.tenpo.errors.ConflictException;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+class IdempotencyCacheTest {
+
+    private final AtomicLong now = new AtomicLong();
+
+    @Test
+    void testEntryExpiresAfterTtl() {
+        var cache = new IdempotencyCache<String>(100, Duration.ofSeconds(10), now::get);
+        cache.put("key", fingerprint(1), "respuesta");
+
+        assertEquals("respuesta", cache.get("key", fingerprint(1)));
+        // Al cumplirse el TTL la clave deja de estar disponible
+        now.addAndGet(Duration.ofSeconds(10).toNanos());
+        assertNull(cache.get("key", fingerprint(1)));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void testSizeIsBounded() {
+        var cache = new IdempotencyCache<Integer>(160, Duration.ofHours(1), now::get);
+        for (int i = 0; i < 10_000; i++) {
+            cache.put("key-" + i, fingerprint(i), i);
+        }
+        // Cada segmento descarta sus entradas menos usadas al superar su capacidad
+        assertTrue(cache.size() <= 160);
+        assertEquals(9_999, cache.get("key-9999", fingerprint(9_999)));
+    }
+
+    @Test
+    void testKeyReusedWithDifferentRequestIsRejected() {
+        var cache = new IdempotencyCache<String>(100, Duration.ofHours(1), now::get);
+        cache.put("key", fingerprint(1), "respuesta");
+
+        assertThrows(ConflictException.class, () -> cache.get("key", fingerprint(2)));
+    }
+
+    private static byte[] fingerprint(int value) {
+        return ByteBuffer.allocate(Integer.BYTES).putInt(value).array();
+    }
+}
@@ -0,0 +1,107 @@
+package com.tenpo.service;
+
+import com.tenpo.dto.TransactionChangeDTO;
+import com.tenpo.dto.TransactionRequestDTO;
+import com.tenpo.errors.BadRequestException;
+import com.tenpo.model.TransactionChange;
+import com.tenpo.repository.TransactionChangeRepository;
+import com.tenpo.repository.TransactionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+// Registro de cambios contra H2: cada escritura confirmada agrega sus cambios en orden
+@DataJpaTest
+@Import({ TransactionChangeFeed.class, TransactionChangeLog.class, TransactionService.class,
+        CustomerTransactionCounter.class, CustomerLedger.class })
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class TransactionChangeFeedTest {
+
+    @Autowired
+    private TransactionChangeFeed changeFeed;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private TransactionChangeRepository changeRepository;
+
+    @BeforeEach
+    void setUp() {
+        transactionRepository.deleteAll();
+        changeRepository.deleteAll();
+    }
+
+    @Test
+    void testChangesAreRecordedInCommitOrder() {
+        long since = changeFeed.getChanges(0, TransactionChangeFeed.MAX_CHANGES).getLastSeq();
+
+        var created = transactionService.createTransaction(request("Pedro", 1000));
+        transactionService.createTransactions(List.of(request("Ana", 200), request("Ana", -1), request("Luis", 300)));
+        transactionService.updateTransaction(created.getId(), request("Pedro", 1500));
+        transactionService.deleteTransaction(created.getId());
+
+        var changes = changeFeed.getChanges(since, TransactionChangeFeed.MAX_CHANGES).getChanges();
+        assertEquals(List.of(TransactionChange.Operation.CREATED, TransactionChange.Operation.CREATED,
+                        TransactionChange.Operation.CREATED, TransactionChange.Operation.UPDATED,
+                        TransactionChange.Operation.DELETED),
+                changes.stream().map(TransactionChangeDTO::getOperation).toList());
+        for (int i = 1; i < changes.size(); i++) {
+            assertEquals(changes.get(i - 1).getSeq() + 1, changes.get(i).getSeq());
+        }
+        // La eliminación conserva el último estado de la transacción
+        assertEquals(created.getId(), changes.get(4).getTransaction().getId());
+        assertEquals(1500, changes.get(4).getTransaction().getAmount());
+    }
+
+    @Test
+    void testOnlyDeltasAfterSinceAreReturned() {
+        transactionService.createTransaction(request("Pedro", 1000));
+        long since = changeFeed.getChanges(0, TransactionChangeFeed.MAX_CHANGES).getLastSeq();
+        transactionService.createTransaction(request("Pedro", 2000));
+
+        var delta = changeFeed.getChanges(since, TransactionChangeFeed.MAX_CHANGES);
+        assertEquals(1, delta.getChanges().size());
+        assertEquals(2000, delta.getChanges().get(0).getTransaction().getAmount());
+        assertEquals(since + 1, delta.getLastSeq());
+
+        // Sin cambios nuevos se devuelve la misma secuencia para la siguiente consulta
+        var empty = changeFeed.getChanges(delta.getLastSeq(), TransactionChangeFeed.MAX_CHANGES);
+        assertTrue(empty.getChanges().isEmpty());
+        assertEquals(delta.getLastSeq(), empty.getLastSeq());
+    }
+
+    @Test
+    void testRolledBackWriteLeavesNoChange() {
+        long since = changeFeed.getChanges(0, TransactionChangeFeed.MAX_CHANGES).getLastSeq();
+
+        assertThrows(RuntimeException.class, () -> transactionService.updateTransaction(Integer.MAX_VALUE, request("Pedro", 1000)));
+        assertThrows(BadRequestException.class, () -> changeFeed.getChanges(-1, 10));
+        // Una secuencia que no corresponde a ningún cambio no tiene posición desde donde continuar
+        assertThrows(BadRequestException.class, () -> changeFeed.getChanges(Long.MAX_VALUE, 10));
+
+        assertTrue(changeFeed.getChanges(since, TransactionChangeFeed.MAX_CHANGES).getChanges().isEmpty());
+    }
+
+    private static TransactionRequestDTO request(String customer, long amount) {
+        return TransactionRequestDTO.builder()
+                .customer(customer)
+                .amount(amount)
+                .merchant("StoreA")
+                .date(OffsetDateTime.now(ZoneOffset.UTC).minusMinutes(1))
+                .build();
+    }
+}
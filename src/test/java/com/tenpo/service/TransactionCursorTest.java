@@ -0,0 +1,31 @@
+package com.tenpo.service;
+
+import com.tenpo.errors.BadRequestException;
+import org.junit.jupiter.api.Test;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransactionCursorTest {
+
+    @Test
+    void encodeAndDecode() {
+        // Un cursor codificado debe decodificarse a la misma posición (en UTC)
+        OffsetDateTime date = OffsetDateTime.of(2025, 1, 1, 10, 0, 0, 123_456_000, ZoneOffset.ofHours(-3));
+        TransactionCursor cursor = new TransactionCursor(date, 42);
+
+        TransactionCursor decoded = TransactionCursor.decode(cursor.encode());
+
+        assertTrue(date.isEqual(decoded.date()));
+        assertEquals(42, decoded.id());
+    }
+
+    @Test
+    void decodeInvalidCursor() {
+        // Un token inválido debe traducirse en un error 400
+        assertThrows(BadRequestException.class, () -> TransactionCursor.decode("not-a-cursor!"));
+        assertThrows(BadRequestException.class, () -> TransactionCursor.decode("AAAA"));
+    }
+}
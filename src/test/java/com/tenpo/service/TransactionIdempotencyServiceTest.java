@@ -0,0 +1,117 @@
+package com.tenpo.service;
+
+import com.tenpo.dto.TransactionBatchItemDTO;
+import com.tenpo.dto.TransactionRequestDTO;
+import com.tenpo.errors.BadRequestException;
+import com.tenpo.errors.ConflictException;
+import com.tenpo.repository.TransactionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+@DataJpaTest
+@Import({ TransactionIdempotencyService.class, TransactionService.class, CustomerTransactionCounter.class,
+        TransactionChangeLog.class, CustomerLedger.class })
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class TransactionIdempotencyServiceTest {
+
+    @Autowired
+    private TransactionIdempotencyService idempotencyService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @BeforeEach
+    void setUp() {
+        transactionRepository.deleteAll();
+    }
+
+    @Test
+    void testRetryReturnsOriginalTransaction() {
+        var first = idempotencyService.createTransaction("retry-1", request("Pedro", 1000));
+        var retry = idempotencyService.createTransaction("retry-1", request("Pedro", 1000));
+
+        // El reintento devuelve la misma transacción y no crea otra fila
+        assertEquals(first, retry);
+        assertEquals(1, transactionRepository.count());
+    }
+
+    @Test
+    void testRetryOnAnotherNodeIsRejectedByUniqueKey() {
+        var first = idempotencyService.createTransaction("retry-2", request("Pedro", 1000));
+        // Otro nodo no tiene la clave en memoria: el índice único evita el duplicado
+        var otherNode = new TransactionIdempotencyService(transactionService, transactionRepository, 100, Duration.ofHours(1));
+        var retry = otherNode.createTransaction("retry-2", request("Pedro", 1000));
+
+        assertEquals(first.getId(), retry.getId());
+        assertEquals(1, transactionRepository.count());
+    }
+
+    @Test
+    void testKeyReusedWithDifferentRequestIsRejected() {
+        idempotencyService.createTransaction("retry-3", request("Pedro", 1000));
+        var otherNode = new TransactionIdempotencyService(transactionService, transactionRepository, 100, Duration.ofHours(1));
+
+        assertThrows(ConflictException.class, () -> idempotencyService.createTransaction("retry-3", request("Pedro", 2000)));
+        assertThrows(ConflictException.class, () -> otherNode.createTransaction("retry-3", request("Pedro", 2000)));
+
+        // "Aa" y "BB" tienen el mismo String.hashCode: la respuesta en memoria no debe servirse para la otra
+        idempotencyService.createTransaction("retry-4", request("Aa", 1000));
+        assertThrows(ConflictException.class, () -> idempotencyService.createTransaction("retry-4", request("BB", 1000)));
+    }
+
+    @Test
+    void testKeyWithBatchSeparatorIsRejected() {
+        // "lote:0" es la clave del primer elemento del lote "lote"
+        idempotencyService.createTransactions("lote", List.of(request("Pedro", 1000)));
+        assertThrows(BadRequestException.class, () -> idempotencyService.createTransaction("lote:0", request("Pedro", 1000)));
+        assertEquals(1, transactionRepository.count());
+    }
+
+    @Test
+    void testBatchRetryOnAnotherNodeRebuildsOriginalResult() {
+        var requests = List.of(request("Pedro", 1000), request("Pedro", -1), request("Juan", 500));
+        var first = idempotencyService.createTransactions("batch-1", requests);
+        var otherNode = new TransactionIdempotencyService(transactionService, transactionRepository, 100, Duration.ofHours(1));
+        var retry = otherNode.createTransactions("batch-1", requests);
+
+        // Se reconstruye el resultado desde las filas guardadas, sin insertar de nuevo
+        assertEquals(2, retry.getCreated());
+        assertEquals(1, retry.getRejected());
+        assertEquals(TransactionBatchItemDTO.Status.REJECTED, retry.getItems().get(1).getStatus());
+        assertEquals(first.getItems().get(2).getTransaction().getId(), retry.getItems().get(2).getTransaction().getId());
+        assertEquals(2, transactionRepository.count());
+
+        // La misma clave con otro lote (un elemento distinto, o más elementos) no devuelve el resultado original
+        var changed = List.of(request("Pedro", 1000), request("Pedro", -1), request("Juan", 700));
+        var shorter = List.of(request("Pedro", 1000), request("Pedro", -1));
+        for (var other : List.of(changed, shorter)) {
+            var freshNode = new TransactionIdempotencyService(transactionService, transactionRepository, 100, Duration.ofHours(1));
+            assertThrows(ConflictException.class, () -> freshNode.createTransactions("batch-1", other));
+        }
+        assertEquals(2, transactionRepository.count());
+    }
+
+    private static TransactionRequestDTO request(String customer, long amount) {
+        return TransactionRequestDTO.builder()
+                .customer(customer)
+                .amount(amount)
+                .merchant("Supermercado")
+                .date(OffsetDateTime.of(2025, 1, 1, 10, 0, 0, 0, ZoneOffset.UTC))
+                .build();
+    }
+}
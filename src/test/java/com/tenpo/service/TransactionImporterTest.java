@@ -0,0 +1,29 @@
+package com.tenpo.service;
+
+import com.tenpo.errors.BadRequestException;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransactionImporterTest {
+
+    @Test
+    void testExportHeaderIgnoresExtraColumns() {
+        assertEquals(List.of("ignored_0", "customer", "amount", "merchant", "date", "ignored_5"),
+                TransactionImporter.stagingColumns("id,customer,amount,merchant,date,version"));
+    }
+
+    @Test
+    void testHeaderIsCaseAndQuoteInsensitive() {
+        assertEquals(List.of("date", "merchant", "amount", "customer"),
+                TransactionImporter.stagingColumns("\uFEFF\"Date\", Merchant ,AMOUNT,customer"));
+    }
+
+    @Test
+    void testMissingColumnIsRejected() {
+        assertThrows(BadRequestException.class, () -> TransactionImporter.stagingColumns("customer,amount,date"));
+        assertThrows(BadRequestException.class, () -> TransactionImporter.stagingColumns(null));
+    }
+}
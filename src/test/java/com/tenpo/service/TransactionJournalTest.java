@@ -0,0 +1,169 @@
+package com.tenpo.service;
+
+import com.tenpo.model.Transaction;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+class TransactionJournalTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testAppendAndReplay() throws IOException {
+        Path path = directory.resolve("journal");
+        try (var journal = new TransactionJournal(path)) {
+            journal.sync(journal.append(transaction(1, "Pedro")));
+            journal.sync(journal.append(transaction(2, "Ñandú 🐦")));
+        }
+
+        // Al reabrir se recuperan las transacciones en el mismo orden y el segmento reprocesado se borra
+        try (var journal = new TransactionJournal(path)) {
+            assertEquals(List.of(transaction(1, "Pedro"), transaction(2, "Ñandú 🐦")), replayAll(journal));
+            assertFalse(Files.exists(directory.resolve("journal.1")));
+        }
+    }
+
+    @Test
+    void testIncompleteRecordIsIgnored() throws IOException {
+        Path path = directory.resolve("journal");
+        try (var journal = new TransactionJournal(path)) {
+            journal.sync(journal.append(transaction(1, "Pedro")));
+            journal.sync(journal.append(transaction(2, "Juan")));
+        }
+        // Simula una caída a mitad de la escritura del segundo registro
+        try (var channel = FileChannel.open(directory.resolve("journal.1"), StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 3);
+        }
+
+        try (var journal = new TransactionJournal(path)) {
+            var transactions = replayAll(journal);
+            assertEquals(1, transactions.size());
+            assertEquals(1, transactions.get(0).getId());
+        }
+    }
+
+    @Test
+    void testMarkFlushedTruncatesWhenNothingIsPending() throws IOException {
+        Path path = directory.resolve("journal");
+        try (var journal = new TransactionJournal(path)) {
+            long first = journal.append(transaction(1, "Pedro"));
+            long second = journal.append(transaction(2, "Juan"));
+            journal.sync(second);
+
+            // Con un registro aún pendiente el journal se conserva
+            journal.markFlushed(List.of(first));
+            assertTrue(Files.size(directory.resolve("journal.1")) > 0);
+
+            journal.markFlushed(List.of(second));
+            assertEquals(0, Files.size(directory.resolve("journal.1")));
+        }
+        // Cerrado sin pendientes, no queda nada que reprocesar
+        assertEquals(List.of(), TransactionJournal.files(path));
+    }
+
+    @Test
+    void testFlushedSegmentsAreDeleted() throws IOException {
+        Path path = directory.resolve("journal");
+        // Segmentos de un byte: cada registro queda en un segmento propio
+        try (var journal = new TransactionJournal(path, 1)) {
+            long first = journal.append(transaction(1, "Pedro"));
+            long second = journal.append(transaction(2, "Juan"));
+            long third = journal.append(transaction(3, "Ana"));
+            journal.sync(third);
+            assertEquals(3, TransactionJournal.files(path).size());
+
+            // Se borra un segmento cerrado en cuanto se confirman sus registros, aunque queden otros pendientes
+            journal.markFlushed(List.of(second));
+            assertEquals(List.of(directory.resolve("journal.1"), directory.resolve("journal.3")),
+                    TransactionJournal.files(path));
+            journal.markFlushed(List.of(first));
+            assertEquals(List.of(directory.resolve("journal.3")), TransactionJournal.files(path));
+        }
+
+        // Lo pendiente se reprocesa en bloques del tamaño pedido
+        try (var journal = new TransactionJournal(path)) {
+            var chunks = new ArrayList<List<Transaction>>();
+            journal.replay(1, chunks::add);
+            assertEquals(List.of(List.of(transaction(3, "Ana"))), chunks);
+        }
+    }
+
+    @Test
+    void testRecordWithIntAmountIsRead() throws IOException {
+        // Registro escrito antes de los montos de 64 bits: sin marca de formato y con el monto en un int
+        var expected = transaction(1, "Pedro");
+        var bytes = new ByteArrayOutputStream();
+        try (var out = new DataOutputStream(bytes)) {
+            Instant instant = expected.getDate().toInstant();
+            out.writeInt(expected.getId());
+            out.writeUTF(expected.getCustomer());
+            out.writeInt((int) expected.getAmount());
+            out.writeUTF(expected.getMerchant());
+            out.writeLong(instant.getEpochSecond());
+            out.writeInt(instant.getNano());
+            out.writeInt(expected.getDate().getOffset().getTotalSeconds());
+        }
+        byte[] payload = bytes.toByteArray();
+        var crc = new CRC32();
+        crc.update(payload);
+        Path path = directory.resolve("journal");
+        Files.write(path, ByteBuffer.allocate(2 * Integer.BYTES + payload.length)
+                .putInt(payload.length)
+                .putInt((int) crc.getValue())
+                .put(payload)
+                .array());
+
+        // El journal anterior a los segmentos se reprocesa y se borra
+        try (var journal = new TransactionJournal(path)) {
+            assertEquals(List.of(expected), replayAll(journal));
+            assertFalse(Files.exists(path));
+        }
+    }
+
+    @Test
+    void testAmountBeyondIntRange() throws IOException {
+        Path path = directory.resolve("journal");
+        var transaction = transaction(1, "Pedro");
+        transaction.setAmount(10_000_000_000L);
+        try (var journal = new TransactionJournal(path)) {
+            journal.sync(journal.append(transaction));
+        }
+        try (var journal = new TransactionJournal(path)) {
+            assertEquals(10_000_000_000L, replayAll(journal).get(0).getAmount());
+        }
+    }
+
+    private static List<Transaction> replayAll(TransactionJournal journal) throws IOException {
+        var transactions = new ArrayList<Transaction>();
+        journal.replay(100, transactions::addAll);
+        return transactions;
+    }
+
+    private static Transaction transaction(int id, String customer) {
+        return Transaction.builder()
+                .id(id)
+                .customer(customer)
+                .amount(1000)
+                .merchant("Supermercado")
+                .date(OffsetDateTime.of(2025, 1, 1, 10, 0, 0, 500, ZoneOffset.ofHours(-3)))
+                .build();
+    }
+}
@@ -0,0 +1,41 @@
+package com.tenpo.service;
+
+import com.tenpo.errors.BadRequestException;
+import org.junit.jupiter.api.Test;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransactionSearchCursorTest {
+
+    @Test
+    void encodeAndDecode() {
+        // Un cursor codificado debe decodificarse a la misma posición con el mismo orden
+        OffsetDateTime date = OffsetDateTime.of(2025, 1, 1, 10, 0, 0, 123_456_000, ZoneOffset.ofHours(-3));
+        TransactionSearchCursor cursor = new TransactionSearchCursor(TransactionSort.AMOUNT_DESC, date, 1500, 42);
+
+        TransactionSearchCursor decoded = TransactionSearchCursor.decode(cursor.encode(), TransactionSort.AMOUNT_DESC);
+
+        assertTrue(date.isEqual(decoded.date()));
+        assertEquals(1500, decoded.amount());
+        assertEquals(42, decoded.id());
+    }
+
+    @Test
+    void decodeWithAnotherSortIsRejected() {
+        // Un cursor solo es válido con el orden con el que se generó
+        String token = new TransactionSearchCursor(TransactionSort.DATE_ASC, OffsetDateTime.now(), 1, 1).encode();
+        assertThrows(BadRequestException.class, () -> TransactionSearchCursor.decode(token, TransactionSort.DATE_DESC));
+        assertThrows(BadRequestException.class, () -> TransactionSearchCursor.decode("not-a-cursor!", TransactionSort.DATE_ASC));
+    }
+
+    @Test
+    void parseSort() {
+        assertEquals(TransactionSort.DATE_ASC, TransactionSort.parse("date"));
+        assertEquals(TransactionSort.AMOUNT_DESC, TransactionSort.parse("amount,DESC"));
+        assertThrows(BadRequestException.class, () -> TransactionSort.parse("customer"));
+        assertThrows(BadRequestException.class, () -> TransactionSort.parse("date,up"));
+    }
+}
@@ -1,6 +1,8 @@
 package com.tenpo.service;
 
+import com.tenpo.dto.TransactionBatchItemDTO;
 import com.tenpo.dto.TransactionRequestDTO;
+import com.tenpo.errors.ConflictException;
 import com.tenpo.errors.ResourceNotFoundException;
 import com.tenpo.model.Transaction;
 import com.tenpo.repository.TransactionRepository;
@@ -12,8 +14,11 @@ import org.springframework.boot.test.context.SpringBootTest;
 
 import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
+import java.util.List;
 import java.util.Optional;
 
+import jakarta.persistence.EntityManager;
+
 import static org.mockito.Mockito.*;
 import static org.junit.jupiter.api.Assertions.*;
 @SpringBootTest
@@ -22,6 +27,18 @@ class TransactionServiceTest {
     @Mock
     private TransactionRepository transactionRepository;
 
+    @Mock
+    private CustomerTransactionCounter customerTransactionCounter;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private TransactionChangeLog transactionChangeLog;
+
+    @Mock
+    private CustomerLedger customerLedger;
+
     @InjectMocks
     private TransactionService transactionService;
 
@@ -38,6 +55,9 @@ class TransactionServiceTest {
 
         OffsetDateTime specificDate = OffsetDateTime.of(2025, 1, 1, 10, 0, 0, 0, ZoneOffset.UTC);
         transaction.setDate(specificDate);
+
+        // El cliente siempre tiene cupo disponible en estas pruebas
+        when(customerTransactionCounter.tryReserve(any())).thenReturn(true);
     }
 
     @Test
@@ -56,50 +76,72 @@ class TransactionServiceTest {
     }
 
     @Test
-    void testUpdateTransaction() {
-        OffsetDateTime updatedDate = OffsetDateTime.of(2025, 1, 1, 11, 0, 0, 0, ZoneOffset.UTC);
-
-        Transaction updatedTransaction = new Transaction();
-        updatedTransaction.setId(1);
-        updatedTransaction.setAmount(700);
-        updatedTransaction.setMerchant("Tienda");
-        updatedTransaction.setCustomer("Carlos");
-        updatedTransaction.setDate(updatedDate);
+    void testCreateTransactions() {
+        // Una transacción válida y otra con monto inválido en el mismo lote
+        var invalid = getTransactionRequestDTO();
+        invalid.setAmount(0L);
+
+        var response = transactionService.createTransactions(List.of(getTransactionRequestDTO(), invalid));
+
+        // Verifica que se cree solo la válida y que se informe el rechazo de la otra
+        assertEquals(1, response.getCreated());
+        assertEquals(1, response.getRejected());
+        assertEquals(TransactionBatchItemDTO.Status.CREATED, response.getItems().get(0).getStatus());
+        assertEquals(TransactionBatchItemDTO.Status.REJECTED, response.getItems().get(1).getStatus());
+        // Verifica que los contadores se carguen una sola vez para todo el lote
+        verify(customerTransactionCounter, times(1)).warm(any());
+        verify(transactionRepository, times(1)).saveAll(anyList());
+    }
 
-        // Configura el mock para que encuentre la transacción con id 1 y devuelva la transacción original
-        when(transactionRepository.findById(1)).thenReturn(Optional.of(transaction));
-        // Configura el mock para que guarde la transacción actualizada
-        when(transactionRepository.save(any(Transaction.class))).thenReturn(updatedTransaction);
+    @Test
+    void testUpdateTransaction() {
+        // Configura el mock para que el UPDATE encuentre la transacción con id 1 y devuelva su estado anterior
+        when(transactionRepository.updateReturningPrevious(any(Transaction.class), isNull())).thenReturn(Optional.of(transaction));
 
         // Llama al método de servicio para actualizar la transacción
         var response = transactionService.updateTransaction(1, getTransactionRequestDTO());
 
-        // Verifica que el monto de la transacción actualizada sea 700
+        // Verifica que la respuesta tenga los datos de la solicitud y la versión siguiente
         assertEquals(500, response.getAmount());
-        // Verifica que el comercio de la transacción actualizada sea "Tienda"
         assertEquals("Supermercado", response.getMerchant());
-        // Verifica que el método save() haya sido llamado una vez con el objeto updatedTransaction
-        verify(transactionRepository, times(1)).save(any(Transaction.class));
+        assertEquals(1L, response.getVersion());
+        // Verifica que se use una sola sentencia, sin leer antes la transacción
+        verify(transactionRepository, times(1)).updateReturningPrevious(any(Transaction.class), isNull());
+        verify(transactionRepository, never()).findById(anyInt());
+        // El cliente cambió de Juan a nacho: se reserva el cupo del nuevo y se libera el del anterior
+        verify(customerTransactionCounter).tryReserve("nacho");
+        verify(customerTransactionCounter).release("Juan");
+    }
+
+    @Test
+    void testUpdateTransactionVersionConflict() {
+        // El UPDATE condicionado a la versión no modifica filas, pero la transacción existe
+        when(transactionRepository.updateReturningPrevious(any(Transaction.class), eq(3L))).thenReturn(Optional.empty());
+        when(transactionRepository.existsById(1)).thenReturn(true);
+
+        assertThrows(ConflictException.class, () -> transactionService.updateTransaction(1, getTransactionRequestDTO(), 3L));
+        verify(transactionChangeLog, never()).record(any(), any());
     }
 
     @Test
     void testDeleteTransaction() {
-        // Configura el mock para que encuentre la transacción con id 1
-        when(transactionRepository.findById(1)).thenReturn(Optional.of(transaction));
-        // Configura el mock para eliminar la transacción
-        doNothing().when(transactionRepository).delete(any(Transaction.class));
+        // Configura el mock para que el DELETE elimine la transacción con id 1 y la devuelva
+        when(transactionRepository.deleteReturning(1)).thenReturn(Optional.of(transaction));
 
         // Llama al método de servicio para eliminar la transacción
         transactionService.deleteTransaction(1);
 
-        // Verifica que el método delete() haya sido llamado una vez con el objeto transaction
-        verify(transactionRepository, times(1)).delete(any(Transaction.class));
+        // Verifica que se use una sola sentencia, sin leer antes la transacción
+        verify(transactionRepository, times(1)).deleteReturning(1);
+        verify(transactionRepository, never()).findById(anyInt());
+        // Verifica que se libere el cupo del cliente de la transacción eliminada
+        verify(customerTransactionCounter).release("Juan");
     }
 
     @Test
     void testDeleteTransactionNotFound() {
         // Configura el mock para indicar que la transacción con id 1 no existe
-        when(transactionRepository.findById(1)).thenReturn(Optional.empty());
+        when(transactionRepository.deleteReturning(1)).thenReturn(Optional.empty());
 
         // Se espera que se lance una excepción de tipo ResourceNotFoundException cuando no se encuentre la transacción
         Exception exception = assertThrows(ResourceNotFoundException.class, () -> {
@@ -113,7 +155,7 @@ class TransactionServiceTest {
     private TransactionRequestDTO getTransactionRequestDTO() {
         return TransactionRequestDTO.builder()
                 .customer("nacho")
-                .amount(500)
+                .amount(500L)
                 .merchant("Supermercado")
                 .date(OffsetDateTime.of(2025, 1, 1, 10, 0, 0, 0, ZoneOffset.UTC))
                 .build();
@@ -0,0 +1,157 @@
+package com.tenpo.service;
+
+import com.tenpo.dto.TransactionRequestDTO;
+import com.tenpo.errors.BadRequestException;
+import com.tenpo.model.Transaction;
+import com.tenpo.model.TransactionChange;
+import com.tenpo.repository.TransactionRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Ingesta asíncrona contra H2: el journal de una "ejecución anterior" se escribe antes de iniciar el contexto
+@DataJpaTest(properties = { "tenpo.write-behind.enabled=true", "tenpo.write-behind.retry-delay=50ms" })
+@Import({ WriteBehindTransactionService.class, TransactionService.class, CustomerTransactionCounter.class,
+        CustomerLedger.class,
+        WriteBehindTransactionServiceTest.Metrics.class })
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class WriteBehindTransactionServiceTest {
+
+    private static final int REPLAYED_ID = 1_000_000;
+    private static Path journalPath;
+    // Cantidad de escrituras del registro de cambios que fallan con un error que no es de integridad
+    private static final AtomicInteger changeLogFailures = new AtomicInteger();
+
+    @Autowired
+    private WriteBehindTransactionService writeBehindService;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @TestConfiguration
+    @EnableConfigurationProperties(WriteBehindProperties.class)
+    static class Metrics {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+
+        @Bean
+        TransactionChangeLog transactionChangeLog(EntityManager entityManager) {
+            return new TransactionChangeLog(entityManager) {
+                @Override
+                public void recordAll(TransactionChange.Operation operation, List<Transaction> transactions) {
+                    if (changeLogFailures.getAndUpdate(failures -> Math.max(failures - 1, 0)) > 0) {
+                        throw new IllegalStateException("Simulated failure");
+                    }
+                    super.recordAll(operation, transactions);
+                }
+            };
+        }
+    }
+
+    @DynamicPropertySource
+    static void journal(DynamicPropertyRegistry registry) throws IOException {
+        journalPath = Files.createTempDirectory("write-behind").resolve("journal");
+        try (var journal = new TransactionJournal(journalPath)) {
+            journal.sync(journal.append(Transaction.builder()
+                    .id(REPLAYED_ID)
+                    .customer("Diego")
+                    .amount(700)
+                    .merchant("Farmacia")
+                    .date(OffsetDateTime.of(2025, 1, 1, 10, 0, 0, 0, ZoneOffset.UTC))
+                    .build()));
+        }
+        registry.add("tenpo.write-behind.journal-path", journalPath::toString);
+    }
+
+    @Test
+    void testJournalIsReplayedOnStartup() {
+        // La transacción aceptada antes de la "caída" se guardó al iniciar
+        var replayed = transactionRepository.findById(REPLAYED_ID);
+        assertTrue(replayed.isPresent());
+        assertEquals("Diego", replayed.get().getCustomer());
+    }
+
+    @Test
+    void testSubmitIsWrittenInBackground() throws Exception {
+        var accepted = writeBehindService.submit(request("Pedro", 1000));
+        assertTrue(accepted.getId() > 0);
+
+        // El escritor guarda la transacción y vacía el journal
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (transactionRepository.findById(accepted.getId()).isEmpty() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertEquals(1000, transactionRepository.findById(accepted.getId()).orElseThrow().getAmount());
+        while (journalBytes() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertEquals(0, journalBytes());
+    }
+
+    @Test
+    void testWriterSurvivesUnexpectedError() throws Exception {
+        // El primer intento falla con un error que no es de integridad; el lote se reintenta
+        changeLogFailures.set(1);
+        var accepted = writeBehindService.submit(request("Ana", 1500));
+
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (transactionRepository.findById(accepted.getId()).isEmpty() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertEquals(0, changeLogFailures.get());
+        assertEquals(1500, transactionRepository.findById(accepted.getId()).orElseThrow().getAmount());
+
+        // El hilo escritor sigue vivo y guarda las siguientes
+        var next = writeBehindService.submit(request("Ana", 1600));
+        while (transactionRepository.findById(next.getId()).isEmpty() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertTrue(transactionRepository.findById(next.getId()).isPresent());
+    }
+
+    @Test
+    void testInvalidTransactionIsRejectedSynchronously() {
+        assertThrows(BadRequestException.class, () -> writeBehindService.submit(request("Pedro", -5)));
+    }
+
+    // Bytes en todos los segmentos del journal
+    private static long journalBytes() throws IOException {
+        long bytes = 0;
+        for (Path file : TransactionJournal.files(journalPath)) {
+            bytes += Files.size(file);
+        }
+        return bytes;
+    }
+
+    private static TransactionRequestDTO request(String customer, long amount) {
+        return TransactionRequestDTO.builder()
+                .customer(customer)
+                .amount(amount)
+                .merchant("Supermercado")
+                .date(OffsetDateTime.now().minusMinutes(1))
+                .build();
+    }
+}